@@ -0,0 +1,15 @@
+package com.mihaibojescu.solvers.branch_and_bound.interfaces;
+
+import com.mihaibojescu.solvers.branch_and_bound.math.Problem;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+// Shared by all workers of a search, so implementations must be thread safe
+public interface BranchingRule {
+    // Returns the variable to branch on in `result`, the LP solution of
+    // `problem`, or -1 if no variable is fractional by more than `tolerance`
+    public int selectVariable(Problem problem, Result result, double tolerance) throws Exception;
+
+    // Called when the LP of a child is solved: branching moved `variable` by
+    // `distance` up or down and the LP value dropped by `degradation`
+    public void update(int variable, boolean up, double distance, double degradation);
+}
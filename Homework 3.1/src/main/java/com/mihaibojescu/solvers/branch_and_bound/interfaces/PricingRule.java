@@ -0,0 +1,11 @@
+package com.mihaibojescu.solvers.branch_and_bound.interfaces;
+
+public interface PricingRule {
+    public void initialize(SimplexTableau tableau);
+
+    // Returns a candidate column with a positive reduced cost in `objectiveRow`, or -1 if there is none
+    public int findEnteringColumn(SimplexTableau tableau, int objectiveRow);
+
+    // Called before the tableau is pivoted on (leavingRow, enteringColumn)
+    public void update(SimplexTableau tableau, int leavingRow, int enteringColumn);
+}
@@ -0,0 +1,12 @@
+package com.mihaibojescu.solvers.branch_and_bound.interfaces;
+
+import com.mihaibojescu.solvers.branch_and_bound.math.Problem;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+// Shared by all workers of a search, so implementations must be thread safe
+public interface PrimalHeuristic {
+    // Looks for an integral solution of `problem` near `relaxation`, its LP
+    // solution; may give up early once it cannot beat `incumbent`, and
+    // returns null if nothing is found
+    public Result run(Problem problem, Result relaxation, double incumbent, double tolerance) throws Exception;
+}
@@ -0,0 +1,10 @@
+package com.mihaibojescu.solvers.branch_and_bound.interfaces;
+
+import com.mihaibojescu.solvers.branch_and_bound.util.IncumbentEvent;
+
+// Called on a search thread, in order of improving objective value, so
+// implementations should hand the event off rather than do slow work
+@FunctionalInterface
+public interface SearchListener {
+    public void incumbentFound(IncumbentEvent event);
+}
@@ -0,0 +1,17 @@
+package com.mihaibojescu.solvers.branch_and_bound.interfaces;
+
+import java.util.concurrent.ForkJoinPool;
+
+public interface SimplexTableau {
+    public double getValue(int row, int col);
+
+    public int getNumberOfConstraints();
+
+    // Columns that may enter the basis: structural and slack variables
+    public int getNumberOfCandidateColumns();
+
+    public int getBasicColumn(int row);
+
+    // Pool for parallel scans over the tableau, or null to stay on the calling thread
+    public ForkJoinPool getForkJoinPool();
+}
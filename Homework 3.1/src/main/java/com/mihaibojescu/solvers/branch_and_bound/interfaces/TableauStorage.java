@@ -0,0 +1,15 @@
+package com.mihaibojescu.solvers.branch_and_bound.interfaces;
+
+// Flat row-major storage for a simplex tableau. Indices are longs so that
+// off-heap tableaus are not limited to 2^31 entries.
+public interface TableauStorage extends AutoCloseable {
+    public double get(long index);
+
+    public void set(long index, double value);
+
+    public long size();
+
+    // Releases the memory; the storage must not be used afterwards
+    @Override
+    public void close();
+}
@@ -0,0 +1,9 @@
+package com.mihaibojescu.solvers.branch_and_bound.interfaces;
+
+import com.mihaibojescu.solvers.branch_and_bound.math.Problem;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+import com.mihaibojescu.solvers.branch_and_bound.util.SimplexBasis;
+
+public interface WarmStartSolver extends Solver {
+    public Result run(Problem problem, SimplexBasis basis) throws Exception;
+}
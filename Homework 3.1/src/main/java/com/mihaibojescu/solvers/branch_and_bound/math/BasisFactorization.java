@@ -0,0 +1,305 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BasisFactorization {
+    private static final double PIVOT_TOLERANCE = 1.0E-11;
+    private static final double DROP_TOLERANCE = 1.0E-14;
+
+    private final int size;
+
+    // LU factors: for every elimination step k, the pivot row, the basis
+    // position whose column was eliminated, the L multipliers below the pivot
+    // and the U entries above it
+    private final int[] pivotRows;
+    private final int[] pivotPositions;
+    private final double[] pivotValues;
+    private final int[][] lowerIndices;
+    private final double[][] lowerValues;
+    private final int[][] upperIndices;
+    private final double[][] upperValues;
+
+    // Product-form updates applied on top of the LU factors since the last refactorization
+    private final List<int[]> etaIndices;
+    private final List<double[]> etaValues;
+    private final List<Integer> etaRows;
+    private final List<Double> etaPivots;
+    private long etaNonZeros;
+
+    private int steps;
+
+    public BasisFactorization(int size) {
+        this.size = size;
+        this.pivotRows = new int[size];
+        this.pivotPositions = new int[size];
+        this.pivotValues = new double[size];
+        this.lowerIndices = new int[size][];
+        this.lowerValues = new double[size][];
+        this.upperIndices = new int[size][];
+        this.upperValues = new double[size][];
+        this.etaIndices = new ArrayList<>();
+        this.etaValues = new ArrayList<>();
+        this.etaRows = new ArrayList<>();
+        this.etaPivots = new ArrayList<>();
+    }
+
+    public interface ColumnSource {
+        // Scatters column `position` of the basis matrix into the dense work vector
+        void scatter(int position, double[] target);
+
+        // Number of nonzeros of column `position`, used to order the elimination
+        int nonZeros(int position);
+    }
+
+    // Factorizes the basis from scratch and discards all product-form updates.
+    // Returns { position, row } pairs for basis columns that turned out to be
+    // linearly dependent, together with a row left without a pivot; the caller
+    // is expected to swap in that row's slack column and refactorize.
+    public List<int[]> factorize(ColumnSource columns) {
+        this.etaIndices.clear();
+        this.etaValues.clear();
+        this.etaRows.clear();
+        this.etaPivots.clear();
+        this.etaNonZeros = 0;
+        this.steps = 0;
+
+        Integer[] order = new Integer[this.size];
+        for (int p = 0; p < this.size; p++) {
+            order[p] = p;
+        }
+
+        // Sparse columns first keeps the fill-in of L low for slack-heavy bases
+        Arrays.sort(order, (a, b) -> Integer.compare(columns.nonZeros(a), columns.nonZeros(b)));
+
+        boolean[] pivoted = new boolean[this.size];
+        double[] work = new double[this.size];
+        List<Integer> singularPositions = new ArrayList<>();
+        int step = 0;
+
+        for (int position : order) {
+            Arrays.fill(work, 0.0);
+            columns.scatter(position, work);
+            this.applyLower(work, step);
+
+            int pivotRow = -1;
+            double pivotMagnitude = PIVOT_TOLERANCE;
+
+            for (int i = 0; i < this.size; i++) {
+                if (!pivoted[i] && Math.abs(work[i]) > pivotMagnitude) {
+                    pivotMagnitude = Math.abs(work[i]);
+                    pivotRow = i;
+                }
+            }
+
+            if (pivotRow == -1) {
+                singularPositions.add(position);
+                continue;
+            }
+
+            int upperCount = 0;
+            int lowerCount = 0;
+
+            for (int i = 0; i < this.size; i++) {
+                if (i == pivotRow || Math.abs(work[i]) <= DROP_TOLERANCE) {
+                    continue;
+                }
+
+                if (pivoted[i]) {
+                    upperCount++;
+                } else {
+                    lowerCount++;
+                }
+            }
+
+            int[] upperIdx = new int[upperCount];
+            double[] upperVal = new double[upperCount];
+            int[] lowerIdx = new int[lowerCount];
+            double[] lowerVal = new double[lowerCount];
+            double pivotValue = work[pivotRow];
+            upperCount = 0;
+            lowerCount = 0;
+
+            for (int i = 0; i < this.size; i++) {
+                if (i == pivotRow || Math.abs(work[i]) <= DROP_TOLERANCE) {
+                    continue;
+                }
+
+                if (pivoted[i]) {
+                    upperIdx[upperCount] = i;
+                    upperVal[upperCount++] = work[i];
+                } else {
+                    lowerIdx[lowerCount] = i;
+                    lowerVal[lowerCount++] = work[i] / pivotValue;
+                }
+            }
+
+            pivoted[pivotRow] = true;
+            this.pivotRows[step] = pivotRow;
+            this.pivotPositions[step] = position;
+            this.pivotValues[step] = pivotValue;
+            this.lowerIndices[step] = lowerIdx;
+            this.lowerValues[step] = lowerVal;
+            this.upperIndices[step] = upperIdx;
+            this.upperValues[step] = upperVal;
+            step++;
+        }
+
+        this.steps = step;
+
+        List<int[]> replacements = new ArrayList<>();
+        int singular = 0;
+
+        for (int i = 0; i < this.size && singular < singularPositions.size(); i++) {
+            if (!pivoted[i]) {
+                replacements.add(new int[] { singularPositions.get(singular++), i });
+            }
+        }
+
+        return replacements;
+    }
+
+    public int getNumberOfUpdates() {
+        return this.etaRows.size();
+    }
+
+    public long getUpdateNonZeros() {
+        return this.etaNonZeros;
+    }
+
+    // Records the replacement of the basis column at `position` by a column
+    // whose FTRAN-ed representation is `alpha`
+    public void update(int position, double[] alpha) {
+        int count = 0;
+
+        for (int i = 0; i < this.size; i++) {
+            if (i != position && Math.abs(alpha[i]) > DROP_TOLERANCE) {
+                count++;
+            }
+        }
+
+        int[] indices = new int[count];
+        double[] values = new double[count];
+        count = 0;
+
+        for (int i = 0; i < this.size; i++) {
+            if (i != position && Math.abs(alpha[i]) > DROP_TOLERANCE) {
+                indices[count] = i;
+                values[count++] = alpha[i];
+            }
+        }
+
+        this.etaIndices.add(indices);
+        this.etaValues.add(values);
+        this.etaRows.add(position);
+        this.etaPivots.add(alpha[position]);
+        this.etaNonZeros += count + 1;
+    }
+
+    // Solves B x = rhs in place; on return rhs holds x indexed by basis position
+    public void ftran(double[] rhs) {
+        this.applyLower(rhs, this.steps);
+
+        double[] result = new double[this.size];
+
+        for (int k = this.steps - 1; k >= 0; k--) {
+            double value = rhs[this.pivotRows[k]];
+
+            if (value == 0.0) {
+                continue;
+            }
+
+            value /= this.pivotValues[k];
+            result[this.pivotPositions[k]] = value;
+
+            int[] indices = this.upperIndices[k];
+            double[] values = this.upperValues[k];
+
+            for (int t = 0; t < indices.length; t++) {
+                rhs[indices[t]] -= values[t] * value;
+            }
+        }
+
+        for (int e = 0; e < this.etaRows.size(); e++) {
+            int row = this.etaRows.get(e);
+            double value = result[row];
+
+            if (value == 0.0) {
+                continue;
+            }
+
+            value /= this.etaPivots.get(e);
+            result[row] = value;
+
+            int[] indices = this.etaIndices.get(e);
+            double[] values = this.etaValues.get(e);
+
+            for (int t = 0; t < indices.length; t++) {
+                result[indices[t]] -= values[t] * value;
+            }
+        }
+
+        System.arraycopy(result, 0, rhs, 0, this.size);
+    }
+
+    // Solves y B = rhs in place; rhs is indexed by basis position, y by constraint row
+    public void btran(double[] rhs) {
+        for (int e = this.etaRows.size() - 1; e >= 0; e--) {
+            int row = this.etaRows.get(e);
+            int[] indices = this.etaIndices.get(e);
+            double[] values = this.etaValues.get(e);
+            double value = rhs[row];
+
+            for (int t = 0; t < indices.length; t++) {
+                value -= values[t] * rhs[indices[t]];
+            }
+
+            rhs[row] = value / this.etaPivots.get(e);
+        }
+
+        double[] result = new double[this.size];
+        for (int k = 0; k < this.steps; k++) {
+            double value = rhs[this.pivotPositions[k]];
+            int[] indices = this.upperIndices[k];
+            double[] values = this.upperValues[k];
+
+            for (int t = 0; t < indices.length; t++) {
+                value -= values[t] * result[indices[t]];
+            }
+
+            result[this.pivotRows[k]] = value / this.pivotValues[k];
+        }
+
+        for (int k = this.steps - 1; k >= 0; k--) {
+            int[] indices = this.lowerIndices[k];
+            double[] values = this.lowerValues[k];
+            double value = result[this.pivotRows[k]];
+
+            for (int t = 0; t < indices.length; t++) {
+                value -= values[t] * result[indices[t]];
+            }
+
+            result[this.pivotRows[k]] = value;
+        }
+
+        System.arraycopy(result, 0, rhs, 0, this.size);
+    }
+
+    private void applyLower(double[] work, int steps) {
+        for (int k = 0; k < steps; k++) {
+            double value = work[this.pivotRows[k]];
+
+            if (value == 0.0) {
+                continue;
+            }
+
+            int[] indices = this.lowerIndices[k];
+            double[] values = this.lowerValues[k];
+
+            for (int t = 0; t < indices.length; t++) {
+                work[indices[t]] -= values[t] * value;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+// One branching decision: variable <= value or variable >= value. Changes
+// form an immutable list from a node back to the root, so siblings share
+// everything their parent had and a child costs one object.
+public class BoundChange {
+    private final int variable;
+    private final boolean upper;
+    private final double value;
+    private final BoundChange previous;
+
+    public BoundChange(int variable, boolean upper, double value, BoundChange previous) {
+        this.variable = variable;
+        this.upper = upper;
+        this.value = value;
+        this.previous = previous;
+    }
+
+    public int getVariable() {
+        return this.variable;
+    }
+
+    // True for variable <= value, false for variable >= value
+    public boolean isUpper() {
+        return this.upper;
+    }
+
+    public double getValue() {
+        return this.value;
+    }
+
+    // The change made one level up, or null at the root
+    public BoundChange getPrevious() {
+        return this.previous;
+    }
+}
@@ -1,31 +1,42 @@
 package com.mihaibojescu.solvers.branch_and_bound.math;
 
+import java.nio.file.Path;
 import java.text.MessageFormat;
-import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.Deque;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.BranchingRule;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.SearchListener;
 import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.WarmStartSolver;
+import com.mihaibojescu.solvers.branch_and_bound.util.FingerprintSet;
+import com.mihaibojescu.solvers.branch_and_bound.util.LinearProgramResult;
 import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+import com.mihaibojescu.solvers.branch_and_bound.util.SearchResult;
+import com.mihaibojescu.solvers.branch_and_bound.util.SimplexBasis;
 
 public class BranchAndBoundSolver implements Solver {
     private Solver solver;
     private double tolerance;
     private boolean debug;
+    private NodeSelectionStrategy nodeSelectionStrategy;
+    private BranchingStrategy branchingStrategy;
+    private PrimalHeuristics primalHeuristics;
+    private SearchLimits searchLimits;
+    private SearchListener listener;
+    private Checkpointing checkpointing;
+    private NodeStorage nodeStorage;
 
     public BranchAndBoundSolver(Solver solver, double tolerance) throws IllegalArgumentException {
-        if (tolerance < 0) {
-            throw new IllegalArgumentException(String.format("Tolerance must be >= 0, but is %d", tolerance));
-        }
-
-        this.solver = solver;
-        this.tolerance = tolerance;
-        this.debug = false;
+        this(solver, tolerance, false);
     }
 
     public BranchAndBoundSolver(Solver solver, double tolerance, boolean debug) throws IllegalArgumentException {
+        this(solver, tolerance, debug, SearchOptions.DEFAULT);
+    }
+
+    public BranchAndBoundSolver(Solver solver, double tolerance, boolean debug, SearchOptions options)
+            throws IllegalArgumentException {
         if (tolerance < 0) {
             throw new IllegalArgumentException(String.format("Tolerance must be >= 0, but is %d", tolerance));
         }
@@ -33,33 +44,111 @@ public class BranchAndBoundSolver implements Solver {
         this.solver = solver;
         this.tolerance = tolerance;
         this.debug = debug;
+        this.nodeSelectionStrategy = options.getNodeSelectionStrategy();
+        this.branchingStrategy = options.getBranchingStrategy();
+        this.primalHeuristics = options.getPrimalHeuristics();
+        this.searchLimits = options.getSearchLimits();
+        this.listener = options.getListener();
+        this.checkpointing = options.getCheckpointing();
+        this.nodeStorage = options.getNodeStorage();
     }
 
     @Override
-    public Result run(Problem problem) throws Exception {
-        Deque<Problem> queue = new ArrayDeque<>();
-        Set<String> visited = new HashSet<>();
-        queue.push(problem);
+    public SearchResult run(Problem problem) throws Exception {
+        return this.run(problem, null, 0);
+    }
 
-        Result bestResult = new Result(null, -Solver.INF);
+    // As `member` of a portfolio that shares `shared`, which may be null
+    SearchResult run(Problem problem, SharedSearch shared, int member) throws Exception {
+        return this.search(problem, new Checkpoint(List.of(new BranchNode(problem, null)),
+                new Result(null, -Solver.INF), Solver.INF, 0, 0), shared, member);
+    }
 
-        while (!queue.isEmpty()) {
-            Problem currentProblem = queue.removeLast();
-            Result result = this.solver.run(currentProblem);
+    // Continues the search saved in `checkpoint`, which must have been
+    // written for `problem`
+    public SearchResult resume(Problem problem, Path checkpoint) throws Exception {
+        return this.search(problem, Checkpoint.read(checkpoint, problem), null, 0);
+    }
 
-            this.log(MessageFormat.format("\nStatistics: {0} subproblems left, {1} subproblems visited", queue.size(), visited.size()));
-            this.log(MessageFormat.format("\tResult: {0}, with values: {1}",
-                    result.getObjectiveValue(),
-                    Arrays.toString(result.getSolution())));
+    // Starts from the open nodes and incumbent of `start`, which is also the
+    // first checkpoint written, so a file resumed from is never left without one
+    private SearchResult search(Problem problem, Checkpoint start, SharedSearch shared, int member)
+            throws Exception {
+        List<BranchNode> nodes = start.getNodes();
+        Result incumbent = start.getIncumbent();
+
+        try (CheckpointWriter checkpoints = this.checkpointing == null
+                ? null
+                : new CheckpointWriter(this.checkpointing, problem, start);
+                NodeQueue queue = new NodeQueue(this.nodeSelectionStrategy, this.nodeStorage)) {
+            SearchMonitor monitor = new SearchMonitor(this.searchLimits, this.listener, new NodeQueue[] { queue },
+                    checkpoints, start.getSolvedNodes(), start.getElapsedNanos(), shared, member);
 
-            String problemSignature = this.getProblemSignature(currentProblem);
+            nodes.forEach(queue::add);
 
-            if (visited.contains(problemSignature)) {
+            if (incumbent.getObjectiveValue() != -Solver.INF) {
+                queue.incumbentFound();
+            }
+
+            Result result = this.search(queue, monitor, incumbent);
+
+            if (result.getObjectiveValue() != Solver.INF) {
+                monitor.checkpoint(result);
+            }
+
+            return monitor.createResult(result);
+        }
+    }
+
+    private Result search(NodeQueue queue, SearchMonitor monitor, Result incumbent) throws Exception {
+        FingerprintSet visited = new FingerprintSet();
+        BranchingRule branchingRule = this.branchingStrategy.create(this.solver);
+        ReducedCostFixing reducedCostFixing = new ReducedCostFixing(this.tolerance);
+        Result bestResult = incumbent;
+        BranchNode currentNode;
+
+        // A taken node stays in the dual bound, so stopping right after taking it loses nothing
+        while ((currentNode = monitor.take(queue, 0)) != null && !monitor.shouldStop(bestResult.getObjectiveValue())) {
+            // The taken node is still open here, so the checkpoint keeps it
+            monitor.checkpointIfDue(bestResult);
+
+            // Other members of a portfolio may have found a better incumbent to prune with
+            Result sharedResult = monitor.getSharedIncumbent(bestResult.getObjectiveValue());
+
+            if (sharedResult != null) {
+                bestResult = sharedResult;
+                queue.incumbentFound();
+                reducedCostFixing.incumbentFound(bestResult.getObjectiveValue());
+                monitor.incumbentFound(bestResult);
+            }
+
+            // The parent's LP value bounds everything below the node, so there is
+            // no point in solving it if that cannot beat the incumbent
+            if (currentNode.getParentBound() <= bestResult.getObjectiveValue()) {
+                this.log("\tPruned by the parent bound");
+                continue;
+            }
+
+            // Nodes with the same bounds have the same LP, so duplicates are dropped before solving
+            if (!visited.add(currentNode.getFingerprintHigh(), currentNode.getFingerprintLow())) {
                 this.log("\tSkipping, already visited");
                 continue;
             }
 
-            visited.add(problemSignature);
+            Problem nodeProblem = currentNode.getProblem();
+            Problem currentProblem = reducedCostFixing.tighten(nodeProblem);
+            Result result = this.solve(currentNode, currentProblem);
+            this.updateBranchingRule(branchingRule, currentNode, result);
+            long solvedNode = monitor.nodeSolved(0, result.getObjectiveValue());
+
+            if (currentNode.getBoundChanges() == null) {
+                reducedCostFixing.setRoot(currentProblem, result);
+            }
+
+            this.log(MessageFormat.format("\nStatistics: {0} subproblems left, {1} subproblems visited", queue.size(), visited.size()));
+            this.log(MessageFormat.format("\tResult: {0}, with values: {1}",
+                    result.getObjectiveValue(),
+                    Arrays.toString(result.getSolution())));
 
             if (result.getObjectiveValue() == Solver.INF) {
                 return new Result(null, Solver.INF);
@@ -70,51 +159,91 @@ public class BranchAndBoundSolver implements Solver {
             }
 
             if (isSolutionIntegral(result)) {
-                bestResult = result;
+                bestResult = this.roundSolution(currentProblem, result);
+                queue.incumbentFound();
+                reducedCostFixing.incumbentFound(bestResult.getObjectiveValue());
+                monitor.incumbentFound(bestResult);
                 continue;
             }
 
-            int biggestFractionalVariableIndex = this.getBiggestFractionalVariableIndex(result);
-
-            if (biggestFractionalVariableIndex >= 0) {
-                Problem subProblem1 = currentProblem.clone();
-                Problem subProblem2 = currentProblem.clone();
-
-                subProblem1.addConstraint(
-                        this.createConstraint(currentProblem, biggestFractionalVariableIndex,
-                                1.0),
-                        Math.floor(result.getSolution()[biggestFractionalVariableIndex]));
-
-                subProblem2.addConstraint(
-                        this.createConstraint(currentProblem, biggestFractionalVariableIndex,
-                                -1.0),
-                        Math.ceil(result.getSolution()[biggestFractionalVariableIndex]));
+            // A good incumbent early on lets the parent bound prune whole subtrees
+            if (this.primalHeuristics.isDue(solvedNode)) {
+                Result heuristicResult = this.primalHeuristics.run(this.solver, currentProblem, result,
+                        bestResult.getObjectiveValue(), this.tolerance);
+
+                if (heuristicResult != null) {
+                    this.log(MessageFormat.format("\tHeuristic solution: {0}", heuristicResult.getObjectiveValue()));
+                    bestResult = heuristicResult;
+                    queue.incumbentFound();
+                    reducedCostFixing.incumbentFound(bestResult.getObjectiveValue());
+                    monitor.incumbentFound(bestResult);
+                }
+            }
 
-                queue.addLast(subProblem1);
-                queue.addLast(subProblem2);
+            // Bounds this node's LP proves for its subtree, inherited by both children
+            currentNode = reducedCostFixing.fixLocally(currentNode, nodeProblem, currentProblem, result,
+                    bestResult.getObjectiveValue());
+
+            int branchingVariable = branchingRule.selectVariable(currentProblem, result, this.tolerance);
+            this.log(MessageFormat.format("\tBranching on variable {0}", branchingVariable));
+
+            if (branchingVariable >= 0) {
+                double value = result.getSolution()[branchingVariable];
+                SimplexBasis basis = this.getBasis(result);
+                double bound = result.getObjectiveValue();
+                double[] objective = currentProblem.getObjectiveFunctionMultipliers().toRawVector();
+                double lower = nodeProblem.getVariableLowerBounds()[branchingVariable];
+                double upper = nodeProblem.getVariableUpperBounds()[branchingVariable];
+
+                queue.add(currentNode.createChild(branchingVariable, true, value, upper, basis, bound,
+                        BranchNode.estimateChild(objective, result.getSolution(), bound, branchingVariable, false,
+                                this.tolerance)));
+                queue.add(currentNode.createChild(branchingVariable, false, value, lower, basis, bound,
+                        BranchNode.estimateChild(objective, result.getSolution(), bound, branchingVariable, true,
+                                this.tolerance)));
             }
         }
 
         return bestResult;
     }
 
-    private void log(String string) {
-        if (!this.debug) {
+    // Children differ from their parent by a single bound, so solvers that
+    // support it re-optimize from the parent's basis instead of starting over
+    private Result solve(BranchNode node, Problem problem) throws Exception {
+        if (node.getParentBasis() != null && this.solver instanceof WarmStartSolver) {
+            return ((WarmStartSolver) this.solver).run(problem, node.getParentBasis());
+        }
+
+        return this.solver.run(problem);
+    }
+
+    // Feeds the branching rule how much the LP got worse from the parent to this node
+    private void updateBranchingRule(BranchingRule branchingRule, BranchNode node, Result result) {
+        BoundChange change = node.getBoundChanges();
+        double value = result.getObjectiveValue();
+
+        if (change == null || value == Solver.INF || value == -Solver.INF) {
             return;
         }
 
-        System.out.println(string);
+        branchingRule.update(change.getVariable(), !change.isUpper(),
+                Math.abs(change.getValue() - node.getBranchingValue()), node.getParentBound() - value);
     }
 
-    private String getProblemSignature(Problem problem) {
-        StringBuilder signature = new StringBuilder();
+    private SimplexBasis getBasis(Result result) {
+        if (result instanceof LinearProgramResult) {
+            return ((LinearProgramResult) result).getBasis();
+        }
+
+        return null;
+    }
 
-        for (double[] row : problem.getConstraints().toRawMatrix()) {
-            signature.append(Arrays.toString(row)).append(";");
+    private void log(String string) {
+        if (!this.debug) {
+            return;
         }
 
-        signature.append(Arrays.toString(problem.getBounds().toRawVector()));
-        return signature.toString();
+        System.out.println(string);
     }
 
     private boolean isSolutionIntegral(Result result) {
@@ -122,7 +251,7 @@ public class BranchAndBoundSolver implements Solver {
         double[] solution = result.getSolution();
 
         for (double x : solution) {
-            if (x - Math.floor(x) > this.tolerance) {
+            if (Math.abs(x - Math.rint(x)) > this.tolerance) {
                 isIntegral = false;
                 break;
             }
@@ -133,28 +262,18 @@ public class BranchAndBoundSolver implements Solver {
         return isIntegral;
     }
 
-    private int getBiggestFractionalVariableIndex(Result result) {
-        int index = -1;
-        double maxFraction = 0.0;
-        double[] solution = result.getSolution();
+    // Snaps an integral LP solution to exact integers, so the reported
+    // incumbent does not carry the LP's floating point noise
+    private Result roundSolution(Problem problem, Result result) {
+        double[] solution = new double[result.getSolution().length];
+        double[] objective = problem.getObjectiveFunctionMultipliers().toRawVector();
+        double objectiveValue = 0;
 
         for (int i = 0; i < solution.length; i++) {
-            double fraction = solution[i] - Math.floor(solution[i]);
-
-            if (fraction > maxFraction) {
-                maxFraction = fraction;
-                index = i;
-            }
+            solution[i] = Math.rint(result.getSolution()[i]);
+            objectiveValue += objective[i] * solution[i];
         }
 
-        this.log(MessageFormat.format("\tBiggest fractional value: {0}, index {1}", solution[index], index));
-
-        return index;
-    }
-
-    private double[] createConstraint(Problem problem, int variableIndex, double coefficient) {
-        double[] constraintMultipliers = new double[problem.getNumberOfVariables()];
-        constraintMultipliers[variableIndex] = coefficient;
-        return constraintMultipliers;
+        return new Result(solution, objectiveValue);
     }
 }
@@ -0,0 +1,184 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.SimplexBasis;
+
+// A node is the root problem plus the bound changes made on the way down;
+// its LP is only built when the node is solved
+public class BranchNode {
+    private static final long HIGH_SEED = 0x9E3779B97F4A7C15L;
+    private static final long LOW_SEED = 0xC2B2AE3D27D4EB4FL;
+
+    private Problem rootProblem;
+    private BoundChange boundChanges;
+    private SimplexBasis parentBasis;
+
+    // The parent's LP value bounds this node's from above; the estimate
+    // guesses the value of the best integral solution below the node
+    private double parentBound;
+    private double estimate;
+    private int depth;
+
+    // The parent's LP value of the variable this node branched on
+    private double branchingValue;
+
+    // 128-bit hash of the node's bounds relative to the root's: an XOR of
+    // one term per (variable, side, value), so it is updated in O(1) per
+    // branch and equal bound sets reached along different paths collide
+    private long fingerprintHigh;
+    private long fingerprintLow;
+
+    public BranchNode(Problem problem, SimplexBasis parentBasis) {
+        this(problem, parentBasis, Solver.INF, Solver.INF, 0);
+    }
+
+    public BranchNode(Problem problem, SimplexBasis parentBasis, double parentBound, double estimate, int depth) {
+        this(problem, null, parentBasis, parentBound, estimate, depth, Double.NaN, 0, 0);
+    }
+
+    private BranchNode(Problem rootProblem, BoundChange boundChanges, SimplexBasis parentBasis, double parentBound,
+            double estimate, int depth, double branchingValue, long fingerprintHigh, long fingerprintLow) {
+        this.rootProblem = rootProblem;
+        this.boundChanges = boundChanges;
+        this.parentBasis = parentBasis;
+        this.parentBound = parentBound;
+        this.estimate = estimate;
+        this.depth = depth;
+        this.branchingValue = branchingValue;
+        this.fingerprintHigh = fingerprintHigh;
+        this.fingerprintLow = fingerprintLow;
+    }
+
+    // A node read back from a checkpoint or a spill file
+    static BranchNode restore(Problem rootProblem, BoundChange boundChanges, SimplexBasis parentBasis,
+            double parentBound, double estimate, int depth, double branchingValue, long fingerprintHigh,
+            long fingerprintLow) {
+        return new BranchNode(rootProblem, boundChanges, parentBasis, parentBound, estimate, depth, branchingValue,
+                fingerprintHigh, fingerprintLow);
+    }
+
+    // The child where the fractional `solutionValue` of `variable` is rounded
+    // down to a new upper bound (upper) or up to a new lower bound, which
+    // replaces the bound `previousValue`
+    public BranchNode createChild(int variable, boolean upper, double solutionValue, double previousValue,
+            SimplexBasis basis, double bound, double estimate) {
+        double value = upper ? Math.floor(solutionValue) : Math.ceil(solutionValue);
+
+        return new BranchNode(this.rootProblem, new BoundChange(variable, upper, value, this.boundChanges), basis,
+                bound, estimate, this.depth + 1, solutionValue,
+                this.fingerprintHigh ^ hash(HIGH_SEED, variable, upper, previousValue)
+                        ^ hash(HIGH_SEED, variable, upper, value),
+                this.fingerprintLow ^ hash(LOW_SEED, variable, upper, previousValue)
+                        ^ hash(LOW_SEED, variable, upper, value));
+    }
+
+    // This node with one more bound, replacing `previousValue`; unlike a
+    // child it keeps the node's basis, bounds and branching value
+    public BranchNode withBoundChange(int variable, boolean upper, double value, double previousValue) {
+        return new BranchNode(this.rootProblem, new BoundChange(variable, upper, value, this.boundChanges),
+                this.parentBasis, this.parentBound, this.estimate, this.depth, this.branchingValue,
+                this.fingerprintHigh ^ hash(HIGH_SEED, variable, upper, previousValue)
+                        ^ hash(HIGH_SEED, variable, upper, value),
+                this.fingerprintLow ^ hash(LOW_SEED, variable, upper, previousValue)
+                        ^ hash(LOW_SEED, variable, upper, value));
+    }
+
+    public long getFingerprintHigh() {
+        return this.fingerprintHigh;
+    }
+
+    public long getFingerprintLow() {
+        return this.fingerprintLow;
+    }
+
+    // Builds this node's LP. Bound changes only ever tighten, so they can be
+    // applied in any order.
+    public Problem getProblem() {
+        if (this.boundChanges == null) {
+            return this.rootProblem;
+        }
+
+        double[] lower = this.rootProblem.getVariableLowerBounds().clone();
+        double[] upper = this.rootProblem.getVariableUpperBounds().clone();
+
+        for (BoundChange change = this.boundChanges; change != null; change = change.getPrevious()) {
+            int variable = change.getVariable();
+
+            if (change.isUpper()) {
+                upper[variable] = Math.min(upper[variable], change.getValue());
+            } else {
+                lower[variable] = Math.max(lower[variable], change.getValue());
+            }
+        }
+
+        return this.rootProblem.withVariableBounds(lower, upper);
+    }
+
+    public Problem getRootProblem() {
+        return this.rootProblem;
+    }
+
+    // The most recent bound change, or null for the root
+    public BoundChange getBoundChanges() {
+        return this.boundChanges;
+    }
+
+    public SimplexBasis getParentBasis() {
+        return this.parentBasis;
+    }
+
+    public double getParentBound() {
+        return this.parentBound;
+    }
+
+    public double getEstimate() {
+        return this.estimate;
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    // NaN for the root
+    public double getBranchingValue() {
+        return this.branchingValue;
+    }
+
+    private static long hash(long seed, int variable, boolean upper, double value) {
+        // + 0.0 turns -0.0 into 0.0, so both hash alike
+        long key = mix(seed ^ (2L * variable + (upper ? 1 : 0)));
+        return mix(key ^ Double.doubleToLongBits(value + 0.0));
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    // Best projection estimate for the child that rounds `solution[index]`
+    // down or up: every fractional variable is assumed to cost its objective
+    // coefficient per unit it moves to the nearest integer, except the
+    // branching variable, which has to move in the child's direction
+    public static double estimateChild(double[] objective, double[] solution, double bound, int index,
+            boolean up, double tolerance) {
+        double estimate = bound;
+
+        for (int j = 0; j < solution.length; j++) {
+            double fraction = solution[j] - Math.floor(solution[j]);
+
+            if (Math.abs(solution[j] - Math.rint(solution[j])) <= tolerance) {
+                continue;
+            }
+
+            if (j == index) {
+                estimate -= Math.abs(objective[j]) * (up ? 1 - fraction : fraction);
+            } else {
+                estimate -= Math.abs(objective[j]) * Math.min(fraction, 1 - fraction);
+            }
+        }
+
+        return estimate;
+    }
+}
@@ -0,0 +1,74 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.WarmStartSolver;
+import com.mihaibojescu.solvers.branch_and_bound.util.LinearProgramResult;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+// Helpers shared by the branching rules
+final class BranchingScores {
+    private static final double EPSILON = 1.0E-6;
+
+    private BranchingScores() {
+    }
+
+    // Fractional variables, most fractional first
+    static List<Integer> getCandidates(double[] solution, double tolerance) {
+        List<Integer> candidates = new ArrayList<>();
+
+        for (int j = 0; j < solution.length; j++) {
+            if (Math.abs(solution[j] - Math.rint(solution[j])) > tolerance) {
+                candidates.add(j);
+            }
+        }
+
+        candidates.sort(Comparator.comparingDouble((Integer j) -> -getFractionality(solution[j])));
+        return candidates;
+    }
+
+    // Distance to the nearest integer
+    static double getFractionality(double value) {
+        double fraction = value - Math.floor(value);
+        return Math.min(fraction, 1 - fraction);
+    }
+
+    // Product rule: favours variables that degrade the objective in both children
+    static double score(double downDegradation, double upDegradation) {
+        return Math.max(downDegradation, EPSILON) * Math.max(upDegradation, EPSILON);
+    }
+
+    // Solves the LP of one child of `problem` and returns how much worse it
+    // is than `result`; an infeasible child counts as infinitely worse
+    static double trialDegradation(Solver solver, Problem problem, Result result, int variable, boolean up)
+            throws Exception {
+        double value = result.getSolution()[variable];
+        double[] lower = problem.getVariableLowerBounds().clone();
+        double[] upper = problem.getVariableUpperBounds().clone();
+
+        if (up) {
+            lower[variable] = Math.ceil(value);
+        } else {
+            upper[variable] = Math.floor(value);
+        }
+
+        Problem child = problem.withVariableBounds(lower, upper);
+        Result childResult;
+
+        if (solver instanceof WarmStartSolver && result instanceof LinearProgramResult
+                && ((LinearProgramResult) result).getBasis() != null) {
+            childResult = ((WarmStartSolver) solver).run(child, ((LinearProgramResult) result).getBasis());
+        } else {
+            childResult = solver.run(child);
+        }
+
+        if (childResult.getObjectiveValue() == -Solver.INF) {
+            return Solver.INF;
+        }
+
+        return Math.max(result.getObjectiveValue() - childResult.getObjectiveValue(), 0);
+    }
+}
@@ -0,0 +1,26 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.BranchingRule;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+
+public enum BranchingStrategy {
+    MOST_FRACTIONAL,
+    PSEUDO_COST,
+    STRONG,
+    RELIABILITY;
+
+    // Rules learn during a search, so every search gets a fresh one; strong
+    // and reliability branching solve their trial LPs with `solver`
+    public BranchingRule create(Solver solver) {
+        switch (this) {
+            case PSEUDO_COST:
+                return new PseudoCostBranchingRule();
+            case STRONG:
+                return new StrongBranchingRule(solver);
+            case RELIABILITY:
+                return new ReliabilityBranchingRule(solver);
+            default:
+                return new MostFractionalBranchingRule();
+        }
+    }
+}
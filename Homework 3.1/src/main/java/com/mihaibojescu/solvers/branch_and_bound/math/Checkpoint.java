@@ -0,0 +1,256 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+// A snapshot of a search: its open nodes, incumbent, dual bound and
+// statistics.
+//
+// A checkpoint file is a header followed by records, each one checkpoint:
+// magic, payload length, payload, CRC32 of the payload. Records are only
+// ever appended, so a crash can at worst leave a torn last record, which
+// the reader skips in favour of the one before it. The bound changes of
+// all nodes are written once each and referenced by index, so nodes keep
+// sharing their common ancestry. Nodes are saved without their parent's
+// basis, so after a resume their LPs are solved cold; the visited set is
+// not saved either, which only costs a few duplicate nodes.
+public class Checkpoint {
+    static final int FILE_MAGIC = 0x42424350;
+    static final int RECORD_MAGIC = 0x52454344;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+
+    private final List<BranchNode> nodes;
+    private final Result incumbent;
+    private final double dualBound;
+    private final long solvedNodes;
+    private final long elapsedNanos;
+
+    public Checkpoint(List<BranchNode> nodes, Result incumbent, double dualBound, long solvedNodes,
+            long elapsedNanos) {
+        this.nodes = nodes;
+        this.incumbent = incumbent;
+        this.dualBound = dualBound;
+        this.solvedNodes = solvedNodes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public List<BranchNode> getNodes() {
+        return this.nodes;
+    }
+
+    public Result getIncumbent() {
+        return this.incumbent;
+    }
+
+    public double getDualBound() {
+        return this.dualBound;
+    }
+
+    public long getSolvedNodes() {
+        return this.solvedNodes;
+    }
+
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    // The last complete checkpoint in `path`, with its nodes rebuilt on top of `problem`
+    public static Checkpoint read(Path path, Problem problem) throws IOException, IllegalArgumentException {
+        ByteBuffer last = null;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (file.remaining() < HEADER_BYTES || file.getInt() != FILE_MAGIC || file.getInt() != VERSION) {
+                throw new IOException(MessageFormat.format("{0} is not a checkpoint file", path));
+            }
+
+            while (file.remaining() >= 8 && file.getInt() == RECORD_MAGIC) {
+                int length = file.getInt();
+
+                if (length < 0 || file.remaining() < length + 8L) {
+                    break;
+                }
+
+                ByteBuffer payload = file.slice(file.position(), length);
+                file.position(file.position() + length);
+                CRC32 crc = new CRC32();
+                crc.update(payload.duplicate());
+
+                if (file.getLong() != crc.getValue()) {
+                    break;
+                }
+
+                last = payload;
+            }
+        }
+
+        if (last == null) {
+            throw new IOException(MessageFormat.format("{0} holds no complete checkpoint", path));
+        }
+
+        try {
+            return decode(last, problem);
+        } catch (BufferUnderflowException e) {
+            throw new IOException(MessageFormat.format("{0} holds a malformed checkpoint", path), e);
+        }
+    }
+
+    // One record payload
+    ByteBuffer encode(long problemFingerprint) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        Map<BoundChange, Integer> indices = new IdentityHashMap<>();
+        List<BoundChange> changes = new ArrayList<>();
+
+        // Parents before children, so the reader can link each change to an earlier one
+        for (BranchNode node : this.nodes) {
+            Deque<BoundChange> unseen = new ArrayDeque<>();
+
+            for (BoundChange change = node.getBoundChanges(); change != null && !indices.containsKey(change);
+                    change = change.getPrevious()) {
+                unseen.push(change);
+            }
+
+            while (!unseen.isEmpty()) {
+                BoundChange change = unseen.pop();
+                indices.put(change, changes.size());
+                changes.add(change);
+            }
+        }
+
+        out.writeLong(problemFingerprint);
+        out.writeLong(this.solvedNodes);
+        out.writeLong(this.elapsedNanos);
+        out.writeDouble(this.dualBound);
+        out.writeDouble(this.incumbent.getObjectiveValue());
+
+        double[] solution = this.incumbent.getSolution();
+        out.writeInt(solution == null ? -1 : solution.length);
+
+        for (int j = 0; solution != null && j < solution.length; j++) {
+            out.writeDouble(solution[j]);
+        }
+
+        out.writeInt(changes.size());
+
+        for (BoundChange change : changes) {
+            out.writeInt(change.getPrevious() == null ? -1 : indices.get(change.getPrevious()));
+            out.writeInt(change.getVariable());
+            out.writeBoolean(change.isUpper());
+            out.writeDouble(change.getValue());
+        }
+
+        out.writeInt(this.nodes.size());
+
+        for (BranchNode node : this.nodes) {
+            out.writeInt(node.getBoundChanges() == null ? -1 : indices.get(node.getBoundChanges()));
+            out.writeDouble(node.getParentBound());
+            out.writeDouble(node.getEstimate());
+            out.writeDouble(node.getBranchingValue());
+            out.writeInt(node.getDepth());
+            out.writeLong(node.getFingerprintHigh());
+            out.writeLong(node.getFingerprintLow());
+        }
+
+        out.flush();
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    private static Checkpoint decode(ByteBuffer in, Problem problem) throws IllegalArgumentException {
+        if (in.getLong() != fingerprint(problem)) {
+            throw new IllegalArgumentException("The checkpoint was written for a different problem");
+        }
+
+        long solvedNodes = in.getLong();
+        long elapsedNanos = in.getLong();
+        double dualBound = in.getDouble();
+        double objectiveValue = in.getDouble();
+        int solutionLength = in.getInt();
+        double[] solution = solutionLength < 0 ? null : new double[solutionLength];
+
+        for (int j = 0; j < solutionLength; j++) {
+            solution[j] = in.getDouble();
+        }
+
+        BoundChange[] changes = new BoundChange[in.getInt()];
+
+        for (int k = 0; k < changes.length; k++) {
+            int previous = in.getInt();
+            changes[k] = new BoundChange(in.getInt(), in.get() != 0, in.getDouble(),
+                    previous < 0 ? null : changes[previous]);
+        }
+
+        List<BranchNode> nodes = new ArrayList<>();
+        int numberOfNodes = in.getInt();
+
+        for (int k = 0; k < numberOfNodes; k++) {
+            int change = in.getInt();
+            double parentBound = in.getDouble();
+            double estimate = in.getDouble();
+            double branchingValue = in.getDouble();
+            int depth = in.getInt();
+            long fingerprintHigh = in.getLong();
+            long fingerprintLow = in.getLong();
+
+            nodes.add(BranchNode.restore(problem, change < 0 ? null : changes[change], null, parentBound, estimate, depth,
+                    branchingValue, fingerprintHigh, fingerprintLow));
+        }
+
+        return new Checkpoint(nodes, new Result(solution, objectiveValue), dualBound, solvedNodes, elapsedNanos);
+    }
+
+    // Guards against resuming a checkpoint with another problem
+    static long fingerprint(Problem problem) {
+        SparseMatrix constraints = problem.getSparseConstraints();
+        long hash = 0xCBF29CE484222325L;
+
+        hash = mix(hash, problem.getNumberOfVariables());
+        hash = mix(hash, problem.getNumberOfConstraints());
+        hash = mix(hash, problem.getObjectiveFunctionMultipliers().toRawVector());
+        hash = mix(hash, problem.getBounds().toRawVector());
+        hash = mix(hash, constraints.getRowValues());
+        hash = mix(hash, problem.getVariableLowerBounds());
+        hash = mix(hash, problem.getVariableUpperBounds());
+
+        for (int index : constraints.getRowColumnIndices()) {
+            hash = mix(hash, index);
+        }
+
+        for (int start : constraints.getRowStarts()) {
+            hash = mix(hash, start);
+        }
+
+        return hash;
+    }
+
+    private static long mix(long hash, double[] values) {
+        for (double value : values) {
+            hash = mix(hash, Double.doubleToLongBits(value + 0.0));
+        }
+
+        return hash;
+    }
+
+    // FNV-1a step over a whole long
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * 0x100000001B3L;
+    }
+}
@@ -0,0 +1,126 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+// Appends checkpoints of one search to its file, in the format described in
+// Checkpoint. Only the last record matters, so once the older ones take up
+// most of the file it is rewritten with just the last one, through a
+// temporary file and an atomic rename so that a crash never leaves it
+// without a complete checkpoint. Safe to share between workers.
+public class CheckpointWriter implements AutoCloseable {
+    // Compacts once the file is this many times the size of its last record
+    private static final int COMPACTION_FACTOR = 8;
+
+    private final Checkpointing checkpointing;
+    private final long problemFingerprint;
+    private final AtomicLong nextCheckpoint;
+    private FileChannel channel;
+    private long lastSync;
+
+    // Starts a new file, replacing any checkpoint of an earlier search
+    public CheckpointWriter(Checkpointing checkpointing, Problem problem) throws IOException {
+        this(checkpointing, problem, null);
+    }
+
+    // Starts a new file holding `initial`, if not null. The file is replaced
+    // through the temporary file too, so resuming from it and checkpointing
+    // to it again never leaves it without the checkpoint resumed from
+    public CheckpointWriter(Checkpointing checkpointing, Problem problem, Checkpoint initial) throws IOException {
+        this.checkpointing = checkpointing;
+        this.problemFingerprint = Checkpoint.fingerprint(problem);
+        this.nextCheckpoint = new AtomicLong(System.nanoTime() + checkpointing.getInterval().toNanos());
+        this.replace(initial == null ? ByteBuffer.allocate(0) : this.record(initial));
+    }
+
+    // True for exactly one caller once the interval is up
+    public boolean claim() {
+        long now = System.nanoTime();
+        long next = this.nextCheckpoint.get();
+
+        return now - next >= 0
+                && this.nextCheckpoint.compareAndSet(next, now + this.checkpointing.getInterval().toNanos());
+    }
+
+    public synchronized void write(Checkpoint checkpoint, boolean sync) throws IOException {
+        ByteBuffer record = this.record(checkpoint);
+
+        if (this.channel.size() > COMPACTION_FACTOR * (long) record.remaining()) {
+            this.replace(record);
+        } else {
+            while (record.hasRemaining()) {
+                this.channel.write(record);
+            }
+        }
+
+        long now = System.nanoTime();
+
+        if (sync || now - this.lastSync >= this.checkpointing.getSyncInterval().toNanos()) {
+            this.channel.force(false);
+            this.lastSync = now;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.channel.close();
+    }
+
+    private ByteBuffer record(Checkpoint checkpoint) throws IOException {
+        ByteBuffer payload = checkpoint.encode(this.problemFingerprint);
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+
+        ByteBuffer record = ByteBuffer.allocate(8 + payload.remaining() + 8);
+        record.putInt(Checkpoint.RECORD_MAGIC);
+        record.putInt(payload.remaining());
+        record.put(payload);
+        record.putLong(crc.getValue());
+        record.flip();
+        return record;
+    }
+
+    // Rewrites the file with just `record`, which may be empty
+    private void replace(ByteBuffer record) throws IOException {
+        Path path = this.checkpointing.getPath();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel replacement = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = header();
+
+            while (header.hasRemaining()) {
+                replacement.write(header);
+            }
+
+            while (record.hasRemaining()) {
+                replacement.write(record);
+            }
+
+            replacement.force(true);
+        }
+
+        if (this.channel != null) {
+            this.channel.close();
+        }
+
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        this.channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.lastSync = System.nanoTime();
+    }
+
+    private static ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(Checkpoint.HEADER_BYTES);
+        header.putInt(Checkpoint.FILE_MAGIC);
+        header.putInt(Checkpoint.VERSION);
+        header.flip();
+        return header;
+    }
+}
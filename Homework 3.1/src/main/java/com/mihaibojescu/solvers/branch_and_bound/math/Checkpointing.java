@@ -0,0 +1,43 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Where and how often branch and bound saves its progress. A checkpoint is
+// appended every `interval`; the file is fsynced at most every
+// `syncInterval`, and always after the last checkpoint of a run.
+public class Checkpointing {
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_SYNC_INTERVAL = Duration.ofMinutes(2);
+
+    private final Path path;
+    private final Duration interval;
+    private final Duration syncInterval;
+
+    public Checkpointing(Path path) {
+        this(path, DEFAULT_INTERVAL, DEFAULT_SYNC_INTERVAL);
+    }
+
+    public Checkpointing(Path path, Duration interval, Duration syncInterval) throws IllegalArgumentException {
+        if (interval.isNegative() || syncInterval.isNegative()) {
+            throw new IllegalArgumentException(String.format(
+                    "Intervals must be >= 0, but are %s and %s", interval, syncInterval));
+        }
+
+        this.path = path;
+        this.interval = interval;
+        this.syncInterval = syncInterval;
+    }
+
+    public Path getPath() {
+        return this.path;
+    }
+
+    public Duration getInterval() {
+        return this.interval;
+    }
+
+    public Duration getSyncInterval() {
+        return this.syncInterval;
+    }
+}
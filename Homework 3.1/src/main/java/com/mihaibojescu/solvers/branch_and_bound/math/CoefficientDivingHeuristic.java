@@ -0,0 +1,52 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+
+// Dives on the variable with the fewest locks in its better direction, so
+// each step breaks as few rows as possible; ties go to the least fractional.
+// Variables without locks are left alone, simple rounding handles them
+public class CoefficientDivingHeuristic extends DivingHeuristic {
+    public CoefficientDivingHeuristic(Solver solver) {
+        super(solver);
+    }
+
+    @Override
+    protected int selectVariable(Problem problem, double[] solution, int[][] locks, double tolerance) {
+        int best = -1;
+        int bestLocks = Integer.MAX_VALUE;
+        double bestFractionality = Double.POSITIVE_INFINITY;
+        int trivial = -1;
+
+        for (int j = 0; j < solution.length; j++) {
+            double fractionality = BranchingScores.getFractionality(solution[j]);
+
+            if (fractionality <= tolerance) {
+                continue;
+            }
+
+            int fewestLocks = Math.min(locks[0][j], locks[1][j]);
+
+            if (fewestLocks == 0) {
+                trivial = j;
+                continue;
+            }
+
+            if (fewestLocks < bestLocks || fewestLocks == bestLocks && fractionality < bestFractionality) {
+                bestLocks = fewestLocks;
+                bestFractionality = fractionality;
+                best = j;
+            }
+        }
+
+        return best >= 0 ? best : trivial;
+    }
+
+    @Override
+    protected boolean roundUp(Problem problem, double[] solution, int[][] locks, int variable) {
+        if (locks[0][variable] != locks[1][variable]) {
+            return locks[1][variable] < locks[0][variable];
+        }
+
+        return solution[variable] - Math.floor(solution[variable]) >= 0.5;
+    }
+}
@@ -1,6 +1,7 @@
 package com.mihaibojescu.solvers.branch_and_bound.math;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class CuttingPlaneSolver {
@@ -12,6 +13,8 @@ public class CuttingPlaneSolver {
     private double[] objective;
     private int numVariables;
     private int numConstraints;
+    private boolean isFeasible;
+    private boolean isUnbounded;
 
     public CuttingPlaneSolver(double[][] coefficients, double[] rhs, double[] objective) {
         this.coefficients = coefficients;
@@ -19,38 +22,79 @@ public class CuttingPlaneSolver {
         this.objective = objective;
         this.numVariables = objective.length;
         this.numConstraints = rhs.length;
+        this.isFeasible = true;
+        this.isUnbounded = false;
     }
 
+    // Null when the problem is infeasible or unbounded, and when the search
+    // is interrupted or runs out of iterations without an integral solution
     public double[] solve() {
+        return this.solve(MAX_ITERATIONS, new ArrayList<>(), new ArrayList<>());
+    }
+
+    // The cuts of at most `rounds` rounds, one per round, each as its
+    // coefficients followed by its right-hand side. The loop stops early when
+    // the LP turns integral, infeasible or unbounded, or is interrupted
+    public List<double[]> generateCuts(int rounds) {
         List<double[]> additionalConstraints = new ArrayList<>();
         List<Double> additionalRhs = new ArrayList<>();
+        List<double[]> cuts = new ArrayList<>();
 
-        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
-            TwoPhaseSimplexSolver solver = new TwoPhaseSimplexSolver(getCurrentCoefficients(additionalConstraints),
-                    getCurrentRhs(additionalRhs), objective);
+        this.solve(rounds, additionalConstraints, additionalRhs);
 
-            if (!solver.isFeasible()) {
-                System.out.println("Infeasible problem");
+        for (int i = 0; i < additionalConstraints.size(); i++) {
+            double[] cut = Arrays.copyOf(additionalConstraints.get(i), numVariables + 1);
+            cut[numVariables] = additionalRhs.get(i);
+            cuts.add(cut);
+        }
+
+        return cuts;
+    }
+
+    private double[] solve(int iterations, List<double[]> additionalConstraints, List<Double> additionalRhs) {
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            if (Thread.currentThread().isInterrupted()) {
                 return null;
             }
 
+            double[][] currentCoefficients = getCurrentCoefficients(additionalConstraints);
+            double[] currentRhs = getCurrentRhs(additionalRhs);
+            TwoPhaseSimplexSolver solver = new TwoPhaseSimplexSolver(currentCoefficients, currentRhs, objective);
+
             double[] solution = solver.solve();
 
+            // The simplex only knows once it has run; cuts never make a problem unbounded
+            if (solver.isUnbounded()) {
+                isUnbounded = true;
+                return null;
+            }
+
+            if (!solver.isFeasible()) {
+                isFeasible = false;
+                return null;
+            }
+
             if (isIntegerSolution(solution)) {
                 return solution;
             }
 
-            int nonIntegerIndex = findNonIntegerIndex(solution);
-            double[] gomoryFractionalCut = this.generateGomoryFractionalCut(solver, nonIntegerIndex);
+            int row = findBasicRow(solver, findNonIntegerIndex(solution));
 
-            additionalConstraints.add(gomoryFractionalCut);
-            additionalRhs.add(Math.floor(solver.getTableauValue(nonIntegerIndex, solver.getNumColumns() - 1)));
+            additionalConstraints.add(this.generateGomoryFractionalCut(solver, row, currentCoefficients));
+            additionalRhs.add(this.generateGomoryFractionalCutRhs(solver, row, currentRhs));
         }
 
-        System.out.println("Max iterations reached without finding an integer solution");
         return null;
     }
 
+    public boolean isFeasible() {
+        return isFeasible;
+    }
+
+    public boolean isUnbounded() {
+        return isUnbounded;
+    }
+
     private double[][] getCurrentCoefficients(List<double[]> additionalConstraints) {
         double[][] currentCoefficients = new double[numConstraints + additionalConstraints.size()][numVariables];
 
@@ -92,12 +136,47 @@ public class CuttingPlaneSolver {
         return -1;
     }
 
-    private double[] generateGomoryFractionalCut(TwoPhaseSimplexSolver solver, int nonIntegerIndex) {
+    // A fractional variable is basic, since nonbasic ones sit at zero
+    private int findBasicRow(TwoPhaseSimplexSolver solver, int variable) {
+        for (int i = 0; i < solver.getNumberOfConstraints(); i++) {
+            if (solver.getBasicColumn(i) == variable) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // The tableau row of the fractional basic variable reads
+    // x_k + sum a_j y_j = b over the structural and slack columns, so rounding
+    // its coefficients down gives the cut x_k + sum floor(a_j) y_j <= floor(b).
+    // The slacks s_i = rhs_i - A_i x are substituted back to get a cut on the
+    // structural variables. The cut is only valid when every slack is integral
+    // on integral points, i.e. for integral coefficients and right-hand sides
+    private double[] generateGomoryFractionalCut(TwoPhaseSimplexSolver solver, int row,
+            double[][] currentCoefficients) {
         double[] cut = new double[numVariables];
         for (int j = 0; j < numVariables; j++) {
-            double aij = solver.getTableauValue(nonIntegerIndex, j);
-            cut[j] = Math.floor(aij) - aij;
+            cut[j] = roundDown(solver.getTableauValue(row, j));
+        }
+        for (int i = 0; i < currentCoefficients.length; i++) {
+            double slack = roundDown(solver.getTableauValue(row, numVariables + i));
+            for (int j = 0; j < numVariables; j++) {
+                cut[j] -= slack * currentCoefficients[i][j];
+            }
         }
         return cut;
     }
-}
\ No newline at end of file
+
+    private double generateGomoryFractionalCutRhs(TwoPhaseSimplexSolver solver, int row, double[] currentRhs) {
+        double cutRhs = roundDown(solver.getTableauValue(row, solver.getNumColumns() - 1));
+        for (int i = 0; i < currentRhs.length; i++) {
+            cutRhs -= roundDown(solver.getTableauValue(row, numVariables + i)) * currentRhs[i];
+        }
+        return cutRhs;
+    }
+
+    // Values within EPSILON of an integer are taken to be that integer
+    private static double roundDown(double value) {
+        return Math.floor(value + EPSILON);
+    }
+}
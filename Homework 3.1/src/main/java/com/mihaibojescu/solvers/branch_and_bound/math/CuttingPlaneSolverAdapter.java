@@ -6,9 +6,25 @@ import com.mihaibojescu.solvers.branch_and_bound.util.Result;
 public class CuttingPlaneSolverAdapter implements Solver {
     @Override
     public Result run(Problem problem) throws Exception {
+        problem = problem.withVariableBoundsAsConstraints();
         CuttingPlaneSolver solver = new CuttingPlaneSolver(problem.getConstraints().toRawMatrix(),
                 problem.getBounds().toRawVector(), problem.getObjectiveFunctionMultipliers().toRawVector());
-        Matrix solution = new Matrix(solver.solve());
+        double[] rawSolution = solver.solve();
+
+        if (rawSolution == null) {
+            if (solver.isUnbounded()) {
+                return new Result(null, Solver.INF);
+            }
+
+            if (!solver.isFeasible()) {
+                return new Result(null, -Solver.INF);
+            }
+
+            // Interrupted, or out of iterations
+            throw new IllegalStateException("Cutting planes stopped without an integral solution");
+        }
+
+        Matrix solution = new Matrix(rawSolution);
 
         return new Result(
                 solution.toRawVector(),
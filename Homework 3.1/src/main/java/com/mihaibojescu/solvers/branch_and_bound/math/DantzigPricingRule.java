@@ -0,0 +1,25 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.PricingRule;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.SimplexTableau;
+
+public class DantzigPricingRule implements PricingRule {
+    private static final double TOLERANCE = 1.0E-8;
+    private static final int GRAIN = 4096;
+
+    @Override
+    public void initialize(SimplexTableau tableau) {
+    }
+
+    @Override
+    public int findEnteringColumn(SimplexTableau tableau, int objectiveRow) {
+        return ParallelReductions.argmax(tableau.getForkJoinPool(), tableau.getNumberOfCandidateColumns(), GRAIN, j -> {
+            double reducedCost = tableau.getValue(objectiveRow, j);
+            return reducedCost > TOLERANCE ? reducedCost : Double.NEGATIVE_INFINITY;
+        });
+    }
+
+    @Override
+    public void update(SimplexTableau tableau, int leavingRow, int enteringColumn) {
+    }
+}
@@ -0,0 +1,237 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.BranchingRule;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.WarmStartSolver;
+import com.mihaibojescu.solvers.branch_and_bound.util.FingerprintSet;
+import com.mihaibojescu.solvers.branch_and_bound.util.LinearProgramResult;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+import com.mihaibojescu.solvers.branch_and_bound.util.SimplexBasis;
+
+// Parallel branch and bound that explores the same tree on every run with
+// the same problem and number of workers. The search advances in epochs of
+// a fixed number of nodes, so epochs follow the work done rather than the
+// clock. An epoch's nodes are taken from a single queue in order and solved
+// in parallel against the state at the start of the epoch: the incumbent,
+// the globally fixed bounds and the pseudo-costs. Their outcomes are then
+// applied one by one in the order the nodes were taken, which is also where
+// the branching rule learns and selects, since reliability branching
+// changes its pseudo-costs while selecting. No worker sees another's work
+// within an epoch, so thread timing cannot change the tree.
+class DeterministicSearch {
+    // Nodes per worker in an epoch: more hides the spread of LP times
+    // behind the barrier, fewer keeps the incumbent the workers prune with fresh
+    static final int NODES_PER_WORKER = 4;
+
+    private final Solver solver;
+    private final double tolerance;
+    private final int workers;
+    private final BranchingRule branchingRule;
+    private final PrimalHeuristics primalHeuristics;
+    private final ReducedCostFixing reducedCostFixing;
+
+    DeterministicSearch(Solver solver, double tolerance, int workers, BranchingRule branchingRule,
+            PrimalHeuristics primalHeuristics, ReducedCostFixing reducedCostFixing) {
+        this.solver = solver;
+        this.tolerance = tolerance;
+        this.workers = workers;
+        this.branchingRule = branchingRule;
+        this.primalHeuristics = primalHeuristics;
+        this.reducedCostFixing = reducedCostFixing;
+    }
+
+    // `monitor` needs one active slot per node of an epoch
+    static int getEpochSize(int workers) {
+        return workers * NODES_PER_WORKER;
+    }
+
+    Result run(NodeQueue queue, SearchMonitor monitor, Result incumbent, ExecutorService executor)
+            throws Exception {
+        FingerprintSet visited = new FingerprintSet();
+        int epochSize = getEpochSize(this.workers);
+        BranchNode[] nodes = new BranchNode[epochSize];
+        Result bestResult = incumbent;
+
+        // Limits are only checked between epochs, so node and gap limits stop at the same node every run
+        while (!monitor.shouldStop(bestResult.getObjectiveValue())) {
+            monitor.checkpointIfDue(bestResult);
+
+            int size = 0;
+            BranchNode node;
+
+            // A pruned node's slot is simply taken again
+            while (size < epochSize && (node = monitor.take(queue, size)) != null) {
+                if (node.getParentBound() > bestResult.getObjectiveValue()
+                        && visited.add(node.getFingerprintHigh(), node.getFingerprintLow())) {
+                    nodes[size++] = node;
+                }
+            }
+
+            if (size == 0) {
+                break;
+            }
+
+            double epochIncumbent = bestResult.getObjectiveValue();
+            long firstNode = monitor.getNodes();
+            List<Callable<Outcome>> tasks = new ArrayList<>();
+
+            for (int i = 0; i < size; i++) {
+                BranchNode epochNode = nodes[i];
+                long solvedNode = firstNode + i;
+
+                tasks.add(() -> this.solve(epochNode, solvedNode, epochIncumbent));
+            }
+
+            List<Future<Outcome>> outcomes;
+
+            try {
+                outcomes = executor.invokeAll(tasks);
+            } catch (InterruptedException e) {
+                // The epoch's nodes are still active, so the dual bound keeps them
+                monitor.cancel();
+                Thread.currentThread().interrupt();
+                return bestResult;
+            }
+
+            for (int i = 0; i < size; i++) {
+                bestResult = this.apply(queue, monitor, i, nodes[i], outcomes.get(i).get(), bestResult);
+                monitor.release(i);
+
+                if (bestResult.getObjectiveValue() == Solver.INF) {
+                    return bestResult;
+                }
+            }
+        }
+
+        return bestResult;
+    }
+
+    // The parallel half of a node: everything that only reads the epoch's state
+    private Outcome solve(BranchNode node, long solvedNode, double incumbent) throws Exception {
+        Problem nodeProblem = node.getProblem();
+        Problem problem = this.reducedCostFixing.tighten(nodeProblem);
+        Result result = node.getParentBasis() != null && this.solver instanceof WarmStartSolver
+                ? ((WarmStartSolver) this.solver).run(problem, node.getParentBasis())
+                : this.solver.run(problem);
+        Result heuristicResult = null;
+        double value = result.getObjectiveValue();
+
+        if (value > incumbent && value != Solver.INF
+                && !PrimalSolutions.isIntegral(result.getSolution(), this.tolerance)
+                && this.primalHeuristics.isDue(solvedNode)) {
+            heuristicResult = this.primalHeuristics.run(this.solver, problem, result, incumbent, this.tolerance);
+        }
+
+        return new Outcome(nodeProblem, problem, result, heuristicResult);
+    }
+
+    // The ordered half of a node, as the serial solver does it
+    private Result apply(NodeQueue queue, SearchMonitor monitor, int slot, BranchNode node, Outcome outcome,
+            Result bestResult) throws Exception {
+        Problem problem = outcome.problem;
+        Result result = outcome.result;
+        double value = result.getObjectiveValue();
+
+        this.updateBranchingRule(node, result);
+        monitor.nodeSolved(slot, value);
+
+        if (node.getBoundChanges() == null) {
+            this.reducedCostFixing.setRoot(problem, result);
+        }
+
+        if (value == Solver.INF) {
+            return new Result(null, Solver.INF);
+        }
+
+        if (value <= bestResult.getObjectiveValue()) {
+            return bestResult;
+        }
+
+        if (PrimalSolutions.isIntegral(result.getSolution(), this.tolerance)) {
+            return this.incumbentFound(queue, monitor, this.roundSolution(problem, result));
+        }
+
+        if (outcome.heuristicResult != null
+                && outcome.heuristicResult.getObjectiveValue() > bestResult.getObjectiveValue()) {
+            bestResult = this.incumbentFound(queue, monitor, outcome.heuristicResult);
+        }
+
+        node = this.reducedCostFixing.fixLocally(node, outcome.nodeProblem, problem, result,
+                bestResult.getObjectiveValue());
+
+        int branchingVariable = this.branchingRule.selectVariable(problem, result, this.tolerance);
+
+        if (branchingVariable >= 0) {
+            double solutionValue = result.getSolution()[branchingVariable];
+            SimplexBasis basis = result instanceof LinearProgramResult ? ((LinearProgramResult) result).getBasis()
+                    : null;
+            double[] objective = problem.getObjectiveFunctionMultipliers().toRawVector();
+            double lower = outcome.nodeProblem.getVariableLowerBounds()[branchingVariable];
+            double upper = outcome.nodeProblem.getVariableUpperBounds()[branchingVariable];
+
+            queue.add(node.createChild(branchingVariable, true, solutionValue, upper, basis, value,
+                    BranchNode.estimateChild(objective, result.getSolution(), value, branchingVariable, false,
+                            this.tolerance)));
+            queue.add(node.createChild(branchingVariable, false, solutionValue, lower, basis, value,
+                    BranchNode.estimateChild(objective, result.getSolution(), value, branchingVariable, true,
+                            this.tolerance)));
+        }
+
+        return bestResult;
+    }
+
+    private Result incumbentFound(NodeQueue queue, SearchMonitor monitor, Result result) {
+        queue.incumbentFound();
+        this.reducedCostFixing.incumbentFound(result.getObjectiveValue());
+        monitor.incumbentFound(result);
+        return result;
+    }
+
+    // Feeds the branching rule how much the LP got worse from the parent to this node
+    private void updateBranchingRule(BranchNode node, Result result) {
+        BoundChange change = node.getBoundChanges();
+        double value = result.getObjectiveValue();
+
+        if (change == null || value == Solver.INF || value == -Solver.INF) {
+            return;
+        }
+
+        this.branchingRule.update(change.getVariable(), !change.isUpper(),
+                Math.abs(change.getValue() - node.getBranchingValue()), node.getParentBound() - value);
+    }
+
+    // Snaps an integral LP solution to exact integers, so the reported
+    // incumbent does not carry the LP's floating point noise
+    private Result roundSolution(Problem problem, Result result) {
+        double[] solution = new double[result.getSolution().length];
+        double[] objective = problem.getObjectiveFunctionMultipliers().toRawVector();
+        double objectiveValue = 0;
+
+        for (int i = 0; i < solution.length; i++) {
+            solution[i] = Math.rint(result.getSolution()[i]);
+            objectiveValue += objective[i] * solution[i];
+        }
+
+        return new Result(solution, objectiveValue);
+    }
+
+    private static class Outcome {
+        private final Problem nodeProblem;
+        private final Problem problem;
+        private final Result result;
+        private final Result heuristicResult;
+
+        private Outcome(Problem nodeProblem, Problem problem, Result result, Result heuristicResult) {
+            this.nodeProblem = nodeProblem;
+            this.problem = problem;
+            this.result = result;
+            this.heuristicResult = heuristicResult;
+        }
+    }
+}
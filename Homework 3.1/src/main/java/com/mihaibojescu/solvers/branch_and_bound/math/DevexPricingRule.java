@@ -0,0 +1,52 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.Arrays;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.PricingRule;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.SimplexTableau;
+
+public class DevexPricingRule implements PricingRule {
+    private static final double TOLERANCE = 1.0E-8;
+    private static final int GRAIN = 4096;
+
+    private double[] weights;
+
+    @Override
+    public void initialize(SimplexTableau tableau) {
+        // Reference framework: the current nonbasic columns, all with weight 1
+        this.weights = new double[tableau.getNumberOfCandidateColumns()];
+        Arrays.fill(this.weights, 1.0);
+    }
+
+    @Override
+    public int findEnteringColumn(SimplexTableau tableau, int objectiveRow) {
+        return ParallelReductions.argmax(tableau.getForkJoinPool(), tableau.getNumberOfCandidateColumns(), GRAIN, j -> {
+            double reducedCost = tableau.getValue(objectiveRow, j);
+            return reducedCost > TOLERANCE ? reducedCost * reducedCost / this.weights[j] : Double.NEGATIVE_INFINITY;
+        });
+    }
+
+    @Override
+    public void update(SimplexTableau tableau, int leavingRow, int enteringColumn) {
+        double pivot = tableau.getValue(leavingRow, enteringColumn);
+        double enteringWeight = this.weights[enteringColumn];
+
+        for (int j = 0; j < this.weights.length; j++) {
+            if (j == enteringColumn) {
+                continue;
+            }
+
+            double ratio = tableau.getValue(leavingRow, j) / pivot;
+
+            if (ratio != 0.0) {
+                this.weights[j] = Math.max(this.weights[j], ratio * ratio * enteringWeight);
+            }
+        }
+
+        int leavingColumn = tableau.getBasicColumn(leavingRow);
+
+        if (leavingColumn < this.weights.length) {
+            this.weights[leavingColumn] = Math.max(enteringWeight / (pivot * pivot), 1.0);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.PrimalHeuristic;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+// Walks a single path down the tree: bound one fractional variable, re-solve
+// the LP from the previous basis and repeat until the solution is integral.
+// An infeasible step is retried once in the other direction before giving up,
+// and the dive stops as soon as its LP value cannot beat the incumbent
+public abstract class DivingHeuristic implements PrimalHeuristic {
+    private final Solver solver;
+
+    protected DivingHeuristic(Solver solver) {
+        this.solver = solver;
+    }
+
+    // Returns the next variable to bound, or -1 to stop diving
+    protected abstract int selectVariable(Problem problem, double[] solution, int[][] locks, double tolerance);
+
+    protected abstract boolean roundUp(Problem problem, double[] solution, int[][] locks, int variable);
+
+    @Override
+    public Result run(Problem problem, Result relaxation, double incumbent, double tolerance) throws Exception {
+        int[][] locks = PrimalSolutions.getLocks(problem);
+        Problem current = problem;
+        Result result = relaxation;
+
+        // Every step fixes a fractional variable, so the dive is at most that deep
+        for (int depth = 0; depth <= problem.getNumberOfVariables(); depth++) {
+            double[] solution = result.getSolution();
+
+            if (PrimalSolutions.isIntegral(solution, tolerance)) {
+                return PrimalSolutions.toResult(problem, solution, tolerance);
+            }
+
+            int variable = this.selectVariable(current, solution, locks, tolerance);
+
+            if (variable < 0) {
+                return null;
+            }
+
+            boolean up = this.roundUp(current, solution, locks, variable);
+            Problem child = bound(current, variable, solution[variable], up);
+            Result childResult = PrimalSolutions.solve(this.solver, child, result);
+
+            if (childResult.getObjectiveValue() == -Solver.INF) {
+                child = bound(current, variable, solution[variable], !up);
+                childResult = PrimalSolutions.solve(this.solver, child, result);
+            }
+
+            if (childResult.getObjectiveValue() == -Solver.INF || childResult.getObjectiveValue() == Solver.INF
+                    || childResult.getObjectiveValue() <= incumbent) {
+                return null;
+            }
+
+            current = child;
+            result = childResult;
+        }
+
+        return null;
+    }
+
+    private static Problem bound(Problem problem, int variable, double value, boolean up) {
+        double[] lower = problem.getVariableLowerBounds().clone();
+        double[] upper = problem.getVariableUpperBounds().clone();
+
+        if (up) {
+            lower[variable] = Math.ceil(value);
+        } else {
+            upper[variable] = Math.floor(value);
+        }
+
+        return problem.withVariableBounds(lower, upper);
+    }
+}
@@ -0,0 +1,69 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// What the parallel branch and bound workers run on. Either way the
+// executor belongs to a single run and is shut down before it returns.
+public enum ExecutionMode {
+    // One platform thread per worker
+    PLATFORM_THREADS,
+    // One virtual thread per worker, mounted on the JDK's carrier pool, which
+    // has one thread per core, so LP work never oversubscribes the CPU. The
+    // API is looked up at run time since the build targets Java 17; without
+    // it the workers share a fork join pool of one thread per core instead.
+    VIRTUAL_THREADS,
+    // Platform threads that solve the nodes of an epoch in parallel and
+    // leave every decision to the ordered step between epochs, so the same
+    // problem and number of workers give the same tree, node count and
+    // solution on every run. The node storage's heap pressure is ignored,
+    // and only the time limit can still stop it anywhere.
+    DETERMINISTIC;
+
+    public ExecutorService create(int workers) {
+        switch (this) {
+            case VIRTUAL_THREADS:
+                ExecutorService executor = newVirtualThreadPerTaskExecutor();
+
+                if (executor != null) {
+                    return executor;
+                }
+
+                return new ForkJoinPool(Math.min(workers, Runtime.getRuntime().availableProcessors()));
+            default:
+                return Executors.newFixedThreadPool(workers);
+        }
+    }
+
+    // Interrupts the executor's threads and waits for all of them to end, so
+    // that none outlives the run and many solves can share one JVM. Workers
+    // stop at their next node once interrupted, so this is short.
+    public static void shutdown(ExecutorService executor) {
+        boolean interrupted = false;
+
+        executor.shutdownNow();
+
+        while (!executor.isTerminated()) {
+            try {
+                executor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Null before Java 21, or before Java 19 with previews disabled
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
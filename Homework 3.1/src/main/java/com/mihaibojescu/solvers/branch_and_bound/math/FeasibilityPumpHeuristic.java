@@ -0,0 +1,167 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.PrimalHeuristic;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+// Alternates between rounding the LP point and finding the LP point closest,
+// in L1 distance, to the rounding, until the two meet. Ignores the objective,
+// so it finds solutions where diving gets stuck, but usually worse ones
+public class FeasibilityPumpHeuristic implements PrimalHeuristic {
+    public static final int DEFAULT_ITERATIONS = 20;
+    private static final int FLIPS = 10;
+
+    private final Solver solver;
+    private final int iterations;
+
+    public FeasibilityPumpHeuristic(Solver solver) {
+        this(solver, DEFAULT_ITERATIONS);
+    }
+
+    public FeasibilityPumpHeuristic(Solver solver, int iterations) throws IllegalArgumentException {
+        if (iterations < 1) {
+            throw new IllegalArgumentException(String.format("Iterations must be >= 1, but is %d", iterations));
+        }
+
+        this.solver = solver;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public Result run(Problem problem, Result relaxation, double incumbent, double tolerance) throws Exception {
+        int numVariables = problem.getNumberOfVariables();
+        double[] solution = relaxation.getSolution();
+        double[] previous = null;
+
+        for (int iteration = 0; iteration < this.iterations; iteration++) {
+            double[] rounded = round(problem, solution);
+
+            // The pump cycles when the LP keeps returning to the same rounding,
+            // so the variables furthest from it are pushed the other way
+            if (Arrays.equals(rounded, previous) && !flip(problem, solution, rounded)) {
+                return null;
+            }
+
+            if (PrimalSolutions.isFeasible(problem, rounded, tolerance)) {
+                return PrimalSolutions.toResult(problem, rounded, tolerance);
+            }
+
+            Result result = this.solver.run(distanceProblem(problem, rounded));
+
+            if (result.getObjectiveValue() == -Solver.INF || result.getObjectiveValue() == Solver.INF) {
+                return null;
+            }
+
+            previous = rounded;
+            solution = Arrays.copyOf(result.getSolution(), numVariables);
+
+            if (PrimalSolutions.isIntegral(solution, tolerance)) {
+                return PrimalSolutions.toResult(problem, solution, tolerance);
+            }
+        }
+
+        return null;
+    }
+
+    private static double[] round(Problem problem, double[] solution) {
+        double[] lower = problem.getVariableLowerBounds();
+        double[] upper = problem.getVariableUpperBounds();
+        double[] rounded = new double[solution.length];
+
+        for (int j = 0; j < solution.length; j++) {
+            // Halves round up; rounding them down would often just return the trivial all zero point
+            rounded[j] = Math.min(Math.max(Math.floor(solution[j] + 0.5), Math.ceil(lower[j])),
+                    Math.floor(upper[j]));
+        }
+
+        return rounded;
+    }
+
+    // Returns false if there is nothing left to flip
+    private static boolean flip(Problem problem, double[] solution, double[] rounded) {
+        double[] lower = problem.getVariableLowerBounds();
+        double[] upper = problem.getVariableUpperBounds();
+        int[] order = IntStream.range(0, solution.length)
+                .boxed()
+                .filter(j -> solution[j] != rounded[j])
+                .sorted(Comparator.comparingDouble((Integer j) -> -Math.abs(solution[j] - rounded[j])))
+                .limit(FLIPS)
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        for (int j : order) {
+            double flipped = rounded[j] + (solution[j] > rounded[j] ? 1 : -1);
+            rounded[j] = Math.min(Math.max(flipped, Math.ceil(lower[j])), Math.floor(upper[j]));
+        }
+
+        return order.length > 0;
+    }
+
+    // max -sum |x_j - rounded_j| over the rows of `problem`. Variables rounded
+    // to one of their bounds measure the distance directly; the others get an
+    // extra column d_k >= |x_j - rounded_j| with two rows of its own
+    private static Problem distanceProblem(Problem problem, double[] rounded) {
+        int numVariables = problem.getNumberOfVariables();
+        int numConstraints = problem.getNumberOfConstraints();
+        double[] lower = problem.getVariableLowerBounds();
+        double[] upper = problem.getVariableUpperBounds();
+        int[] interior = IntStream.range(0, numVariables)
+                .filter(j -> rounded[j] != lower[j] && rounded[j] != upper[j])
+                .toArray();
+        int numColumns = numVariables + interior.length;
+        int numRows = numConstraints + 2 * interior.length;
+
+        double[] objective = new double[numColumns];
+
+        for (int j = 0; j < numVariables; j++) {
+            objective[j] = rounded[j] == lower[j] ? -1 : rounded[j] == upper[j] ? 1 : 0;
+        }
+
+        SparseMatrix constraints = problem.getSparseConstraints();
+        int nonZeros = constraints.getNumberOfNonZeros();
+        int[] rowStarts = Arrays.copyOf(constraints.getRowStarts(), numRows + 1);
+        int[] columnIndices = Arrays.copyOf(constraints.getRowColumnIndices(), nonZeros + 4 * interior.length);
+        double[] values = Arrays.copyOf(constraints.getRowValues(), nonZeros + 4 * interior.length);
+        double[] bounds = Arrays.copyOf(problem.getBounds().toRawVector(), numRows);
+        int position = nonZeros;
+
+        for (int k = 0; k < interior.length; k++) {
+            int j = interior[k];
+            int column = numVariables + k;
+            int row = numConstraints + 2 * k;
+
+            objective[column] = -1;
+
+            // x_j - d_k <= rounded_j
+            rowStarts[row] = position;
+            columnIndices[position] = j;
+            values[position++] = 1;
+            columnIndices[position] = column;
+            values[position++] = -1;
+            bounds[row] = rounded[j];
+
+            // -x_j - d_k <= -rounded_j
+            rowStarts[row + 1] = position;
+            columnIndices[position] = j;
+            values[position++] = -1;
+            columnIndices[position] = column;
+            values[position++] = -1;
+            bounds[row + 1] = -rounded[j];
+        }
+
+        rowStarts[numRows] = position;
+
+        double[] columnLower = Arrays.copyOf(lower, numColumns);
+        double[] columnUpper = Arrays.copyOf(upper, numColumns);
+        Arrays.fill(columnUpper, numVariables, numColumns, Double.POSITIVE_INFINITY);
+
+        return new Problem(new Matrix(objective),
+                new SparseMatrix(numRows, numColumns, rowStarts, columnIndices, values),
+                new Matrix(bounds))
+                .withVariableBounds(columnLower, columnUpper);
+    }
+}
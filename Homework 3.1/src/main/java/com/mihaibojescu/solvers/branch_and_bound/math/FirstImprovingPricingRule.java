@@ -0,0 +1,27 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.PricingRule;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.SimplexTableau;
+
+public class FirstImprovingPricingRule implements PricingRule {
+    private static final double TOLERANCE = 1.0E-8;
+
+    @Override
+    public void initialize(SimplexTableau tableau) {
+    }
+
+    @Override
+    public int findEnteringColumn(SimplexTableau tableau, int objectiveRow) {
+        for (int j = 0; j < tableau.getNumberOfCandidateColumns(); j++) {
+            if (tableau.getValue(objectiveRow, j) > TOLERANCE) {
+                return j;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public void update(SimplexTableau tableau, int leavingRow, int enteringColumn) {
+    }
+}
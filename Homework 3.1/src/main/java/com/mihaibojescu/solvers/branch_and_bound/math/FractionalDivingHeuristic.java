@@ -0,0 +1,32 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+
+// Dives on the least fractional variable, rounding it to the nearest integer
+public class FractionalDivingHeuristic extends DivingHeuristic {
+    public FractionalDivingHeuristic(Solver solver) {
+        super(solver);
+    }
+
+    @Override
+    protected int selectVariable(Problem problem, double[] solution, int[][] locks, double tolerance) {
+        int best = -1;
+        double bestFractionality = Double.POSITIVE_INFINITY;
+
+        for (int j = 0; j < solution.length; j++) {
+            double fractionality = BranchingScores.getFractionality(solution[j]);
+
+            if (fractionality > tolerance && fractionality < bestFractionality) {
+                bestFractionality = fractionality;
+                best = j;
+            }
+        }
+
+        return best;
+    }
+
+    @Override
+    protected boolean roundUp(Problem problem, double[] solution, int[][] locks, int variable) {
+        return solution[variable] - Math.floor(solution[variable]) >= 0.5;
+    }
+}
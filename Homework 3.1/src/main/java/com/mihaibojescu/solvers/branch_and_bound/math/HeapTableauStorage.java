@@ -0,0 +1,38 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.text.MessageFormat;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.TableauStorage;
+
+public final class HeapTableauStorage implements TableauStorage {
+    private final double[] data;
+
+    public HeapTableauStorage(long size) throws IllegalArgumentException {
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "A tableau of {0} entries does not fit in a Java array, use off-heap storage", size));
+        }
+
+        this.data = new double[(int) size];
+    }
+
+    @Override
+    public double get(long index) {
+        return this.data[(int) index];
+    }
+
+    @Override
+    public void set(long index, double value) {
+        this.data[(int) index] = value;
+    }
+
+    @Override
+    public long size() {
+        return this.data.length;
+    }
+
+    // The array is left to the garbage collector
+    @Override
+    public void close() {
+    }
+}
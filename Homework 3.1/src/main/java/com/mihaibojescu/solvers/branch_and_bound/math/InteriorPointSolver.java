@@ -0,0 +1,531 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+public class InteriorPointSolver {
+    private static final double TOLERANCE = 1.0E-8;
+    private static final int MAX_ITERATIONS = 100;
+    private static final double STEP_FACTOR = 0.99;
+
+    // Iterates this large mean the method is running off along a ray. An
+    // infeasible-start method cannot reliably tell an infeasible problem from
+    // an unbounded one, so it just gives up and leaves that to the simplex.
+    private static final double DIVERGENCE = 1.0E12;
+
+    private final SparseMatrix coefficients;
+    private final double[] rhs;
+    private final double[] objective;
+
+    private final int numConstraints;
+    private final int numVariables;
+
+    // Standard form min cost * x, [A I] x = b, x >= 0: structural columns
+    // first, then one slack per row. y are the row duals, z the reduced costs.
+    private final int numColumns;
+    private final double[] cost;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+
+    private boolean isConverged;
+    private int numberOfIterations;
+
+    public InteriorPointSolver(SparseMatrix coefficients, double[] rhs, double[] objective) {
+        this.coefficients = coefficients;
+        this.rhs = rhs;
+        this.objective = objective;
+        this.numConstraints = rhs.length;
+        this.numVariables = objective.length;
+        this.numColumns = this.numVariables + this.numConstraints;
+        this.cost = new double[this.numColumns];
+        this.x = new double[this.numColumns];
+        this.y = new double[this.numConstraints];
+        this.z = new double[this.numColumns];
+        this.isConverged = false;
+        this.numberOfIterations = 0;
+
+        for (int j = 0; j < this.numVariables; j++) {
+            this.cost[j] = -objective[j];
+        }
+    }
+
+    // Mehrotra's predictor-corrector method on the normal equations
+    public double[] solve() {
+        this.initialize();
+
+        double[] primalResidual = new double[this.numConstraints];
+        double[] dualResidual = new double[this.numColumns];
+        double[] complementarity = new double[this.numColumns];
+        double[] dx = new double[this.numColumns];
+        double[] dy = new double[this.numConstraints];
+        double[] dz = new double[this.numColumns];
+        double[] dxAffine = new double[this.numColumns];
+        double[] dzAffine = new double[this.numColumns];
+        double[][] factor = new double[this.getNormalMatrixSize()][];
+
+        double rhsNorm = 1 + this.maxNorm(this.rhs);
+        double costNorm = 1 + this.maxNorm(this.cost);
+
+        for (this.numberOfIterations = 0; this.numberOfIterations < MAX_ITERATIONS; this.numberOfIterations++) {
+            this.multiply(this.x, primalResidual);
+            for (int i = 0; i < this.numConstraints; i++) {
+                primalResidual[i] = this.rhs[i] - primalResidual[i];
+            }
+
+            this.multiplyTransposed(this.y, dualResidual);
+            for (int j = 0; j < this.numColumns; j++) {
+                dualResidual[j] = this.cost[j] - dualResidual[j] - this.z[j];
+            }
+
+            double primalObjective = this.dot(this.cost, this.x);
+            double dualObjective = this.dot(this.rhs, this.y);
+            double mu = this.dot(this.x, this.z) / this.numColumns;
+
+            if (this.maxNorm(primalResidual) / rhsNorm < TOLERANCE
+                    && this.maxNorm(dualResidual) / costNorm < TOLERANCE
+                    && Math.abs(primalObjective - dualObjective) / (1 + Math.abs(primalObjective)) < TOLERANCE) {
+                this.isConverged = true;
+                break;
+            }
+
+            if (this.maxNorm(this.x) > DIVERGENCE || this.maxNorm(this.z) > DIVERGENCE) {
+                break;
+            }
+
+            this.factorizeNormalMatrix(factor);
+
+            // Predictor: the pure Newton (affine scaling) direction
+            for (int j = 0; j < this.numColumns; j++) {
+                complementarity[j] = -this.x[j] * this.z[j];
+            }
+
+            this.solveNewtonSystem(factor, primalResidual, dualResidual, complementarity, dxAffine, dy, dzAffine);
+
+            double primalStepAffine = this.maxStep(this.x, dxAffine);
+            double dualStepAffine = this.maxStep(this.z, dzAffine);
+            double muAffine = 0;
+
+            for (int j = 0; j < this.numColumns; j++) {
+                muAffine += (this.x[j] + primalStepAffine * dxAffine[j]) * (this.z[j] + dualStepAffine * dzAffine[j]);
+            }
+
+            muAffine /= this.numColumns;
+
+            // Corrector: recentre by sigma * mu and compensate the second order term
+            double sigma = mu > 0 ? Math.pow(muAffine / mu, 3) : 0;
+
+            for (int j = 0; j < this.numColumns; j++) {
+                complementarity[j] = -this.x[j] * this.z[j] - dxAffine[j] * dzAffine[j] + sigma * mu;
+            }
+
+            this.solveNewtonSystem(factor, primalResidual, dualResidual, complementarity, dx, dy, dz);
+
+            double primalStep = Math.min(1.0, STEP_FACTOR * this.maxStep(this.x, dx));
+            double dualStep = Math.min(1.0, STEP_FACTOR * this.maxStep(this.z, dz));
+
+            for (int j = 0; j < this.numColumns; j++) {
+                this.x[j] += primalStep * dx[j];
+                this.z[j] += dualStep * dz[j];
+            }
+
+            for (int i = 0; i < this.numConstraints; i++) {
+                this.y[i] += dualStep * dy[i];
+            }
+        }
+
+        return this.primalSolution();
+    }
+
+    // False when the iteration limit was hit, or the iterates diverged
+    public boolean isConverged() {
+        return this.isConverged;
+    }
+
+    public int getNumberOfIterations() {
+        return this.numberOfIterations;
+    }
+
+    public double optimalValue() {
+        double value = 0;
+
+        for (int j = 0; j < this.numVariables; j++) {
+            value += this.objective[j] * this.x[j];
+        }
+
+        return value;
+    }
+
+    public double[] primalSolution() {
+        double[] solution = new double[this.numVariables];
+        System.arraycopy(this.x, 0, solution, 0, this.numVariables);
+        return solution;
+    }
+
+    // Duals of the A * x <= b rows of the original maximization problem
+    public double[] dualSolution() {
+        double[] dual = new double[this.numConstraints];
+
+        for (int i = 0; i < this.numConstraints; i++) {
+            dual[i] = -this.y[i];
+        }
+
+        return dual;
+    }
+
+    // Mehrotra's starting point: the least squares solutions of the primal
+    // and dual equality constraints, shifted to be safely positive
+    private void initialize() {
+        double[][] factor = new double[this.getNormalMatrixSize()][];
+        double[] w = this.rhs.clone();
+
+        for (int j = 0; j < this.numColumns; j++) {
+            this.x[j] = 1.0;
+            this.z[j] = 1.0;
+        }
+
+        // Both solves must see X = Z = I, so x and z are only written afterwards
+        this.factorizeNormalMatrix(factor);
+        this.solveNormalEquations(factor, w);
+        this.multiply(this.cost, this.y);
+        this.solveNormalEquations(factor, this.y);
+
+        this.multiplyTransposed(w, this.x);
+        this.multiplyTransposed(this.y, this.z);
+
+        for (int j = 0; j < this.numColumns; j++) {
+            this.z[j] = this.cost[j] - this.z[j];
+        }
+
+        double primalShift = Math.max(-1.5 * this.min(this.x), 0);
+        double dualShift = Math.max(-1.5 * this.min(this.z), 0);
+        double product = 0;
+        double primalSum = 0;
+        double dualSum = 0;
+
+        for (int j = 0; j < this.numColumns; j++) {
+            this.x[j] += primalShift;
+            this.z[j] += dualShift;
+            product += this.x[j] * this.z[j];
+            primalSum += this.x[j];
+            dualSum += this.z[j];
+        }
+
+        primalShift = dualSum > 0 ? 0.5 * product / dualSum : 0;
+        dualShift = primalSum > 0 ? 0.5 * product / primalSum : 0;
+
+        for (int j = 0; j < this.numColumns; j++) {
+            this.x[j] = Math.max(this.x[j] + primalShift, TOLERANCE);
+            this.z[j] = Math.max(this.z[j] + dualShift, TOLERANCE);
+
+            if (this.x[j] * this.z[j] < TOLERANCE) {
+                this.x[j] = Math.max(this.x[j], 1.0);
+                this.z[j] = Math.max(this.z[j], 1.0);
+            }
+        }
+    }
+
+    // Solves, for the current X and Z,
+    //   [A I] dx = rp,   [A I]^T dy + dz = rd,   Z dx + X dz = rc
+    // by eliminating dx and dz: (A D A^T + D_slack) dy = rp + [A I] (D rd - rc / z), D = X / Z
+    private void solveNewtonSystem(double[][] factor, double[] primalResidual, double[] dualResidual,
+            double[] complementarity, double[] dx, double[] dy, double[] dz) {
+        if (this.useColumnForm()) {
+            this.solveNewtonSystemForColumns(factor, primalResidual, dualResidual, complementarity, dx, dy, dz);
+            return;
+        }
+
+        double[] scaled = new double[this.numColumns];
+
+        for (int j = 0; j < this.numColumns; j++) {
+            scaled[j] = (this.x[j] * dualResidual[j] - complementarity[j]) / this.z[j];
+        }
+
+        this.multiply(scaled, dy);
+
+        for (int i = 0; i < this.numConstraints; i++) {
+            dy[i] += primalResidual[i];
+        }
+
+        this.solveNormalEquations(factor, dy);
+        this.multiplyTransposed(dy, dz);
+
+        for (int j = 0; j < this.numColumns; j++) {
+            dz[j] = dualResidual[j] - dz[j];
+            dx[j] = (complementarity[j] - this.x[j] * dz[j]) / this.z[j];
+        }
+    }
+
+    // Same system, but solved for the structural part of dx through the
+    // n x n matrix W + A^T W_slack A, W = Z / X:
+    //   (W + A^T W_slack A) dx = A^T (g_slack + W_slack rp) - g,   g = rd - rc / x
+    // then dx_slack = rp - A dx and dy = g_slack + W_slack dx_slack. Going
+    // through the Woodbury identity for dy instead cancels catastrophically
+    // once slacks approach their bounds and W_slack blows up.
+    private void solveNewtonSystemForColumns(double[][] factor, double[] primalResidual, double[] dualResidual,
+            double[] complementarity, double[] dx, double[] dy, double[] dz) {
+        double[] scaled = new double[this.numColumns];
+
+        for (int i = 0; i < this.numConstraints; i++) {
+            int slack = this.numVariables + i;
+            scaled[i] = dualResidual[slack] - complementarity[slack] / this.x[slack]
+                    + this.z[slack] / this.x[slack] * primalResidual[i];
+        }
+
+        this.multiplyTransposed(scaled, dx);
+
+        for (int j = 0; j < this.numVariables; j++) {
+            dx[j] -= dualResidual[j] - complementarity[j] / this.x[j];
+        }
+
+        this.solveCholesky(factor, dx);
+
+        for (int i = 0; i < this.numConstraints; i++) {
+            dx[this.numVariables + i] = 0.0;
+        }
+
+        this.multiply(dx, dy);
+
+        for (int i = 0; i < this.numConstraints; i++) {
+            int slack = this.numVariables + i;
+            dx[slack] = primalResidual[i] - dy[i];
+            dy[i] = dualResidual[slack] - complementarity[slack] / this.x[slack]
+                    + this.z[slack] / this.x[slack] * dx[slack];
+        }
+
+        for (int j = 0; j < this.numColumns; j++) {
+            dz[j] = (complementarity[j] - this.z[j] * dx[j]) / this.x[j];
+        }
+    }
+
+    // The normal matrix A D A^T + D_slack is m x m. With fewer columns than
+    // rows, the Woodbury identity only needs the n x n matrix
+    // D^-1 + A^T D_slack^-1 A instead, which is much cheaper to factorize.
+    private boolean useColumnForm() {
+        return this.numVariables < this.numConstraints;
+    }
+
+    private int getNormalMatrixSize() {
+        return this.useColumnForm() ? this.numVariables : this.numConstraints;
+    }
+
+    private void factorizeNormalMatrix(double[][] factor) {
+        int size = this.getNormalMatrixSize();
+
+        for (int i = 0; i < size; i++) {
+            if (factor[i] == null) {
+                factor[i] = new double[i + 1];
+            } else {
+                Arrays.fill(factor[i], 0.0);
+            }
+        }
+
+        if (this.useColumnForm()) {
+            this.accumulateOuterProducts(factor, this.coefficients.getRowStarts(),
+                    this.coefficients.getRowColumnIndices(), this.coefficients.getRowValues(),
+                    this.numConstraints, i -> this.z[this.numVariables + i] / this.x[this.numVariables + i]);
+
+            for (int j = 0; j < this.numVariables; j++) {
+                factor[j][j] += this.z[j] / this.x[j];
+            }
+        } else {
+            this.accumulateOuterProducts(factor, this.coefficients.getColumnStarts(),
+                    this.coefficients.getColumnRowIndices(), this.coefficients.getColumnValues(),
+                    this.numVariables, j -> this.x[j] / this.z[j]);
+
+            for (int i = 0; i < this.numConstraints; i++) {
+                factor[i][i] += this.x[this.numVariables + i] / this.z[this.numVariables + i];
+            }
+        }
+
+        this.factorizeCholesky(factor);
+    }
+
+    // Adds scale(k) * v_k v_k^T for every compressed vector v_k to the lower triangle
+    private void accumulateOuterProducts(double[][] factor, int[] starts, int[] indices, double[] values,
+            int count, IntToDoubleFunction scale) {
+        for (int k = 0; k < count; k++) {
+            double weight = scale.applyAsDouble(k);
+
+            for (int p = starts[k]; p < starts[k + 1]; p++) {
+                int row = indices[p];
+                double value = weight * values[p];
+
+                for (int q = starts[k]; q <= p; q++) {
+                    int other = indices[q];
+
+                    if (other <= row) {
+                        factor[row][other] += value * values[q];
+                    } else {
+                        factor[other][row] += value * values[q];
+                    }
+                }
+            }
+        }
+    }
+
+    // Solves (A D A^T + D_slack) v = vector in place
+    private void solveNormalEquations(double[][] factor, double[] vector) {
+        if (!this.useColumnForm()) {
+            this.solveCholesky(factor, vector);
+            return;
+        }
+
+        // M^-1 v = S v - S A (D^-1 + A^T S A)^-1 A^T S v, with S = D_slack^-1
+        double[] scaled = new double[this.numColumns];
+        double[] product = new double[this.numConstraints];
+
+        for (int i = 0; i < this.numConstraints; i++) {
+            vector[i] *= this.z[this.numVariables + i] / this.x[this.numVariables + i];
+        }
+
+        this.multiplyTransposed(vector, scaled);
+        this.solveCholesky(factor, scaled);
+
+        for (int i = 0; i < this.numConstraints; i++) {
+            scaled[this.numVariables + i] = 0.0;
+        }
+
+        this.multiply(scaled, product);
+
+        for (int i = 0; i < this.numConstraints; i++) {
+            vector[i] -= product[i] * this.z[this.numVariables + i] / this.x[this.numVariables + i];
+        }
+    }
+
+    // In place Cholesky factorization of a lower triangle. Pivots lost to
+    // rounding are replaced by a huge value, which zeroes the corresponding
+    // component of the solution.
+    private void factorizeCholesky(double[][] factor) {
+        double maxDiagonal = 0;
+
+        for (int i = 0; i < factor.length; i++) {
+            maxDiagonal = Math.max(maxDiagonal, factor[i][i]);
+        }
+
+        for (int k = 0; k < factor.length; k++) {
+            double[] rowK = factor[k];
+
+            for (int p = 0; p < k; p++) {
+                double[] rowP = factor[p];
+                double sum = rowK[p];
+
+                for (int t = 0; t < p; t++) {
+                    sum -= rowK[t] * rowP[t];
+                }
+
+                rowK[p] = sum / rowP[p];
+            }
+
+            double diagonal = rowK[k];
+
+            for (int t = 0; t < k; t++) {
+                diagonal -= rowK[t] * rowK[t];
+            }
+
+            rowK[k] = diagonal > 1.0E-30 * Math.max(maxDiagonal, 1.0) ? Math.sqrt(diagonal) : 1.0E64;
+        }
+    }
+
+    // Forward and back substitution; only the leading factor.length entries of `vector` are used
+    private void solveCholesky(double[][] factor, double[] vector) {
+        for (int i = 0; i < factor.length; i++) {
+            double sum = vector[i];
+
+            for (int t = 0; t < i; t++) {
+                sum -= factor[i][t] * vector[t];
+            }
+
+            vector[i] = sum / factor[i][i];
+        }
+
+        for (int i = factor.length - 1; i >= 0; i--) {
+            vector[i] /= factor[i][i];
+
+            for (int t = 0; t < i; t++) {
+                vector[t] -= factor[i][t] * vector[i];
+            }
+        }
+    }
+
+    // result = [A I] * vector
+    private void multiply(double[] vector, double[] result) {
+        int[] rowStarts = this.coefficients.getRowStarts();
+        int[] columnIndices = this.coefficients.getRowColumnIndices();
+        double[] values = this.coefficients.getRowValues();
+
+        for (int i = 0; i < this.numConstraints; i++) {
+            double sum = vector[this.numVariables + i];
+
+            for (int k = rowStarts[i]; k < rowStarts[i + 1]; k++) {
+                sum += values[k] * vector[columnIndices[k]];
+            }
+
+            result[i] = sum;
+        }
+    }
+
+    // result = [A I]^T * vector
+    private void multiplyTransposed(double[] vector, double[] result) {
+        int[] columnStarts = this.coefficients.getColumnStarts();
+        int[] rowIndices = this.coefficients.getColumnRowIndices();
+        double[] values = this.coefficients.getColumnValues();
+
+        for (int j = 0; j < this.numVariables; j++) {
+            double sum = 0;
+
+            for (int p = columnStarts[j]; p < columnStarts[j + 1]; p++) {
+                sum += values[p] * vector[rowIndices[p]];
+            }
+
+            result[j] = sum;
+        }
+
+        for (int i = 0; i < this.numConstraints; i++) {
+            result[this.numVariables + i] = vector[i];
+        }
+    }
+
+    // Largest step in [0, 1] along `direction` that keeps `point` non-negative
+    private double maxStep(double[] point, double[] direction) {
+        double step = 1.0;
+
+        for (int j = 0; j < point.length; j++) {
+            if (direction[j] < 0) {
+                step = Math.min(step, -point[j] / direction[j]);
+            }
+        }
+
+        return step;
+    }
+
+    private double dot(double[] a, double[] b) {
+        double sum = 0;
+
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+
+        return sum;
+    }
+
+    private double maxNorm(double[] vector) {
+        double norm = 0;
+
+        for (double value : vector) {
+            norm = Math.max(norm, Math.abs(value));
+        }
+
+        return norm;
+    }
+
+    private double min(double[] vector) {
+        double min = Double.POSITIVE_INFINITY;
+
+        for (double value : vector) {
+            min = Math.min(min, value);
+        }
+
+        return min;
+    }
+}
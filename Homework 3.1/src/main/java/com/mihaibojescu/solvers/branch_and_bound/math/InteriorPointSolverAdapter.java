@@ -0,0 +1,99 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.WarmStartSolver;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+import com.mihaibojescu.solvers.branch_and_bound.util.SimplexBasis;
+
+public class InteriorPointSolverAdapter implements WarmStartSolver {
+    private final boolean crossover;
+    private final RevisedSimplexSolverAdapter simplex;
+
+    public InteriorPointSolverAdapter() {
+        this(false);
+    }
+
+    // With crossover the interior solution is turned into an optimal basic
+    // one by the revised simplex, and the returned basis lets branch and
+    // bound warm start the children from it
+    public InteriorPointSolverAdapter(boolean crossover) {
+        this.crossover = crossover;
+        this.simplex = new RevisedSimplexSolverAdapter();
+    }
+
+    @Override
+    public Result run(Problem problem) throws Exception {
+        Problem boundedProblem = problem.withVariableBoundsAsConstraints();
+        InteriorPointSolver solver = new InteriorPointSolver(boundedProblem.getSparseConstraints(),
+                boundedProblem.getBounds().toRawVector(),
+                boundedProblem.getObjectiveFunctionMultipliers().toRawVector());
+        double[] solution = solver.solve();
+
+        // Only the simplex can certify infeasibility or unboundedness
+        if (!solver.isConverged()) {
+            return this.simplex.run(problem);
+        }
+
+        if (!this.crossover) {
+            return new Result(solution, solver.optimalValue());
+        }
+
+        return this.simplex.run(problem, this.identifyBasis(problem, solution));
+    }
+
+    // Children of a node are re-optimized by the dual simplex from the parent's basis
+    @Override
+    public Result run(Problem problem, SimplexBasis basis) throws Exception {
+        return this.simplex.run(problem, basis);
+    }
+
+    // Guesses the optimal basis from the interior solution: the columns
+    // furthest from their bounds are basic, the others sit at the nearest bound
+    private SimplexBasis identifyBasis(Problem problem, double[] solution) {
+        SparseMatrix constraints = problem.getSparseConstraints();
+        double[] bounds = problem.getBounds().toRawVector();
+        double[] lower = problem.getVariableLowerBounds();
+        double[] upper = problem.getVariableUpperBounds();
+        int numVariables = problem.getNumberOfVariables();
+        int numConstraints = problem.getNumberOfConstraints();
+        double[] distance = new double[numVariables + numConstraints];
+        boolean[] atUpper = new boolean[numVariables + numConstraints];
+
+        for (int j = 0; j < numVariables; j++) {
+            distance[j] = Math.min(solution[j] - lower[j], upper[j] - solution[j]);
+            atUpper[j] = upper[j] - solution[j] < solution[j] - lower[j];
+        }
+
+        int[] rowStarts = constraints.getRowStarts();
+        int[] columnIndices = constraints.getRowColumnIndices();
+        double[] values = constraints.getRowValues();
+
+        for (int i = 0; i < numConstraints; i++) {
+            double slack = bounds[i];
+
+            for (int k = rowStarts[i]; k < rowStarts[i + 1]; k++) {
+                slack -= values[k] * solution[columnIndices[k]];
+            }
+
+            distance[numVariables + i] = slack;
+        }
+
+        int[] basicColumns = IntStream.range(0, numVariables + numConstraints)
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer j) -> -distance[j]))
+                .limit(numConstraints)
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        Arrays.sort(basicColumns);
+
+        for (int column : basicColumns) {
+            atUpper[column] = false;
+        }
+
+        return new SimplexBasis(basicColumns, atUpper);
+    }
+}
@@ -0,0 +1,18 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.List;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.BranchingRule;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+public class MostFractionalBranchingRule implements BranchingRule {
+    @Override
+    public int selectVariable(Problem problem, Result result, double tolerance) {
+        List<Integer> candidates = BranchingScores.getCandidates(result.getSolution(), tolerance);
+        return candidates.isEmpty() ? -1 : candidates.get(0);
+    }
+
+    @Override
+    public void update(int variable, boolean up, double distance, double degradation) {
+    }
+}
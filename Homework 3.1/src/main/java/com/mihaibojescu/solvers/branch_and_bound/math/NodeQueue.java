@@ -0,0 +1,278 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+
+// Open nodes of a branch and bound search, ordered by a node selection
+// strategy. Ties always go to the newest node, so the search keeps diving
+// where the strategy has no preference. Safe to share between threads.
+//
+// With a spilling NodeStorage the queue orders small entries that hold
+// just the sort keys, and only the best `maxInMemoryNodes` of them hold
+// their node; the others point into the spill files. A second heap in
+// reverse order finds the worst node on the heap to spill next, and a node
+// is paged back in when its entry comes up. Entries polled from the queue
+// are dropped from that heap lazily.
+public class NodeQueue implements AutoCloseable {
+    // Adds between two looks at the heap
+    private static final int HEAP_CHECK_INTERVAL = 1024;
+    // Depth first is left once the used heap drops below this share of the threshold
+    private static final double HEAP_RELIEF = 0.75;
+
+    private final NodeSelectionStrategy strategy;
+    private final NodeStorage storage;
+    private final NodeSpill spill;
+    private PriorityQueue<Entry> queue;
+    private PriorityQueue<Entry> inMemory;
+    private int inMemoryNodes;
+    private boolean hasIncumbent;
+    private boolean underHeapPressure;
+    private long sequence;
+
+    public NodeQueue(NodeSelectionStrategy strategy) {
+        this(strategy, NodeStorage.IN_MEMORY);
+    }
+
+    public NodeQueue(NodeSelectionStrategy strategy, NodeStorage storage) {
+        this.strategy = strategy;
+        this.storage = storage;
+        this.spill = storage.isSpilling()
+                ? new NodeSpill(storage.getSpillDirectory(), storage.getSegmentBytes())
+                : null;
+        this.hasIncumbent = false;
+        this.underHeapPressure = false;
+        this.sequence = 0;
+        this.queue = new PriorityQueue<>(this.getComparator());
+        this.inMemory = new PriorityQueue<>(this.getComparator().reversed());
+        this.inMemoryNodes = 0;
+    }
+
+    public synchronized void add(BranchNode node) {
+        Entry entry = new Entry(node, this.sequence++);
+        this.queue.add(entry);
+
+        if (this.spill != null) {
+            this.inMemory.add(entry);
+            this.inMemoryNodes++;
+
+            while (this.inMemoryNodes > this.storage.getMaxInMemoryNodes()) {
+                this.spillWorst();
+            }
+        }
+
+        if (this.sequence % HEAP_CHECK_INTERVAL == 0) {
+            this.checkHeapPressure();
+        }
+    }
+
+    // Returns null when the queue is empty
+    public synchronized BranchNode poll() {
+        Entry entry = this.queue.poll();
+
+        if (entry == null) {
+            return null;
+        }
+
+        entry.queued = false;
+
+        if (entry.node == null) {
+            BranchNode node = this.spill.read(entry.slot);
+            this.spill.free(entry.slot);
+            return node;
+        }
+
+        if (this.spill != null) {
+            this.inMemoryNodes--;
+
+            // Polled entries pile up in the reverse heap until it is rebuilt
+            if (this.inMemory.size() > 2 * this.inMemoryNodes + HEAP_CHECK_INTERVAL) {
+                this.rebuildInMemory();
+            }
+        }
+
+        return entry.node;
+    }
+
+    public synchronized boolean isEmpty() {
+        return this.queue.isEmpty();
+    }
+
+    public synchronized int size() {
+        return this.queue.size();
+    }
+
+    // Nodes currently written out to the spill files
+    public synchronized int getSpilledNodes() {
+        return this.queue.size() - (this.spill == null ? this.queue.size() : this.inMemoryNodes);
+    }
+
+    // Highest parent bound of the queued nodes, -INF when empty. Best bound
+    // order has it on top; the other orders need a scan
+    public synchronized double getBestBound() {
+        if (this.queue.isEmpty()) {
+            return -Solver.INF;
+        }
+
+        if (this.isBestBoundOrder()) {
+            return this.queue.peek().parentBound;
+        }
+
+        double bound = -Solver.INF;
+
+        for (Entry entry : this.queue) {
+            bound = Math.max(bound, entry.parentBound);
+        }
+
+        return bound;
+    }
+
+    // The queued nodes oldest first, so adding them back in this order
+    // restores the queue's order
+    public synchronized List<BranchNode> snapshot() {
+        return this.queue.stream()
+                .sorted(Comparator.comparingLong((Entry entry) -> entry.sequence))
+                .map(entry -> entry.node == null ? this.spill.read(entry.slot) : entry.node)
+                .collect(Collectors.toList());
+    }
+
+    public NodeSelectionStrategy getStrategy() {
+        return this.strategy;
+    }
+
+    public synchronized boolean isUnderHeapPressure() {
+        return this.underHeapPressure;
+    }
+
+    // Hybrid search switches from diving to best bound here, which needs the
+    // open nodes re-ordered
+    public synchronized void incumbentFound() {
+        if (this.hasIncumbent) {
+            return;
+        }
+
+        this.hasIncumbent = true;
+
+        if (this.strategy == NodeSelectionStrategy.HYBRID) {
+            this.reorder();
+        }
+    }
+
+    // Deletes the spill files
+    @Override
+    public synchronized void close() {
+        if (this.spill != null) {
+            this.spill.close();
+        }
+    }
+
+    private boolean isBestBoundOrder() {
+        return !this.underHeapPressure && (this.strategy == NodeSelectionStrategy.BEST_BOUND
+                || this.strategy == NodeSelectionStrategy.HYBRID && this.hasIncumbent);
+    }
+
+    private void spillWorst() {
+        Entry entry = this.inMemory.poll();
+
+        while (entry != null && !entry.queued) {
+            entry = this.inMemory.poll();
+        }
+
+        if (entry == null) {
+            return;
+        }
+
+        entry.slot = this.spill.write(entry.node);
+        entry.node = null;
+        this.inMemoryNodes--;
+    }
+
+    // Best bound keeps every subtree open at once; diving finishes subtrees
+    // and so bounds the frontier, which is what the heap needs when it runs low
+    private void checkHeapPressure() {
+        if (this.storage.getHeapPressure() >= 1) {
+            return;
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        double used = (double) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
+        boolean underHeapPressure = this.underHeapPressure
+                ? used > this.storage.getHeapPressure() * HEAP_RELIEF
+                : used > this.storage.getHeapPressure();
+
+        if (underHeapPressure != this.underHeapPressure) {
+            this.underHeapPressure = underHeapPressure;
+            this.reorder();
+        }
+    }
+
+    private void reorder() {
+        PriorityQueue<Entry> reordered = new PriorityQueue<>(Math.max(1, this.queue.size()), this.getComparator());
+        reordered.addAll(this.queue);
+        this.queue = reordered;
+        this.rebuildInMemory();
+    }
+
+    private void rebuildInMemory() {
+        List<Entry> entries = new ArrayList<>(this.inMemoryNodes);
+
+        for (Entry entry : this.inMemory) {
+            if (entry.queued) {
+                entries.add(entry);
+            }
+        }
+
+        this.inMemory = new PriorityQueue<>(Math.max(1, entries.size()), this.getComparator().reversed());
+        this.inMemory.addAll(entries);
+    }
+
+    private Comparator<Entry> getComparator() {
+        Comparator<Entry> newestFirst = Comparator.comparingLong((Entry entry) -> entry.sequence).reversed();
+
+        if (this.underHeapPressure) {
+            return newestFirst;
+        }
+
+        switch (this.strategy) {
+            case BEST_BOUND:
+                return this.bestBound(newestFirst);
+            case BEST_ESTIMATE:
+                return Comparator.comparingDouble((Entry entry) -> -entry.estimate).thenComparing(newestFirst);
+            case HYBRID:
+                return this.hasIncumbent ? this.bestBound(newestFirst) : newestFirst;
+            default:
+                return newestFirst;
+        }
+    }
+
+    // Among equal bounds the deeper node is closer to an integral solution
+    private Comparator<Entry> bestBound(Comparator<Entry> newestFirst) {
+        return Comparator.comparingDouble((Entry entry) -> -entry.parentBound)
+                .thenComparingInt(entry -> -entry.depth)
+                .thenComparing(newestFirst);
+    }
+
+    // The sort keys are copied out of the node, so spilled entries can be ordered
+    private static class Entry {
+        private final double parentBound;
+        private final double estimate;
+        private final int depth;
+        private final long sequence;
+        private BranchNode node;
+        private NodeSpill.Slot slot;
+        private boolean queued;
+
+        private Entry(BranchNode node, long sequence) {
+            this.parentBound = node.getParentBound();
+            this.estimate = node.getEstimate();
+            this.depth = node.getDepth();
+            this.sequence = sequence;
+            this.node = node;
+            this.queued = true;
+        }
+    }
+}
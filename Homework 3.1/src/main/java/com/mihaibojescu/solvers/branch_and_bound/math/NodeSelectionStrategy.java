@@ -0,0 +1,12 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+public enum NodeSelectionStrategy {
+    // Highest parent LP bound first: proves optimality with the fewest nodes
+    BEST_BOUND,
+    // Newest node first, the classic stack based search
+    DEPTH_FIRST,
+    // Highest estimated integral value first
+    BEST_ESTIMATE,
+    // Depth first until there is an incumbent to prune with, best bound afterwards
+    HYBRID;
+}
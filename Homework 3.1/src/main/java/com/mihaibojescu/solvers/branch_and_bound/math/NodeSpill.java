@@ -0,0 +1,248 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mihaibojescu.solvers.branch_and_bound.util.SimplexBasis;
+
+import jdk.incubator.foreign.MemoryAccess;
+import jdk.incubator.foreign.MemorySegment;
+import jdk.incubator.foreign.ResourceScope;
+
+// Open nodes written out of the heap, into memory-mapped segment files that
+// are filled front to back. A segment is unmapped and deleted once all of
+// its nodes are read back. A node is stored with its whole bound change
+// path and its parent's basis, with every field aligned to its size:
+//
+//   doubles parent bound, estimate, branching value; longs fingerprint
+//   ints depth, changes k, basic columns b (-1 without a basis), flags a
+//   k doubles change values, k ints change variables, b ints basic columns
+//   k bytes change sides, a bits nonbasic at upper, padding to 8 bytes
+//
+// Not thread safe; the owning NodeQueue locks around it.
+class NodeSpill implements AutoCloseable {
+    private static final int HEADER_BYTES = 56;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final List<Segment> segments;
+    private Segment current;
+    private Problem rootProblem;
+
+    NodeSpill(Path directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.segments = new ArrayList<>();
+    }
+
+    Slot write(BranchNode node) {
+        if (this.rootProblem == null) {
+            this.rootProblem = node.getRootProblem();
+        }
+
+        List<BoundChange> path = new ArrayList<>();
+
+        for (BoundChange change = node.getBoundChanges(); change != null; change = change.getPrevious()) {
+            path.add(change);
+        }
+
+        SimplexBasis basis = node.getParentBasis();
+        int[] basicColumns = basis == null ? new int[0] : basis.getBasicColumns();
+        boolean[] atUpper = basis == null ? new boolean[0] : basis.getNonbasicAtUpper();
+        int numberOfChanges = path.size();
+
+        long bytes = HEADER_BYTES + 12L * numberOfChanges + 4L * basicColumns.length + numberOfChanges
+                + (atUpper.length + 7) / 8;
+        bytes = (bytes + 7) & ~7L;
+
+        if (this.current == null || this.current.position + bytes > this.current.memory.byteSize()) {
+            this.current = this.newSegment(Math.max(this.segmentBytes, bytes));
+        }
+
+        MemorySegment memory = this.current.memory;
+        long offset = this.current.position;
+
+        MemoryAccess.setDoubleAtOffset(memory, offset, node.getParentBound());
+        MemoryAccess.setDoubleAtOffset(memory, offset + 8, node.getEstimate());
+        MemoryAccess.setDoubleAtOffset(memory, offset + 16, node.getBranchingValue());
+        MemoryAccess.setLongAtOffset(memory, offset + 24, node.getFingerprintHigh());
+        MemoryAccess.setLongAtOffset(memory, offset + 32, node.getFingerprintLow());
+        MemoryAccess.setIntAtOffset(memory, offset + 40, node.getDepth());
+        MemoryAccess.setIntAtOffset(memory, offset + 44, numberOfChanges);
+        MemoryAccess.setIntAtOffset(memory, offset + 48, basis == null ? -1 : basicColumns.length);
+        MemoryAccess.setIntAtOffset(memory, offset + 52, atUpper.length);
+
+        long values = offset + HEADER_BYTES;
+        long variables = values + 8L * numberOfChanges;
+        long columns = variables + 4L * numberOfChanges;
+        long sides = columns + 4L * basicColumns.length;
+        long flags = sides + numberOfChanges;
+
+        // Root first, so reading rebuilds the list in order
+        for (int k = 0; k < numberOfChanges; k++) {
+            BoundChange change = path.get(numberOfChanges - 1 - k);
+            MemoryAccess.setDoubleAtOffset(memory, values + 8L * k, change.getValue());
+            MemoryAccess.setIntAtOffset(memory, variables + 4L * k, change.getVariable());
+            MemoryAccess.setByteAtOffset(memory, sides + k, (byte) (change.isUpper() ? 1 : 0));
+        }
+
+        for (int k = 0; k < basicColumns.length; k++) {
+            MemoryAccess.setIntAtOffset(memory, columns + 4L * k, basicColumns[k]);
+        }
+
+        for (int k = 0; k < atUpper.length; k += 8) {
+            int packed = 0;
+
+            for (int bit = 0; bit < 8 && k + bit < atUpper.length; bit++) {
+                packed |= atUpper[k + bit] ? 1 << bit : 0;
+            }
+
+            MemoryAccess.setByteAtOffset(memory, flags + k / 8, (byte) packed);
+        }
+
+        this.current.position += bytes;
+        this.current.liveNodes++;
+        return new Slot(this.current, offset);
+    }
+
+    BranchNode read(Slot slot) {
+        MemorySegment memory = slot.segment.memory;
+        long offset = slot.offset;
+        int numberOfChanges = MemoryAccess.getIntAtOffset(memory, offset + 44);
+        int numberOfBasicColumns = MemoryAccess.getIntAtOffset(memory, offset + 48);
+        int numberOfFlags = MemoryAccess.getIntAtOffset(memory, offset + 52);
+
+        long values = offset + HEADER_BYTES;
+        long variables = values + 8L * numberOfChanges;
+        long columns = variables + 4L * numberOfChanges;
+        long sides = columns + 4L * Math.max(0, numberOfBasicColumns);
+        long flags = sides + numberOfChanges;
+        BoundChange changes = null;
+
+        for (int k = 0; k < numberOfChanges; k++) {
+            changes = new BoundChange(MemoryAccess.getIntAtOffset(memory, variables + 4L * k),
+                    MemoryAccess.getByteAtOffset(memory, sides + k) != 0,
+                    MemoryAccess.getDoubleAtOffset(memory, values + 8L * k), changes);
+        }
+
+        SimplexBasis basis = null;
+
+        if (numberOfBasicColumns >= 0) {
+            int[] basicColumns = new int[numberOfBasicColumns];
+            boolean[] atUpper = new boolean[numberOfFlags];
+
+            for (int k = 0; k < basicColumns.length; k++) {
+                basicColumns[k] = MemoryAccess.getIntAtOffset(memory, columns + 4L * k);
+            }
+
+            for (int k = 0; k < atUpper.length; k++) {
+                atUpper[k] = (MemoryAccess.getByteAtOffset(memory, flags + k / 8) & 1 << (k % 8)) != 0;
+            }
+
+            basis = new SimplexBasis(basicColumns, atUpper);
+        }
+
+        return BranchNode.restore(this.rootProblem, changes, basis,
+                MemoryAccess.getDoubleAtOffset(memory, offset),
+                MemoryAccess.getDoubleAtOffset(memory, offset + 8),
+                MemoryAccess.getIntAtOffset(memory, offset + 40),
+                MemoryAccess.getDoubleAtOffset(memory, offset + 16),
+                MemoryAccess.getLongAtOffset(memory, offset + 24),
+                MemoryAccess.getLongAtOffset(memory, offset + 32));
+    }
+
+    // Drops a node that was read back for good
+    void free(Slot slot) {
+        Segment segment = slot.segment;
+        segment.liveNodes--;
+
+        if (segment.liveNodes == 0 && segment != this.current) {
+            this.delete(segment);
+        } else if (segment.liveNodes == 0) {
+            // The segment being filled is emptied: start over at its front
+            segment.position = 0;
+        }
+    }
+
+    long getMappedBytes() {
+        long bytes = 0;
+
+        for (Segment segment : this.segments) {
+            bytes += segment.memory.byteSize();
+        }
+
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        for (Segment segment : new ArrayList<>(this.segments)) {
+            this.delete(segment);
+        }
+
+        this.current = null;
+    }
+
+    private Segment newSegment(long bytes) {
+        try {
+            Path file = Files.createTempFile(this.directory, "nodes", ".segment");
+            ResourceScope scope = ResourceScope.newSharedScope();
+            MemorySegment memory;
+
+            try {
+                memory = MemorySegment.mapFile(file, 0, bytes, FileChannel.MapMode.READ_WRITE, scope);
+            } catch (IOException e) {
+                scope.close();
+                Files.deleteIfExists(file);
+                throw e;
+            }
+
+            Segment segment = new Segment(file, scope, memory);
+            this.segments.add(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void delete(Segment segment) {
+        this.segments.remove(segment);
+        segment.scope.close();
+
+        try {
+            Files.deleteIfExists(segment.file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class Segment {
+        private final Path file;
+        private final ResourceScope scope;
+        private final MemorySegment memory;
+        private long position;
+        private int liveNodes;
+
+        private Segment(Path file, ResourceScope scope, MemorySegment memory) {
+            this.file = file;
+            this.scope = scope;
+            this.memory = memory;
+        }
+    }
+
+    // Where a spilled node lives
+    static class Slot {
+        private final Segment segment;
+        private final long offset;
+
+        private Slot(Segment segment, long offset) {
+            this.segment = segment;
+            this.offset = offset;
+        }
+    }
+}
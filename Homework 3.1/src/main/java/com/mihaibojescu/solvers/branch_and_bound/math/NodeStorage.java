@@ -0,0 +1,72 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.nio.file.Path;
+
+// Where a node queue keeps its open nodes. In memory by default; with a
+// spill directory each queue keeps at most `maxInMemoryNodes` nodes on the
+// heap and writes the rest to memory-mapped segment files of
+// `segmentBytes` each. Once the used heap passes `heapPressure` of the
+// maximum, queues go depth first until it drops well below again, since
+// diving keeps the frontier from growing.
+public class NodeStorage {
+    public static final NodeStorage IN_MEMORY = new NodeStorage(null, Integer.MAX_VALUE, 0, 1);
+    public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+    public static final double DEFAULT_HEAP_PRESSURE = 0.8;
+
+    private final Path spillDirectory;
+    private final int maxInMemoryNodes;
+    private final long segmentBytes;
+    private final double heapPressure;
+
+    public NodeStorage(Path spillDirectory, int maxInMemoryNodes) throws IllegalArgumentException {
+        this(spillDirectory, maxInMemoryNodes, DEFAULT_SEGMENT_BYTES, DEFAULT_HEAP_PRESSURE);
+    }
+
+    // `spillDirectory` may be null to keep every node in memory
+    public NodeStorage(Path spillDirectory, int maxInMemoryNodes, long segmentBytes, double heapPressure)
+            throws IllegalArgumentException {
+        if (maxInMemoryNodes < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Max in memory nodes must be >= 1, but is %d", maxInMemoryNodes));
+        }
+
+        if (spillDirectory != null && segmentBytes < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Segment bytes must be >= 1, but is %d", segmentBytes));
+        }
+
+        if (heapPressure <= 0 || heapPressure > 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Heap pressure must be in (0, 1], but is %f", heapPressure));
+        }
+
+        this.spillDirectory = spillDirectory;
+        this.maxInMemoryNodes = maxInMemoryNodes;
+        this.segmentBytes = segmentBytes;
+        this.heapPressure = heapPressure;
+    }
+
+    public NodeStorage withHeapPressure(double heapPressure) throws IllegalArgumentException {
+        return new NodeStorage(this.spillDirectory, this.maxInMemoryNodes, this.segmentBytes, heapPressure);
+    }
+
+    public boolean isSpilling() {
+        return this.spillDirectory != null;
+    }
+
+    public Path getSpillDirectory() {
+        return this.spillDirectory;
+    }
+
+    public int getMaxInMemoryNodes() {
+        return this.maxInMemoryNodes;
+    }
+
+    public long getSegmentBytes() {
+        return this.segmentBytes;
+    }
+
+    public double getHeapPressure() {
+        return this.heapPressure;
+    }
+}
@@ -0,0 +1,42 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.TableauStorage;
+
+import jdk.incubator.foreign.MemoryAccess;
+import jdk.incubator.foreign.MemorySegment;
+import jdk.incubator.foreign.ResourceScope;
+
+// One contiguous native segment, zero filled on allocation and freed as
+// soon as the storage is closed rather than when the GC gets to it. The
+// scope is shared because parallel pivots write rows from pool threads.
+public final class OffHeapTableauStorage implements TableauStorage {
+    private final ResourceScope scope;
+    private final MemorySegment segment;
+    private final long size;
+
+    public OffHeapTableauStorage(long size) {
+        this.scope = ResourceScope.newSharedScope();
+        this.segment = MemorySegment.allocateNative(size * Double.BYTES, Double.BYTES, this.scope);
+        this.size = size;
+    }
+
+    @Override
+    public double get(long index) {
+        return MemoryAccess.getDoubleAtIndex(this.segment, index);
+    }
+
+    @Override
+    public void set(long index, double value) {
+        MemoryAccess.setDoubleAtIndex(this.segment, index, value);
+    }
+
+    @Override
+    public long size() {
+        return this.size;
+    }
+
+    @Override
+    public void close() {
+        this.scope.close();
+    }
+}
@@ -1,38 +1,43 @@
 package com.mihaibojescu.solvers.branch_and_bound.math;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.BranchingRule;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.SearchListener;
 import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
-import com.mihaibojescu.solvers.branch_and_bound.util.Box;
+import com.mihaibojescu.solvers.branch_and_bound.util.FingerprintSet;
+import com.mihaibojescu.solvers.branch_and_bound.util.Incumbent;
 import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+import com.mihaibojescu.solvers.branch_and_bound.util.SearchResult;
 
 public class ParallelBranchAndBoundSolver implements Solver {
+    private static final int VISITED_STRIPES_PER_WORKER = 4;
+
     private Solver solver;
     private double tolerance;
     private int nprocs;
     private boolean debug;
+    private NodeSelectionStrategy nodeSelectionStrategy;
+    private BranchingStrategy branchingStrategy;
+    private PrimalHeuristics primalHeuristics;
+    private SearchLimits searchLimits;
+    private SearchListener listener;
+    private Checkpointing checkpointing;
+    private NodeStorage nodeStorage;
+    private ExecutionMode executionMode;
 
     public ParallelBranchAndBoundSolver(Solver solver,
             double tolerance,
             int nprocs)
             throws IllegalArgumentException {
-        if (tolerance < 0) {
-            throw new IllegalArgumentException(String.format("Tolerance must be >= 0, but is %d", tolerance));
-        }
-
-        if (nprocs < 0) {
-            throw new IllegalArgumentException(String.format("NProcs must be >= 0, but is %d", nprocs));
-        }
-
-        this.solver = solver;
-        this.tolerance = tolerance;
-        this.nprocs = nprocs;
-        this.debug = false;
+        this(solver, tolerance, nprocs, false);
     }
 
     public ParallelBranchAndBoundSolver(Solver solver,
@@ -40,59 +45,172 @@ public class ParallelBranchAndBoundSolver implements Solver {
             int nprocs,
             boolean debug)
             throws IllegalArgumentException {
+        this(solver, tolerance, nprocs, debug,
+                SearchOptions.DEFAULT.withNodeSelectionStrategy(NodeSelectionStrategy.BEST_BOUND));
+    }
+
+    public ParallelBranchAndBoundSolver(Solver solver,
+            double tolerance,
+            int nprocs,
+            boolean debug,
+            SearchOptions options)
+            throws IllegalArgumentException {
         if (tolerance < 0) {
             throw new IllegalArgumentException(String.format("Tolerance must be >= 0, but is %d", tolerance));
         }
 
-        if (nprocs < 0) {
-            throw new IllegalArgumentException(String.format("NProcs must be >= 0, but is %d", nprocs));
+        if (nprocs < 1) {
+            throw new IllegalArgumentException(String.format("NProcs must be >= 1, but is %d", nprocs));
         }
 
         this.solver = solver;
         this.tolerance = tolerance;
         this.nprocs = nprocs;
         this.debug = debug;
+        this.nodeSelectionStrategy = options.getNodeSelectionStrategy();
+        this.branchingStrategy = options.getBranchingStrategy();
+        this.primalHeuristics = options.getPrimalHeuristics();
+        this.searchLimits = options.getSearchLimits();
+        this.listener = options.getListener();
+        this.checkpointing = options.getCheckpointing();
+        this.nodeStorage = options.getNodeStorage();
+        this.executionMode = options.getExecutionMode();
     }
 
     @Override
-    public Result run(Problem problem) throws Exception {
-        BlockingQueue<Problem> input = new LinkedBlockingQueue<>();
-        BlockingQueue<Problem> output = new LinkedBlockingQueue<>();
-        ConcurrentHashMap<String, Boolean> visited = new ConcurrentHashMap<>();
-        Box<Result> bestResult = new Box<>(new Result(null, -Solver.INF));
+    public SearchResult run(Problem problem) throws Exception {
+        return this.run(problem, null, 0);
+    }
 
-        ExecutorService executor = Executors.newFixedThreadPool(this.nprocs);
+    // As `member` of a portfolio that shares `shared`, which may be null
+    SearchResult run(Problem problem, SharedSearch shared, int member) throws Exception {
+        return this.search(problem, new Checkpoint(List.of(new BranchNode(problem, null)),
+                new Result(null, -Solver.INF), Solver.INF, 0, 0), shared, member);
+    }
 
-        input.offer(problem);
+    // Continues the search saved in `checkpoint`, which must have been
+    // written for `problem`, by this or the serial solver
+    public SearchResult resume(Problem problem, Path checkpoint) throws Exception {
+        return this.search(problem, Checkpoint.read(checkpoint, problem), null, 0);
+    }
 
-        while (!input.isEmpty()) {
-            CountDownLatch latch = new CountDownLatch(this.nprocs);
+    // Starts from the open nodes and incumbent of `start`, which is also the
+    // first checkpoint written, so a file resumed from is never left without one
+    private SearchResult search(Problem problem, Checkpoint start, SharedSearch shared, int member)
+            throws Exception {
+        List<BranchNode> nodes = start.getNodes();
+        Result initialIncumbent = start.getIncumbent();
+        // Deterministic search takes its epochs from a single queue, in order.
+        // When the heap fills up depends on the garbage collector, so that
+        // queue never switches to depth first
+        boolean deterministic = this.executionMode == ExecutionMode.DETERMINISTIC;
+        NodeQueue[] queues = new NodeQueue[deterministic ? 1 : this.nprocs];
+        NodeStorage nodeStorage = deterministic ? this.nodeStorage.withHeapPressure(1) : this.nodeStorage;
+
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new NodeQueue(this.nodeSelectionStrategy, nodeStorage);
+        }
 
+        try (CheckpointWriter checkpoints = this.checkpointing == null
+                ? null
+                : new CheckpointWriter(this.checkpointing, problem, start)) {
+            // Resumed nodes are dealt out round robin, so every worker starts with some
+            for (int k = 0; k < nodes.size(); k++) {
+                queues[k % queues.length].add(nodes.get(k));
+            }
+
+            if (initialIncumbent.getObjectiveValue() != -Solver.INF) {
+                for (NodeQueue queue : queues) {
+                    queue.incumbentFound();
+                }
+            }
+
+            Incumbent incumbent = new Incumbent(initialIncumbent);
+            SearchMonitor monitor = new SearchMonitor(this.searchLimits, this.listener, queues, checkpoints,
+                    start.getSolvedNodes(), start.getElapsedNanos(), shared, member,
+                    deterministic ? DeterministicSearch.getEpochSize(this.nprocs) : queues.length);
+
+            if (deterministic) {
+                incumbent.offer(this.searchDeterministically(queues[0], incumbent.getValue(), monitor));
+            } else {
+                this.search(queues, new AtomicInteger(nodes.size()), incumbent, monitor);
+            }
+
+            if (incumbent.getValue().getObjectiveValue() != Solver.INF) {
+                monitor.checkpoint(incumbent.getValue());
+            }
+
+            return monitor.createResult(incumbent.getValue());
+        } finally {
+            for (NodeQueue queue : queues) {
+                queue.close();
+            }
+        }
+    }
+
+    private void search(NodeQueue[] queues, AtomicInteger openNodes, Incumbent incumbent, SearchMonitor monitor)
+            throws Exception {
+        FingerprintSet visited = new FingerprintSet(VISITED_STRIPES_PER_WORKER * this.nprocs);
+        BranchingRule branchingRule = this.branchingStrategy.create(this.solver);
+        ReducedCostFixing reducedCostFixing = new ReducedCostFixing(this.tolerance);
+
+        // Workers run until the whole tree is exhausted, stealing from each
+        // other whenever their own queue is empty
+        ExecutorService executor = this.executionMode.create(this.nprocs);
+        List<Future<?>> workers = new ArrayList<>();
+
+        try {
             for (int i = 0; i < this.nprocs; i++) {
-                executor.submit(new ParallelBranchAndBoundSolverRunnable(
+                workers.add(executor.submit(new ParallelBranchAndBoundSolverRunnable(
                         this.solver,
                         this.tolerance,
-                        latch,
-                        input,
-                        output,
+                        i,
+                        queues,
+                        openNodes,
                         visited,
-                        bestResult,
-                        this.debug));
+                        incumbent,
+                        branchingRule,
+                        this.primalHeuristics,
+                        monitor,
+                        reducedCostFixing,
+                        this.debug)));
             }
 
-            try {
-                latch.await();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                this.log("Interrupted while waiting for tasks to complete");
+            for (Future<?> worker : workers) {
+                worker.get();
             }
-
-            while (!output.isEmpty()) {
-                input.offer(output.poll());
+        } catch (InterruptedException e) {
+            monitor.cancel();
+            Thread.currentThread().interrupt();
+            this.log("Interrupted while waiting for tasks to complete");
+        } catch (ExecutionException e) {
+            // The other workers see the cancellation at their next node. The
+            // cause is rethrown as is, as the serial solver would throw it
+            monitor.cancel();
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
             }
+
+            throw e;
+        } finally {
+            ExecutionMode.shutdown(executor);
         }
+    }
 
-        return bestResult.getValue();
+    private Result searchDeterministically(NodeQueue queue, Result incumbent, SearchMonitor monitor)
+            throws Exception {
+        DeterministicSearch search = new DeterministicSearch(this.solver, this.tolerance, this.nprocs,
+                this.branchingStrategy.create(this.solver), this.primalHeuristics,
+                new ReducedCostFixing(this.tolerance));
+        ExecutorService executor = this.executionMode.create(this.nprocs);
+
+        try {
+            return search.run(queue, monitor, incumbent, executor);
+        } finally {
+            ExecutionMode.shutdown(executor);
+        }
     }
 
     private void log(String string) {
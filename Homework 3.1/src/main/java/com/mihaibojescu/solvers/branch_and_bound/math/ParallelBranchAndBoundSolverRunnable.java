@@ -6,169 +6,290 @@ import java.util.Arrays;
 import java.util.Deque;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.BranchingRule;
 import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
-import com.mihaibojescu.solvers.branch_and_bound.util.Box;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.WarmStartSolver;
+import com.mihaibojescu.solvers.branch_and_bound.util.FingerprintSet;
+import com.mihaibojescu.solvers.branch_and_bound.util.Incumbent;
+import com.mihaibojescu.solvers.branch_and_bound.util.LinearProgramResult;
 import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+import com.mihaibojescu.solvers.branch_and_bound.util.SimplexBasis;
 
 public class ParallelBranchAndBoundSolverRunnable implements Runnable {
+    // How long an idle worker sleeps before looking for work again
+    private static final long IDLE_PARK_NANOS = 100_000;
+
     private Solver solver;
     private double tolerance;
-    private CountDownLatch latch;
-    private BlockingQueue<Problem> input;
-    private BlockingQueue<Problem> output;
-    private ConcurrentHashMap<String, Boolean> visited;
-    private Box<Result> solution;
+    private int id;
+    private NodeQueue[] queues;
+    private AtomicInteger openNodes;
+    private FingerprintSet visited;
+    private Incumbent incumbent;
+    private BranchingRule branchingRule;
+    private PrimalHeuristics primalHeuristics;
+    private SearchMonitor monitor;
+    private ReducedCostFixing reducedCostFixing;
     private boolean debug;
 
     public ParallelBranchAndBoundSolverRunnable(Solver solver,
             double tolerance,
-            CountDownLatch latch,
-            BlockingQueue<Problem> input,
-            BlockingQueue<Problem> output,
-            ConcurrentHashMap<String, Boolean> visited,
-            Box<Result> solution)
+            int id,
+            NodeQueue[] queues,
+            AtomicInteger openNodes,
+            FingerprintSet visited,
+            Incumbent incumbent)
             throws IllegalArgumentException {
-        if (tolerance < 0) {
-            throw new IllegalArgumentException(String.format("Tolerance must be >= 0, but is %d", tolerance));
-        }
-
-        this.solver = solver;
-        this.tolerance = tolerance;
-        this.latch = latch;
-        this.input = input;
-        this.output = output;
-        this.visited = visited;
-        this.solution = solution;
-        this.debug = false;
+        this(solver, tolerance, id, queues, openNodes, visited, incumbent, new MostFractionalBranchingRule(),
+                PrimalHeuristics.NONE, new SearchMonitor(SearchLimits.NONE, null, queues),
+                new ReducedCostFixing(tolerance), false);
     }
 
+    // Worker `id` owns queues[id] and steals from the others. openNodes
+    // counts the nodes that are queued or being processed anywhere; the
+    // search is over once it drops to zero, or once the monitor hits a limit.
+    // The monitor and the global bounds of reducedCostFixing are shared too.
     public ParallelBranchAndBoundSolverRunnable(Solver solver,
             double tolerance,
-            CountDownLatch latch,
-            BlockingQueue<Problem> input,
-            BlockingQueue<Problem> output,
-            ConcurrentHashMap<String, Boolean> visited,
-            Box<Result> solution,
+            int id,
+            NodeQueue[] queues,
+            AtomicInteger openNodes,
+            FingerprintSet visited,
+            Incumbent incumbent,
+            BranchingRule branchingRule,
+            PrimalHeuristics primalHeuristics,
+            SearchMonitor monitor,
+            ReducedCostFixing reducedCostFixing,
             boolean debug)
             throws IllegalArgumentException {
         if (tolerance < 0) {
             throw new IllegalArgumentException(String.format("Tolerance must be >= 0, but is %d", tolerance));
         }
 
+        if (id < 0 || id >= queues.length) {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "Worker id {0} must be between 0 and {1}", id, queues.length - 1));
+        }
+
         this.solver = solver;
         this.tolerance = tolerance;
-        this.latch = latch;
-        this.input = input;
-        this.output = output;
+        this.id = id;
+        this.queues = queues;
+        this.openNodes = openNodes;
         this.visited = visited;
-        this.solution = solution;
+        this.incumbent = incumbent;
+        this.branchingRule = branchingRule;
+        this.primalHeuristics = primalHeuristics;
+        this.monitor = monitor;
+        this.reducedCostFixing = reducedCostFixing;
         this.debug = debug;
     }
 
     @Override
     public void run() {
-        try {
-            Problem problem = this.input.poll();
+        while (this.openNodes.get() > 0 && !this.monitor.isStopped()) {
+            BranchNode node = this.monitor.take(this.queues[this.id], this.id);
 
-            if (problem == null) {
-                return;
+            if (node == null) {
+                node = this.steal();
             }
 
-            Result result = this.solver.run(problem);
+            if (node == null) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
 
-            this.log(MessageFormat.format("\nStatistics: {0} subproblems left, {1} subproblems visited",
-                    this.input.size() + this.output.size(),
-                    visited.size()));
-            this.log(MessageFormat.format("\tResult: {0}, with values: {1}",
-                    result.getObjectiveValue(),
-                    Arrays.toString(result.getSolution())));
+            // A taken node stays in the dual bound, so stopping right after taking it loses nothing
+            if (this.monitor.shouldStop(this.incumbent.getObjectiveValue())) {
+                break;
+            }
 
-            String problemSignature = this.getProblemSignature(problem);
+            try {
+                // The taken node is still open here, so the checkpoint keeps it
+                this.monitor.checkpointIfDue(this.incumbent.getValue());
 
-            synchronized (this.visited) {
-                if (visited.getOrDefault(problemSignature, false)) {
-                    this.log("\tAlready visited: true");
-                    this.log("\tSolution is integral: null");
-                    this.log("\tBiggest fractional value: null, index -1");
-                    return;
+                // Once the problem is known to be unbounded the remaining nodes are just drained
+                if (this.incumbent.getObjectiveValue() != Solver.INF) {
+                    this.process(node);
                 }
-                
-                this.log("\tAlready visited: false");
+            } catch (RuntimeException e) {
+                this.monitor.cancel();
+                throw e;
+            } catch (Exception e) {
+                // The other workers stop at their next node, and the solver rethrows the cause
+                this.monitor.cancel();
+                throw new CompletionException(e);
+            } finally {
+                // Children were counted when pushed, so this cannot reach zero early
+                this.openNodes.decrementAndGet();
+                this.monitor.release(this.id);
+            }
+        }
+    }
 
-                visited.putIfAbsent(problemSignature, true);
+    // Takes the best node of the first other worker that has one
+    private BranchNode steal() {
+        for (int i = 1; i < this.queues.length; i++) {
+            BranchNode node = this.monitor.take(this.queues[(this.id + i) % this.queues.length], this.id);
+
+            if (node != null) {
+                return node;
             }
+        }
 
-            synchronized (this.solution) {
-                Result bestResult = this.solution.getValue();
+        return null;
+    }
 
-                if (result.getObjectiveValue() == Solver.INF) {
-                    this.solution.setValue(new Result(null, Solver.INF));
-                }
+    private void push(BranchNode node) {
+        this.openNodes.incrementAndGet();
+        this.queues[this.id].add(node);
+    }
 
-                if (result.getObjectiveValue() <= bestResult.getObjectiveValue()) {
-                    return;
-                }
+    private void process(BranchNode node) throws Exception {
+        // Other members of a portfolio may have found a better incumbent to prune with
+        Result sharedResult = this.monitor.getSharedIncumbent(this.incumbent.getObjectiveValue());
 
-                if (isSolutionIntegral(result)) {
-                    this.log("\tSolution is integral: true");
-                    this.log("\tBiggest fractional value: null, index -1");
-                    this.solution.setValue(result);
-                    return;
-                }
+        if (sharedResult != null && this.incumbent.offer(sharedResult)) {
+            this.incumbentFound(sharedResult);
+        }
 
-                this.log("\tSolution is integral: false");
-            }
+        // The parent's LP value bounds everything below the node, so there is
+        // no point in solving it if that cannot beat the incumbent
+        if (node.getParentBound() <= this.incumbent.getObjectiveValue()) {
+            this.log("\tPruned by the parent bound");
+            return;
+        }
+
+        // Nodes with the same bounds have the same LP, so duplicates are dropped before solving
+        if (!this.visited.add(node.getFingerprintHigh(), node.getFingerprintLow())) {
+            this.log("\tAlready visited: true");
+            return;
+        }
+
+        Problem nodeProblem = node.getProblem();
+        Problem problem = this.reducedCostFixing.tighten(nodeProblem);
+        Result result = this.solve(node, problem);
+        this.updateBranchingRule(this.branchingRule, node, result);
+        long solvedNode = this.monitor.nodeSolved(this.id, result.getObjectiveValue());
+
+        if (node.getBoundChanges() == null) {
+            this.reducedCostFixing.setRoot(problem, result);
+        }
+
+        this.log(MessageFormat.format("\nStatistics: {0} subproblems left, {1} subproblems visited",
+                this.openNodes.get(),
+                this.visited.size()));
+        this.log(MessageFormat.format("\tResult: {0}, with values: {1}",
+                result.getObjectiveValue(),
+                Arrays.toString(result.getSolution())));
+
+        if (result.getObjectiveValue() == Solver.INF) {
+            this.incumbent.offer(new Result(null, Solver.INF));
+            return;
+        }
+
+        if (result.getObjectiveValue() <= this.incumbent.getObjectiveValue()) {
+            return;
+        }
 
-            int biggestFractionalVariableIndex = this.getBiggestFractionalVariableIndex(result);
-            this.log(MessageFormat.format("\tBiggest fractional value: {0}, index {1}",
-                    result.getSolution()[biggestFractionalVariableIndex], biggestFractionalVariableIndex));
+        if (isSolutionIntegral(result)) {
+            this.log("\tSolution is integral: true");
+            this.log("\tBranching on variable -1");
 
-            if (biggestFractionalVariableIndex >= 0) {
+            Result rounded = this.roundSolution(problem, result);
 
-                Problem subProblem1 = problem.clone();
-                Problem subProblem2 = problem.clone();
+            if (this.incumbent.offer(rounded)) {
+                this.incumbentFound(rounded);
+            }
+
+            return;
+        }
 
-                subProblem1.addConstraint(
-                        this.createConstraint(problem, biggestFractionalVariableIndex,
-                                1.0),
-                        Math.floor(result.getSolution()[biggestFractionalVariableIndex]));
+        this.log("\tSolution is integral: false");
 
-                subProblem2.addConstraint(
-                        this.createConstraint(problem, biggestFractionalVariableIndex,
-                                -1.0),
-                        Math.ceil(result.getSolution()[biggestFractionalVariableIndex]));
+        // A good incumbent early on lets the parent bound prune whole subtrees
+        if (this.primalHeuristics.isDue(solvedNode)) {
+            Result heuristicResult = this.primalHeuristics.run(this.solver, problem, result,
+                    this.incumbent.getObjectiveValue(), this.tolerance);
 
-                this.output.add(subProblem1);
-                this.output.add(subProblem2);
+            if (heuristicResult != null && this.incumbent.offer(heuristicResult)) {
+                this.log(MessageFormat.format("\tHeuristic solution: {0}", heuristicResult.getObjectiveValue()));
+                this.incumbentFound(heuristicResult);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-        } finally {
-            this.latch.countDown();
+        }
+
+        // Bounds this node's LP proves for its subtree, inherited by both children
+        node = this.reducedCostFixing.fixLocally(node, nodeProblem, problem, result,
+                this.incumbent.getObjectiveValue());
+
+        int branchingVariable = this.branchingRule.selectVariable(problem, result, this.tolerance);
+        this.log(MessageFormat.format("\tBranching on variable {0}", branchingVariable));
+
+        if (branchingVariable >= 0) {
+            double value = result.getSolution()[branchingVariable];
+            SimplexBasis basis = this.getBasis(result);
+            double bound = result.getObjectiveValue();
+            double[] objective = problem.getObjectiveFunctionMultipliers().toRawVector();
+            double lower = nodeProblem.getVariableLowerBounds()[branchingVariable];
+            double upper = nodeProblem.getVariableUpperBounds()[branchingVariable];
+
+            this.push(node.createChild(branchingVariable, true, value, upper, basis, bound,
+                    BranchNode.estimateChild(objective, result.getSolution(), bound, branchingVariable, false,
+                            this.tolerance)));
+            this.push(node.createChild(branchingVariable, false, value, lower, basis, bound,
+                    BranchNode.estimateChild(objective, result.getSolution(), bound, branchingVariable, true,
+                            this.tolerance)));
         }
     }
 
-    private void log(String string) {
-        if (!this.debug) {
+    private void incumbentFound(Result result) {
+        for (NodeQueue queue : this.queues) {
+            queue.incumbentFound();
+        }
+
+        this.reducedCostFixing.incumbentFound(result.getObjectiveValue());
+        this.monitor.incumbentFound(result);
+    }
+
+    private Result solve(BranchNode node, Problem problem) throws Exception {
+        if (node.getParentBasis() != null && this.solver instanceof WarmStartSolver) {
+            return ((WarmStartSolver) this.solver).run(problem, node.getParentBasis());
+        }
+
+        return this.solver.run(problem);
+    }
+
+    // Feeds the branching rule how much the LP got worse from the parent to this node
+    private void updateBranchingRule(BranchingRule branchingRule, BranchNode node, Result result) {
+        BoundChange change = node.getBoundChanges();
+        double value = result.getObjectiveValue();
+
+        if (change == null || value == Solver.INF || value == -Solver.INF) {
             return;
         }
 
-        System.out.println(string);
+        branchingRule.update(change.getVariable(), !change.isUpper(),
+                Math.abs(change.getValue() - node.getBranchingValue()), node.getParentBound() - value);
     }
 
-    private String getProblemSignature(Problem problem) {
-        StringBuilder signature = new StringBuilder();
+    private SimplexBasis getBasis(Result result) {
+        if (result instanceof LinearProgramResult) {
+            return ((LinearProgramResult) result).getBasis();
+        }
+
+        return null;
+    }
 
-        for (double[] row : problem.getConstraints().toRawMatrix()) {
-            signature.append(Arrays.toString(row)).append(";");
+    private void log(String string) {
+        if (!this.debug) {
+            return;
         }
 
-        signature.append(Arrays.toString(problem.getBounds().toRawVector()));
-        return signature.toString();
+        System.out.println(string);
     }
 
     private boolean isSolutionIntegral(Result result) {
@@ -176,7 +297,7 @@ public class ParallelBranchAndBoundSolverRunnable implements Runnable {
         double[] solution = result.getSolution();
 
         for (double x : solution) {
-            if (x - Math.floor(x) > this.tolerance) {
+            if (Math.abs(x - Math.rint(x)) > this.tolerance) {
                 isIntegral = false;
                 break;
             }
@@ -185,26 +306,18 @@ public class ParallelBranchAndBoundSolverRunnable implements Runnable {
         return isIntegral;
     }
 
-    private int getBiggestFractionalVariableIndex(Result result) {
-        int index = -1;
-        double maxFraction = 0.0;
-        double[] solution = result.getSolution();
+    // Snaps an integral LP solution to exact integers, so the reported
+    // incumbent does not carry the LP's floating point noise
+    private Result roundSolution(Problem problem, Result result) {
+        double[] solution = new double[result.getSolution().length];
+        double[] objective = problem.getObjectiveFunctionMultipliers().toRawVector();
+        double objectiveValue = 0;
 
         for (int i = 0; i < solution.length; i++) {
-            double fraction = solution[i] - Math.floor(solution[i]);
-
-            if (fraction > maxFraction) {
-                maxFraction = fraction;
-                index = i;
-            }
+            solution[i] = Math.rint(result.getSolution()[i]);
+            objectiveValue += objective[i] * solution[i];
         }
 
-        return index;
-    }
-
-    private double[] createConstraint(Problem problem, int variableIndex, double coefficient) {
-        double[] constraintMultipliers = new double[problem.getNumberOfVariables()];
-        constraintMultipliers[variableIndex] = coefficient;
-        return constraintMultipliers;
+        return new Result(solution, objectiveValue);
     }
 }
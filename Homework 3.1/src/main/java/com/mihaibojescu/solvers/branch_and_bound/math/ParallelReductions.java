@@ -0,0 +1,77 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntToDoubleFunction;
+
+public class ParallelReductions {
+    private ParallelReductions() {
+    }
+
+    // Index in [0, size) with the largest score, or -1 if every score is
+    // -infinity. Ties go to the lowest index, so the answer does not depend on
+    // how the range was split. Without a pool the scan runs on the caller.
+    public static int argmax(ForkJoinPool pool, int size, int grain, IntToDoubleFunction score) {
+        ArgmaxTask task = new ArgmaxTask(0, size, Math.max(grain, 1), score);
+        Candidate best = pool == null || size <= grain ? task.compute() : pool.invoke(task);
+        return best.index;
+    }
+
+    private static class Candidate {
+        private final int index;
+        private final double score;
+
+        private Candidate(int index, double score) {
+            this.index = index;
+            this.score = score;
+        }
+
+        // `other` always covers higher indices, so it only wins when strictly better
+        private Candidate max(Candidate other) {
+            return other.score > this.score ? other : this;
+        }
+    }
+
+    private static class ArgmaxTask extends RecursiveTask<Candidate> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final IntToDoubleFunction score;
+
+        private ArgmaxTask(int from, int to, int grain, IntToDoubleFunction score) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.score = score;
+        }
+
+        @Override
+        protected Candidate compute() {
+            if (this.to - this.from <= this.grain) {
+                int index = -1;
+                double best = Double.NEGATIVE_INFINITY;
+
+                for (int i = this.from; i < this.to; i++) {
+                    double value = this.score.applyAsDouble(i);
+
+                    if (value > best) {
+                        best = value;
+                        index = i;
+                    }
+                }
+
+                return new Candidate(index, best);
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            ArgmaxTask left = new ArgmaxTask(this.from, middle, this.grain, this.score);
+            ArgmaxTask right = new ArgmaxTask(middle, this.to, this.grain, this.score);
+
+            right.fork();
+            Candidate result = left.compute();
+            return result.max(right.join());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.PricingRule;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.SimplexTableau;
+
+public class PartialPricingRule implements PricingRule {
+    private static final double TOLERANCE = 1.0E-8;
+
+    private int segmentSize;
+    private int start;
+
+    public PartialPricingRule() {
+        this.segmentSize = 0;
+        this.start = 0;
+    }
+
+    public PartialPricingRule(int segmentSize) throws IllegalArgumentException {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException(String.format("Segment size must be > 0, but is %d", segmentSize));
+        }
+
+        this.segmentSize = segmentSize;
+        this.start = 0;
+    }
+
+    @Override
+    public void initialize(SimplexTableau tableau) {
+        if (this.segmentSize == 0) {
+            this.segmentSize = Math.max(1, (int) Math.ceil(Math.sqrt(tableau.getNumberOfCandidateColumns())));
+        }
+
+        this.start = 0;
+    }
+
+    // Prices one segment of columns at a time, starting after the segment that
+    // produced the last entering column, and picks the most positive reduced
+    // cost of the first segment that has any candidate
+    @Override
+    public int findEnteringColumn(SimplexTableau tableau, int objectiveRow) {
+        int columns = tableau.getNumberOfCandidateColumns();
+        int scanned = 0;
+
+        while (scanned < columns) {
+            int enteringColumn = -1;
+            double best = TOLERANCE;
+
+            for (int k = 0; k < this.segmentSize && scanned < columns; k++, scanned++) {
+                int j = (this.start + scanned) % columns;
+                double reducedCost = tableau.getValue(objectiveRow, j);
+
+                if (reducedCost > best) {
+                    best = reducedCost;
+                    enteringColumn = j;
+                }
+            }
+
+            if (enteringColumn != -1) {
+                this.start = (this.start + scanned) % columns;
+                return enteringColumn;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public void update(SimplexTableau tableau, int leavingRow, int enteringColumn) {
+    }
+}
@@ -0,0 +1,159 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.Arrays;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+import com.mihaibojescu.solvers.branch_and_bound.util.SearchResult;
+
+// One strategy in a PortfolioSolver and the number of threads it takes
+public class PortfolioMember {
+    private static final int ROOT_CUT_ROUNDS = 10;
+
+    private enum Kind {
+        BRANCH_AND_BOUND,
+        CUT_AND_BRANCH,
+        CUTTING_PLANES;
+    }
+
+    private final Kind kind;
+    private final int threads;
+    private final NodeSelectionStrategy nodeSelectionStrategy;
+    private final BranchingStrategy branchingStrategy;
+    private final PrimalHeuristics primalHeuristics;
+
+    private PortfolioMember(Kind kind, int threads, NodeSelectionStrategy nodeSelectionStrategy,
+            BranchingStrategy branchingStrategy, PrimalHeuristics primalHeuristics) throws IllegalArgumentException {
+        if (threads < 1) {
+            throw new IllegalArgumentException(String.format("Threads must be >= 1, but is %d", threads));
+        }
+
+        this.kind = kind;
+        this.threads = threads;
+        this.nodeSelectionStrategy = nodeSelectionStrategy;
+        this.branchingStrategy = branchingStrategy;
+        this.primalHeuristics = primalHeuristics;
+    }
+
+    public static PortfolioMember branchAndBound(NodeSelectionStrategy nodeSelectionStrategy,
+            BranchingStrategy branchingStrategy, PrimalHeuristics primalHeuristics) {
+        return branchAndBound(1, nodeSelectionStrategy, branchingStrategy, primalHeuristics);
+    }
+
+    // More than one thread runs the parallel solver
+    public static PortfolioMember branchAndBound(int threads, NodeSelectionStrategy nodeSelectionStrategy,
+            BranchingStrategy branchingStrategy, PrimalHeuristics primalHeuristics) throws IllegalArgumentException {
+        return new PortfolioMember(Kind.BRANCH_AND_BOUND, threads, nodeSelectionStrategy, branchingStrategy,
+                primalHeuristics);
+    }
+
+    // Rounds of Gomory cuts at the root, then a serial branch and bound on the
+    // tightened problem, which proves optimality like any other member
+    public static PortfolioMember cutAndBranch(NodeSelectionStrategy nodeSelectionStrategy,
+            BranchingStrategy branchingStrategy, PrimalHeuristics primalHeuristics) {
+        return new PortfolioMember(Kind.CUT_AND_BRANCH, 1, nodeSelectionStrategy, branchingStrategy,
+                primalHeuristics);
+    }
+
+    // Gomory cuts on the dense two-phase tableau, which only contribute an
+    // incumbent; uses its own LP solver
+    public static PortfolioMember cuttingPlanes() {
+        return new PortfolioMember(Kind.CUTTING_PLANES, 1, null, null, null);
+    }
+
+    public int getThreads() {
+        return this.threads;
+    }
+
+    // Null when the member stopped without a result of its own
+    SearchResult run(Problem problem, Solver solver, double tolerance, SearchLimits searchLimits,
+            SharedSearch shared, int member) throws Exception {
+        if (this.kind == Kind.CUTTING_PLANES) {
+            return this.runCuttingPlanes(problem, tolerance, shared);
+        }
+
+        if (this.kind == Kind.CUT_AND_BRANCH) {
+            problem = withRootCuts(problem);
+        }
+
+        SearchOptions options = SearchOptions.DEFAULT
+                .withNodeSelectionStrategy(this.nodeSelectionStrategy)
+                .withBranchingStrategy(this.branchingStrategy)
+                .withPrimalHeuristics(this.primalHeuristics)
+                .withSearchLimits(searchLimits);
+
+        if (this.threads == 1) {
+            return new BranchAndBoundSolver(solver, tolerance, false, options).run(problem, shared, member);
+        }
+
+        return new ParallelBranchAndBoundSolver(solver, tolerance, this.threads, false, options)
+                .run(problem, shared, member);
+    }
+
+    // The Gomory cuts are only valid when the constraints and right-hand
+    // sides are integral, which is not checked, so the solution is checked
+    // against the original problem and shared as an incumbent, but never
+    // counted as a proof.
+    private SearchResult runCuttingPlanes(Problem problem, double tolerance, SharedSearch shared)
+            throws Exception {
+        Problem boundedProblem = problem.withVariableBoundsAsConstraints();
+        double[] solution = new CuttingPlaneSolver(boundedProblem.getConstraints().toRawMatrix(),
+                boundedProblem.getBounds().toRawVector(),
+                boundedProblem.getObjectiveFunctionMultipliers().toRawVector()).solve();
+        Result result = solution == null ? null : PrimalSolutions.toResult(problem, solution, tolerance);
+
+        if (result != null) {
+            shared.incumbentFound(result);
+        }
+
+        return null;
+    }
+
+    // The cuts are derived on the bounded form, so they hold for every
+    // integral point of the problem, but only when its constraints and
+    // right-hand sides are integral; otherwise the problem is searched as is.
+    // They go into a copy, since all members share the problem.
+    private static Problem withRootCuts(Problem problem) throws Exception {
+        Problem boundedProblem = problem.withVariableBoundsAsConstraints();
+        double[][] constraints = boundedProblem.getConstraints().toRawMatrix();
+        double[] bounds = boundedProblem.getBounds().toRawVector();
+
+        if (!isIntegral(bounds) || !Arrays.stream(constraints).allMatch(PortfolioMember::isIntegral)) {
+            return problem;
+        }
+
+        Problem cutProblem = problem.clone();
+        CuttingPlaneSolver cuttingPlaneSolver = new CuttingPlaneSolver(constraints, bounds,
+                boundedProblem.getObjectiveFunctionMultipliers().toRawVector());
+
+        for (double[] cut : cuttingPlaneSolver.generateCuts(ROOT_CUT_ROUNDS)) {
+            cutProblem.addConstraint(Arrays.copyOf(cut, cut.length - 1), cut[cut.length - 1]);
+        }
+
+        return cutProblem;
+    }
+
+    private static boolean isIntegral(double[] values) {
+        for (double value : values) {
+            if (value != Math.rint(value)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        if (this.kind == Kind.CUTTING_PLANES) {
+            return "cutting planes";
+        }
+
+        if (this.kind == Kind.CUT_AND_BRANCH) {
+            return String.format("cut and branch (%s, %s)", this.nodeSelectionStrategy, this.branchingStrategy);
+        }
+
+        return String.format("branch and bound (%s, %s, %d threads)", this.nodeSelectionStrategy,
+                this.branchingStrategy, this.threads);
+    }
+}
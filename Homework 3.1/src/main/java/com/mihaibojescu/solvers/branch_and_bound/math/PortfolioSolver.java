@@ -0,0 +1,194 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+import com.mihaibojescu.solvers.branch_and_bound.util.SearchResult;
+import com.mihaibojescu.solvers.branch_and_bound.util.SearchStatus;
+
+// Races several strategies on the same problem and returns the first
+// proof. The members prune with each other's incumbents and pool their
+// dual bounds, so the portfolio can also prove optimality when one member's
+// incumbent meets another member's bound. Either way the other members are
+// stopped at their next node. All members' threads together must fit the
+// core budget, so the race never oversubscribes the machine.
+public class PortfolioSolver implements Solver {
+    private Solver solver;
+    private double tolerance;
+    private List<PortfolioMember> members;
+    private SearchLimits searchLimits;
+
+    public PortfolioSolver(Solver solver, double tolerance) throws IllegalArgumentException {
+        this(solver, tolerance, Runtime.getRuntime().availableProcessors());
+    }
+
+    public PortfolioSolver(Solver solver, double tolerance, int cores) throws IllegalArgumentException {
+        this(solver, tolerance, cores, defaultMembers(cores), SearchLimits.NONE);
+    }
+
+    // The limits apply to every member
+    public PortfolioSolver(Solver solver, double tolerance, int cores, List<PortfolioMember> members,
+            SearchLimits searchLimits) throws IllegalArgumentException {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException(String.format("Tolerance must be >= 0, but is %f", tolerance));
+        }
+
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("A portfolio needs at least one member");
+        }
+
+        int threads = members.stream().mapToInt(PortfolioMember::getThreads).sum();
+
+        if (threads > cores) {
+            throw new IllegalArgumentException(String.format(
+                    "Members need %d threads, but only %d cores are budgeted", threads, cores));
+        }
+
+        this.solver = solver;
+        this.tolerance = tolerance;
+        this.members = List.copyOf(members);
+        this.searchLimits = searchLimits;
+    }
+
+    // Strategies that tend to fail on different instances: diving with
+    // heuristics finds incumbents early, best bound with reliability branching
+    // closes the bound, and root cuts tighten the relaxation before a best
+    // bound search branches. Cores past the fourth go to a parallel best bound
+    // search.
+    public static List<PortfolioMember> defaultMembers(int cores) throws IllegalArgumentException {
+        if (cores < 1) {
+            throw new IllegalArgumentException(String.format("Cores must be >= 1, but is %d", cores));
+        }
+
+        List<PortfolioMember> members = new ArrayList<>();
+        members.add(PortfolioMember.branchAndBound(Math.max(1, cores - 3), NodeSelectionStrategy.BEST_BOUND,
+                BranchingStrategy.RELIABILITY, PrimalHeuristics.NONE));
+        members.add(PortfolioMember.branchAndBound(NodeSelectionStrategy.DEPTH_FIRST, BranchingStrategy.PSEUDO_COST,
+                PrimalHeuristics.all()));
+        members.add(PortfolioMember.branchAndBound(NodeSelectionStrategy.HYBRID, BranchingStrategy.MOST_FRACTIONAL,
+                new PrimalHeuristics(PrimalHeuristics.DEFAULT_FREQUENCY, PrimalHeuristicType.SIMPLE_ROUNDING)));
+        members.add(PortfolioMember.cutAndBranch(NodeSelectionStrategy.BEST_BOUND, BranchingStrategy.PSEUDO_COST,
+                PrimalHeuristics.NONE));
+
+        return members.subList(0, Math.min(cores, members.size()));
+    }
+
+    @Override
+    public SearchResult run(Problem problem) throws Exception {
+        long start = System.nanoTime();
+        SharedSearch shared = new SharedSearch(this.members.size());
+        ExecutorService executor = Executors.newFixedThreadPool(this.members.size());
+        CompletionService<SearchResult> completion = new ExecutorCompletionService<>(executor);
+        List<Future<SearchResult>> futures = new ArrayList<>();
+        boolean interrupted = false;
+
+        try {
+            for (int i = 0; i < this.members.size(); i++) {
+                PortfolioMember member = this.members.get(i);
+                int index = i;
+
+                futures.add(completion.submit(() -> member.run(problem, this.solver, this.tolerance,
+                        this.searchLimits, shared, index)));
+            }
+
+            // Members that find no proof stop at their limits, or once another one finds it
+            for (int finished = 0; finished < futures.size() && !shared.isFinished(); finished++) {
+                SearchResult result = this.getResult(completion.take());
+
+                if (result != null && this.isProof(result)) {
+                    shared.proven();
+                }
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+            shared.finish();
+        } finally {
+            ExecutionMode.shutdown(executor);
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        return this.createResult(shared, futures, interrupted, System.nanoTime() - start);
+    }
+
+    private SearchResult createResult(SharedSearch shared, List<Future<SearchResult>> futures, boolean interrupted,
+            long elapsedNanos) throws Exception {
+        List<SearchResult> results = new ArrayList<>();
+        Exception failure = null;
+        long nodes = 0;
+
+        for (Future<SearchResult> future : futures) {
+            // Members the shutdown caught before they started never finish
+            if (!future.isDone() || future.isCancelled()) {
+                continue;
+            }
+
+            try {
+                SearchResult result = future.get();
+
+                if (result != null) {
+                    results.add(result);
+                    nodes += result.getNodes();
+                }
+            } catch (ExecutionException e) {
+                failure = failure == null && e.getCause() instanceof Exception ? (Exception) e.getCause() : failure;
+            }
+        }
+
+        for (SearchResult result : results) {
+            if (this.isProof(result)) {
+                return new SearchResult(result.getSolution(), result.getObjectiveValue(), result.getStatus(),
+                        result.getObjectiveValue(), nodes, elapsedNanos);
+            }
+        }
+
+        Result incumbent = shared.getIncumbent();
+
+        if (shared.isProven()) {
+            return new SearchResult(incumbent.getSolution(), incumbent.getObjectiveValue(), SearchStatus.OPTIMAL,
+                    incumbent.getObjectiveValue(), nodes, elapsedNanos);
+        }
+
+        if (results.isEmpty() && failure != null) {
+            throw failure;
+        }
+
+        SearchStatus status = SearchStatus.CANCELLED;
+        double dualBound = shared.getDualBound();
+
+        for (SearchResult result : results) {
+            dualBound = Math.min(dualBound, result.getDualBound());
+
+            if (!interrupted && status == SearchStatus.CANCELLED && result.getStatus().isLimit()) {
+                status = result.getStatus();
+            }
+        }
+
+        return new SearchResult(incumbent.getSolution(), incumbent.getObjectiveValue(), status,
+                Math.max(dualBound, incumbent.getObjectiveValue()), nodes, elapsedNanos);
+    }
+
+    private SearchResult getResult(Future<SearchResult> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // The others may still succeed; the failure is rethrown if none does
+            return null;
+        }
+    }
+
+    private boolean isProof(SearchResult result) {
+        return result.getStatus() == SearchStatus.OPTIMAL || result.getStatus() == SearchStatus.INFEASIBLE
+                || result.getStatus() == SearchStatus.UNBOUNDED;
+    }
+}
@@ -0,0 +1,542 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class Presolve {
+    private static final double TOLERANCE = 1.0E-9;
+    private static final int MAX_PASSES = 32;
+
+    private final Problem problem;
+    private final boolean integer;
+
+    private final int numberOfRows;
+    private final int numberOfColumns;
+
+    // Working copy of the constraints. Rows keep all of their original
+    // entries; entries of removed columns are skipped, their contribution
+    // having been moved to the right-hand side.
+    private final int[][] rowColumns;
+    private final double[][] rowValues;
+    private final double[] rhs;
+    private final double[] lower;
+    private final double[] upper;
+
+    private final boolean[] rowActive;
+    private final boolean[] columnActive;
+    private final boolean[] substituted;
+    private final double[] fixedValues;
+
+    private boolean infeasible;
+    private boolean unboundedRay;
+
+    private Problem reducedProblem;
+    private int[] reducedColumns;
+
+    public Presolve(Problem problem, boolean integer) {
+        SparseMatrix constraints = problem.getSparseConstraints();
+        int[] rowStarts = constraints.getRowStarts();
+
+        this.problem = problem;
+        this.integer = integer;
+        this.numberOfRows = problem.getNumberOfConstraints();
+        this.numberOfColumns = problem.getNumberOfVariables();
+        this.rowColumns = new int[this.numberOfRows][];
+        this.rowValues = new double[this.numberOfRows][];
+        this.rhs = problem.getBounds().toRawVector().clone();
+        this.lower = problem.getVariableLowerBounds().clone();
+        this.upper = problem.getVariableUpperBounds().clone();
+        this.rowActive = new boolean[this.numberOfRows];
+        this.columnActive = new boolean[this.numberOfColumns];
+        this.substituted = new boolean[this.numberOfColumns];
+        this.fixedValues = new double[this.numberOfColumns];
+
+        for (int i = 0; i < this.numberOfRows; i++) {
+            this.rowColumns[i] = Arrays.copyOfRange(constraints.getRowColumnIndices(), rowStarts[i], rowStarts[i + 1]);
+            this.rowValues[i] = Arrays.copyOfRange(constraints.getRowValues(), rowStarts[i], rowStarts[i + 1]);
+        }
+
+        Arrays.fill(this.rowActive, true);
+        Arrays.fill(this.columnActive, true);
+
+        if (integer) {
+            for (int j = 0; j < this.numberOfColumns; j++) {
+                this.tightenBounds(j, this.lower[j], this.upper[j]);
+            }
+        }
+
+        this.reduce();
+
+        if (!this.infeasible) {
+            this.buildReducedProblem();
+        }
+    }
+
+    public boolean isInfeasible() {
+        return this.infeasible;
+    }
+
+    // An unconstrained column can grow forever, so the problem is unbounded
+    // unless the reduced problem turns out to be infeasible
+    public boolean hasUnboundedRay() {
+        return this.unboundedRay;
+    }
+
+    // The reduced problem, or null if presolve fixed every variable
+    public Problem getReducedProblem() {
+        return this.reducedProblem;
+    }
+
+    public int getNumberOfRemovedRows() {
+        return this.numberOfRows - (this.reducedProblem == null ? 0 : this.reducedProblem.getNumberOfConstraints());
+    }
+
+    public int getNumberOfRemovedColumns() {
+        return this.numberOfColumns - (this.reducedColumns == null ? 0 : this.reducedColumns.length);
+    }
+
+    // Maps a solution of the reduced problem back to the original variables
+    public double[] postsolve(double[] reducedSolution) {
+        if (reducedSolution == null) {
+            return null;
+        }
+
+        double[] solution = this.fixedValues.clone();
+
+        for (int k = 0; k < this.reducedColumns.length; k++) {
+            solution[this.reducedColumns[k]] = reducedSolution[k];
+        }
+
+        return solution;
+    }
+
+    private void reduce() {
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            boolean changed = this.removeEmptyAndSingletonRows();
+            changed |= this.removeFixedAndEmptyColumns();
+            this.substituteRemovedColumns();
+            changed |= this.removeRedundantRows();
+            changed |= this.removeDuplicateRows();
+
+            if (this.integer) {
+                changed |= this.tightenCoefficients();
+            }
+
+            if (this.infeasible || !changed) {
+                return;
+            }
+        }
+    }
+
+    // Empty rows are either trivially satisfied or prove infeasibility;
+    // a * x_j <= b becomes a bound on x_j
+    private boolean removeEmptyAndSingletonRows() {
+        boolean changed = false;
+
+        for (int i = 0; i < this.numberOfRows && !this.infeasible; i++) {
+            if (!this.rowActive[i]) {
+                continue;
+            }
+
+            int column = -1;
+            double value = 0;
+            int count = 0;
+
+            for (int k = 0; k < this.rowColumns[i].length; k++) {
+                if (this.columnActive[this.rowColumns[i][k]] && this.rowValues[i][k] != 0.0) {
+                    column = this.rowColumns[i][k];
+                    value = this.rowValues[i][k];
+                    count++;
+                }
+            }
+
+            if (count == 0) {
+                this.infeasible = this.rhs[i] < -TOLERANCE;
+                this.rowActive[i] = false;
+                changed = true;
+            } else if (count == 1) {
+                if (value > 0) {
+                    this.tightenBounds(column, this.lower[column], this.rhs[i] / value);
+                } else {
+                    this.tightenBounds(column, this.rhs[i] / value, this.upper[column]);
+                }
+
+                this.rowActive[i] = false;
+                changed = true;
+            }
+        }
+
+        return changed;
+    }
+
+    private boolean removeFixedAndEmptyColumns() {
+        int[] counts = new int[this.numberOfColumns];
+        double[] objective = this.problem.getObjectiveFunctionMultipliers().toRawVector();
+        boolean changed = false;
+
+        for (int i = 0; i < this.numberOfRows; i++) {
+            if (!this.rowActive[i]) {
+                continue;
+            }
+
+            for (int k = 0; k < this.rowColumns[i].length; k++) {
+                if (this.rowValues[i][k] != 0.0) {
+                    counts[this.rowColumns[i][k]]++;
+                }
+            }
+        }
+
+        for (int j = 0; j < this.numberOfColumns; j++) {
+            if (!this.columnActive[j]) {
+                continue;
+            }
+
+            if (this.upper[j] - this.lower[j] <= TOLERANCE) {
+                this.fixedValues[j] = this.lower[j];
+            } else if (counts[j] == 0) {
+                // Nothing constrains the column, so it sits at whichever bound the objective prefers
+                if (objective[j] > 0 && this.upper[j] == Double.POSITIVE_INFINITY) {
+                    this.unboundedRay = true;
+                    this.fixedValues[j] = this.lower[j];
+                } else {
+                    this.fixedValues[j] = objective[j] > 0 ? this.upper[j] : this.lower[j];
+                }
+            } else {
+                continue;
+            }
+
+            this.columnActive[j] = false;
+            changed = true;
+        }
+
+        return changed;
+    }
+
+    private void substituteRemovedColumns() {
+        for (int i = 0; i < this.numberOfRows; i++) {
+            if (!this.rowActive[i]) {
+                continue;
+            }
+
+            for (int k = 0; k < this.rowColumns[i].length; k++) {
+                int column = this.rowColumns[i][k];
+
+                if (!this.columnActive[column] && !this.substituted[column]) {
+                    this.rhs[i] -= this.rowValues[i][k] * this.fixedValues[column];
+                }
+            }
+        }
+
+        for (int j = 0; j < this.numberOfColumns; j++) {
+            this.substituted[j] = !this.columnActive[j];
+        }
+    }
+
+    // A row that holds at every point of the variable bounds can be dropped;
+    // one that holds at none of them proves infeasibility
+    private boolean removeRedundantRows() {
+        boolean changed = false;
+
+        for (int i = 0; i < this.numberOfRows && !this.infeasible; i++) {
+            if (!this.rowActive[i]) {
+                continue;
+            }
+
+            if (this.getMinimumActivity(i) > this.rhs[i] + TOLERANCE * (1 + Math.abs(this.rhs[i]))) {
+                this.infeasible = true;
+            } else if (this.getMaximumActivity(i) <= this.rhs[i] + TOLERANCE) {
+                this.rowActive[i] = false;
+                changed = true;
+            }
+        }
+
+        return changed;
+    }
+
+    // Rows that are positive multiples of each other: only the tightest one is kept
+    private boolean removeDuplicateRows() {
+        // Rows are bucketed by the hash of their scaled entries, and rows that
+        // share a bucket are compared entry by entry
+        Map<Integer, List<Integer>> buckets = new HashMap<>();
+        int[][] columns = new int[this.numberOfRows][];
+        double[][] values = new double[this.numberOfRows][];
+        boolean changed = false;
+
+        for (int i = 0; i < this.numberOfRows; i++) {
+            if (!this.rowActive[i]) {
+                continue;
+            }
+
+            double scale = this.getRowScale(i);
+            int count = 0;
+
+            columns[i] = new int[this.rowColumns[i].length];
+            values[i] = new double[this.rowColumns[i].length];
+
+            for (int k = 0; k < this.rowColumns[i].length; k++) {
+                if (this.columnActive[this.rowColumns[i][k]] && this.rowValues[i][k] != 0.0) {
+                    columns[i][count] = this.rowColumns[i][k];
+                    values[i][count] = this.rowValues[i][k] / scale;
+                    count++;
+                }
+            }
+
+            columns[i] = Arrays.copyOf(columns[i], count);
+            values[i] = Arrays.copyOf(values[i], count);
+
+            List<Integer> bucket = buckets.computeIfAbsent(
+                    31 * Arrays.hashCode(columns[i]) + Arrays.hashCode(values[i]), hash -> new ArrayList<>());
+            int other = -1;
+
+            for (int candidate : bucket) {
+                if (Arrays.equals(columns[candidate], columns[i]) && Arrays.equals(values[candidate], values[i])) {
+                    other = candidate;
+                    break;
+                }
+            }
+
+            if (other == -1) {
+                bucket.add(i);
+                continue;
+            }
+
+            if (this.rhs[i] / scale < this.rhs[other] / this.getRowScale(other)) {
+                this.rowActive[other] = false;
+                bucket.set(bucket.indexOf(other), i);
+            } else {
+                this.rowActive[i] = false;
+            }
+
+            changed = true;
+        }
+
+        return changed;
+    }
+
+    // Valid only when every variable is integer: divides integer rows by the
+    // gcd of their coefficients and rounds the right-hand side down, then
+    // shrinks the coefficients of binary variables that can never make the
+    // row binding (Savelsbergh's coefficient reduction)
+    private boolean tightenCoefficients() {
+        boolean changed = false;
+
+        for (int i = 0; i < this.numberOfRows; i++) {
+            if (!this.rowActive[i]) {
+                continue;
+            }
+
+            changed |= this.divideByGcd(i);
+
+            double maximumActivity = this.getMaximumActivity(i);
+
+            if (maximumActivity == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+
+            for (int k = 0; k < this.rowColumns[i].length; k++) {
+                int column = this.rowColumns[i][k];
+                double value = this.rowValues[i][k];
+
+                if (!this.columnActive[column] || this.lower[column] != 0.0 || this.upper[column] != 1.0
+                        || maximumActivity <= this.rhs[i] + TOLERANCE) {
+                    continue;
+                }
+
+                if (value > 0 && maximumActivity - value < this.rhs[i] - TOLERANCE) {
+                    double reduction = this.rhs[i] - (maximumActivity - value);
+                    this.rowValues[i][k] -= reduction;
+                    this.rhs[i] -= reduction;
+                    maximumActivity -= reduction;
+                    changed = true;
+                } else if (value < 0 && maximumActivity + value < this.rhs[i] - TOLERANCE) {
+                    this.rowValues[i][k] = this.rhs[i] - maximumActivity;
+                    changed = true;
+                }
+            }
+        }
+
+        return changed;
+    }
+
+    private boolean divideByGcd(int row) {
+        long gcd = 0;
+
+        for (int k = 0; k < this.rowColumns[row].length; k++) {
+            double value = this.rowValues[row][k];
+
+            if (!this.columnActive[this.rowColumns[row][k]] || value == 0.0) {
+                continue;
+            }
+
+            if (Math.abs(value - Math.rint(value)) > TOLERANCE || Math.abs(value) > 1.0E12) {
+                return false;
+            }
+
+            gcd = this.gcd(gcd, Math.abs((long) Math.rint(value)));
+        }
+
+        if (gcd == 0) {
+            return false;
+        }
+
+        double rhs = Math.floor(this.rhs[row] / gcd + TOLERANCE);
+
+        if (gcd == 1 && rhs == this.rhs[row]) {
+            return false;
+        }
+
+        for (int k = 0; k < this.rowColumns[row].length; k++) {
+            this.rowValues[row][k] = Math.rint(this.rowValues[row][k]) / gcd;
+        }
+
+        this.rhs[row] = rhs;
+        return true;
+    }
+
+    private long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+
+        return a;
+    }
+
+    private void tightenBounds(int column, double lower, double upper) {
+        if (this.integer) {
+            lower = Math.ceil(lower - TOLERANCE);
+            upper = Math.floor(upper + TOLERANCE);
+        }
+
+        this.lower[column] = Math.max(this.lower[column], lower);
+        this.upper[column] = Math.min(this.upper[column], upper);
+
+        if (this.lower[column] > this.upper[column] + TOLERANCE) {
+            this.infeasible = true;
+        } else if (this.lower[column] > this.upper[column]) {
+            this.upper[column] = this.lower[column];
+        }
+    }
+
+    private double getMinimumActivity(int row) {
+        double activity = 0;
+
+        for (int k = 0; k < this.rowColumns[row].length; k++) {
+            int column = this.rowColumns[row][k];
+            double value = this.rowValues[row][k];
+
+            if (this.columnActive[column] && value != 0.0) {
+                activity += value * (value > 0 ? this.lower[column] : this.upper[column]);
+            }
+        }
+
+        return activity;
+    }
+
+    private double getMaximumActivity(int row) {
+        double activity = 0;
+
+        for (int k = 0; k < this.rowColumns[row].length; k++) {
+            int column = this.rowColumns[row][k];
+            double value = this.rowValues[row][k];
+
+            if (this.columnActive[column] && value != 0.0) {
+                activity += value * (value > 0 ? this.upper[column] : this.lower[column]);
+            }
+        }
+
+        return activity;
+    }
+
+    private double getRowScale(int row) {
+        double scale = 0;
+
+        for (int k = 0; k < this.rowColumns[row].length; k++) {
+            if (this.columnActive[this.rowColumns[row][k]]) {
+                scale = Math.max(scale, Math.abs(this.rowValues[row][k]));
+            }
+        }
+
+        return scale;
+    }
+
+    private void buildReducedProblem() {
+        int[] newIndex = new int[this.numberOfColumns];
+        int columns = 0;
+
+        for (int j = 0; j < this.numberOfColumns; j++) {
+            newIndex[j] = this.columnActive[j] ? columns++ : -1;
+        }
+
+        this.reducedColumns = new int[columns];
+
+        for (int j = 0; j < this.numberOfColumns; j++) {
+            if (this.columnActive[j]) {
+                this.reducedColumns[newIndex[j]] = j;
+            }
+        }
+
+        if (columns == 0) {
+            return;
+        }
+
+        int rows = 0;
+        int nonZeros = 0;
+
+        for (int i = 0; i < this.numberOfRows; i++) {
+            if (this.rowActive[i]) {
+                rows++;
+
+                for (int k = 0; k < this.rowColumns[i].length; k++) {
+                    if (this.columnActive[this.rowColumns[i][k]] && this.rowValues[i][k] != 0.0) {
+                        nonZeros++;
+                    }
+                }
+            }
+        }
+
+        int[] rowStarts = new int[rows + 1];
+        int[] columnIndices = new int[nonZeros];
+        double[] values = new double[nonZeros];
+        Matrix bounds = new Matrix(1, rows);
+        int row = 0;
+        int position = 0;
+
+        for (int i = 0; i < this.numberOfRows; i++) {
+            if (!this.rowActive[i]) {
+                continue;
+            }
+
+            rowStarts[row] = position;
+            bounds.set(0, row++, this.rhs[i]);
+
+            for (int k = 0; k < this.rowColumns[i].length; k++) {
+                if (this.columnActive[this.rowColumns[i][k]] && this.rowValues[i][k] != 0.0) {
+                    columnIndices[position] = newIndex[this.rowColumns[i][k]];
+                    values[position++] = this.rowValues[i][k];
+                }
+            }
+        }
+
+        rowStarts[rows] = position;
+
+        double[] objective = this.problem.getObjectiveFunctionMultipliers().toRawVector();
+        Matrix reducedObjective = new Matrix(1, columns);
+
+        for (int k = 0; k < columns; k++) {
+            reducedObjective.set(0, k, objective[this.reducedColumns[k]]);
+        }
+
+        this.reducedProblem = new Problem(reducedObjective,
+                new SparseMatrix(rows, columns, rowStarts, columnIndices, values), bounds);
+
+        for (int k = 0; k < columns; k++) {
+            this.reducedProblem.setVariableBounds(k, this.lower[this.reducedColumns[k]],
+                    this.upper[this.reducedColumns[k]]);
+        }
+    }
+}
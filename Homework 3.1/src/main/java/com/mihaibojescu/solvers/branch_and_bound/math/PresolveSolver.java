@@ -0,0 +1,57 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+// Reduces the problem before handing it to the wrapped solver and maps the
+// result back. With `integer` set every variable is assumed integer, which
+// also allows rounding bounds and tightening coefficients; wrap the whole
+// branch and bound search in that case, not the LP solver it calls.
+public class PresolveSolver implements Solver {
+    private Solver solver;
+    private boolean integer;
+
+    public PresolveSolver(Solver solver) {
+        this.solver = solver;
+        this.integer = false;
+    }
+
+    public PresolveSolver(Solver solver, boolean integer) {
+        this.solver = solver;
+        this.integer = integer;
+    }
+
+    @Override
+    public Result run(Problem problem) throws Exception {
+        Presolve presolve = new Presolve(problem, this.integer);
+
+        if (presolve.isInfeasible()) {
+            return new Result(null, -Solver.INF);
+        }
+
+        Problem reducedProblem = presolve.getReducedProblem();
+        Result result = reducedProblem == null
+                ? new Result(new double[0], 0)
+                : this.solver.run(reducedProblem);
+
+        double[] solution = presolve.postsolve(result.getSolution());
+
+        if (presolve.hasUnboundedRay() && result.getObjectiveValue() != -Solver.INF) {
+            return new Result(solution, Solver.INF);
+        }
+
+        if (solution == null || Math.abs(result.getObjectiveValue()) == Solver.INF) {
+            return new Result(solution, result.getObjectiveValue());
+        }
+
+        // Removed columns contribute to the objective too, so it is recomputed in the original space
+        double[] objective = problem.getObjectiveFunctionMultipliers().toRawVector();
+        double objectiveValue = 0;
+
+        for (int i = 0; i < solution.length; i++) {
+            objectiveValue += objective[i] * solution[i];
+        }
+
+        return new Result(solution, objectiveValue);
+    }
+}
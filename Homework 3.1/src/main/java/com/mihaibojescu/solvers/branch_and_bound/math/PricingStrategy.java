@@ -0,0 +1,27 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.PricingRule;
+
+public enum PricingStrategy {
+    FIRST_IMPROVING,
+    DANTZIG,
+    PARTIAL,
+    DEVEX,
+    STEEPEST_EDGE;
+
+    // Pricing rules keep per-solve state, so every solve gets a fresh one
+    public PricingRule create() {
+        switch (this) {
+            case DANTZIG:
+                return new DantzigPricingRule();
+            case PARTIAL:
+                return new PartialPricingRule();
+            case DEVEX:
+                return new DevexPricingRule();
+            case STEEPEST_EDGE:
+                return new SteepestEdgePricingRule();
+            default:
+                return new FirstImprovingPricingRule();
+        }
+    }
+}
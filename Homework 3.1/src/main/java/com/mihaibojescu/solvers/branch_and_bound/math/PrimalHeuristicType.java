@@ -0,0 +1,25 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.PrimalHeuristic;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+
+public enum PrimalHeuristicType {
+    SIMPLE_ROUNDING,
+    FRACTIONAL_DIVING,
+    COEFFICIENT_DIVING,
+    FEASIBILITY_PUMP;
+
+    // Heuristics that solve LPs of their own do so with `solver`
+    public PrimalHeuristic create(Solver solver) {
+        switch (this) {
+            case FRACTIONAL_DIVING:
+                return new FractionalDivingHeuristic(solver);
+            case COEFFICIENT_DIVING:
+                return new CoefficientDivingHeuristic(solver);
+            case FEASIBILITY_PUMP:
+                return new FeasibilityPumpHeuristic(solver);
+            default:
+                return new SimpleRoundingHeuristic();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.PrimalHeuristic;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+// Which primal heuristics branch and bound runs, and how often: at the root
+// and then on every `frequency`-th solved node whose LP is fractional
+public class PrimalHeuristics {
+    public static final int DEFAULT_FREQUENCY = 10;
+    public static final PrimalHeuristics NONE = new PrimalHeuristics(DEFAULT_FREQUENCY);
+
+    private final int frequency;
+    private final PrimalHeuristicType[] types;
+
+    public PrimalHeuristics(int frequency, PrimalHeuristicType... types) throws IllegalArgumentException {
+        if (frequency < 1) {
+            throw new IllegalArgumentException(String.format("Frequency must be >= 1, but is %d", frequency));
+        }
+
+        this.frequency = frequency;
+        this.types = types.clone();
+    }
+
+    // Cheap ones first, so the expensive ones rarely run without an incumbent
+    public static PrimalHeuristics all() {
+        return new PrimalHeuristics(DEFAULT_FREQUENCY, PrimalHeuristicType.values());
+    }
+
+    public int getFrequency() {
+        return this.frequency;
+    }
+
+    // `node` counts the nodes solved so far, the root being 0
+    public boolean isDue(long node) {
+        return this.types.length > 0 && node % this.frequency == 0;
+    }
+
+    // Runs the heuristics in order and returns the best solution better than
+    // `incumbent`, or null if none is found. Each heuristic is cut off by the
+    // best solution of the ones before it
+    public Result run(Solver solver, Problem problem, Result relaxation, double incumbent, double tolerance)
+            throws Exception {
+        Result best = null;
+
+        for (PrimalHeuristicType type : this.types) {
+            PrimalHeuristic heuristic = type.create(solver);
+            Result result = heuristic.run(problem, relaxation, incumbent, tolerance);
+
+            if (result != null && result.getObjectiveValue() > incumbent) {
+                best = result;
+                incumbent = result.getObjectiveValue();
+            }
+        }
+
+        return best;
+    }
+}
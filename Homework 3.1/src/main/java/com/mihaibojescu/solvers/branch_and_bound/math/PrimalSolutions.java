@@ -0,0 +1,99 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.WarmStartSolver;
+import com.mihaibojescu.solvers.branch_and_bound.util.LinearProgramResult;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+// Helpers shared by the primal heuristics
+final class PrimalSolutions {
+    private PrimalSolutions() {
+    }
+
+    static boolean isIntegral(double[] solution, double tolerance) {
+        for (double x : solution) {
+            if (Math.abs(x - Math.rint(x)) > tolerance) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // Checks the rows and the variable bounds of `problem`
+    static boolean isFeasible(Problem problem, double[] solution, double tolerance) {
+        double[] lower = problem.getVariableLowerBounds();
+        double[] upper = problem.getVariableUpperBounds();
+
+        for (int j = 0; j < solution.length; j++) {
+            if (solution[j] < lower[j] - tolerance || solution[j] > upper[j] + tolerance) {
+                return false;
+            }
+        }
+
+        SparseMatrix constraints = problem.getSparseConstraints();
+        double[] bounds = problem.getBounds().toRawVector();
+        int[] rowStarts = constraints.getRowStarts();
+        int[] columnIndices = constraints.getRowColumnIndices();
+        double[] values = constraints.getRowValues();
+
+        for (int i = 0; i < bounds.length; i++) {
+            double activity = 0;
+
+            for (int k = rowStarts[i]; k < rowStarts[i + 1]; k++) {
+                activity += values[k] * solution[columnIndices[k]];
+            }
+
+            if (activity > bounds[i] + tolerance) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // Snaps an integral solution to exact integers and prices it with the
+    // objective of `problem`, or returns null if it is not feasible
+    static Result toResult(Problem problem, double[] solution, double tolerance) {
+        double[] objective = problem.getObjectiveFunctionMultipliers().toRawVector();
+        double[] rounded = new double[objective.length];
+        double objectiveValue = 0;
+
+        for (int j = 0; j < rounded.length; j++) {
+            rounded[j] = Math.rint(solution[j]);
+            objectiveValue += objective[j] * rounded[j];
+        }
+
+        if (!isFeasible(problem, rounded, tolerance)) {
+            return null;
+        }
+
+        return new Result(rounded, objectiveValue);
+    }
+
+    // Number of rows that block moving each variable down ([0]) or up ([1]):
+    // in a <= row, a negative coefficient blocks decreasing the variable and
+    // a positive one blocks increasing it
+    static int[][] getLocks(Problem problem) {
+        SparseMatrix constraints = problem.getSparseConstraints();
+        int[][] locks = new int[2][problem.getNumberOfVariables()];
+        int[] columnIndices = constraints.getRowColumnIndices();
+        double[] values = constraints.getRowValues();
+
+        for (int k = 0; k < values.length; k++) {
+            locks[values[k] < 0 ? 0 : 1][columnIndices[k]]++;
+        }
+
+        return locks;
+    }
+
+    // Re-optimizes from the basis of `previous` when the solver supports it
+    static Result solve(Solver solver, Problem problem, Result previous) throws Exception {
+        if (solver instanceof WarmStartSolver && previous instanceof LinearProgramResult
+                && ((LinearProgramResult) previous).getBasis() != null) {
+            return ((WarmStartSolver) solver).run(problem, ((LinearProgramResult) previous).getBasis());
+        }
+
+        return solver.run(problem);
+    }
+}
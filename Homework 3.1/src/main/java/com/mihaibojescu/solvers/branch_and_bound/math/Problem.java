@@ -1,21 +1,39 @@
 package com.mihaibojescu.solvers.branch_and_bound.math;
 
+import java.text.MessageFormat;
+import java.util.Arrays;
+
 public class Problem {
     private Matrix objectiveFunctionMultipliers;
-    private Matrix constraintsMultipliers;
+    private SparseMatrix constraintsMultipliers;
     private Matrix bounds;
+    private double[] variableLowerBounds;
+    private double[] variableUpperBounds;
 
     public Problem(Matrix objectiveFunctionMultipliers, Matrix constraintsMultipliers, Matrix bounds) {
+        this(objectiveFunctionMultipliers, new SparseMatrix(constraintsMultipliers), bounds);
+    }
+
+    public Problem(Matrix objectiveFunctionMultipliers, SparseMatrix constraintsMultipliers, Matrix bounds) {
         this.objectiveFunctionMultipliers = objectiveFunctionMultipliers;
         this.constraintsMultipliers = constraintsMultipliers;
         this.bounds = bounds;
+        this.variableLowerBounds = new double[objectiveFunctionMultipliers.getNumberOfColumns()];
+        this.variableUpperBounds = new double[objectiveFunctionMultipliers.getNumberOfColumns()];
+
+        Arrays.fill(this.variableUpperBounds, Double.POSITIVE_INFINITY);
     }
 
     public Problem clone() {
-        return new Problem(
+        // The sparse constraints are never modified in place, so they can be shared
+        Problem problem = new Problem(
                 this.objectiveFunctionMultipliers.clone(),
-                this.constraintsMultipliers.clone(),
+                this.constraintsMultipliers,
                 this.bounds.clone());
+
+        problem.variableLowerBounds = this.variableLowerBounds.clone();
+        problem.variableUpperBounds = this.variableUpperBounds.clone();
+        return problem;
     }
 
     public int getNumberOfConstraints() {
@@ -31,6 +49,10 @@ public class Problem {
     }
 
     public Matrix getConstraints() {
+        return this.constraintsMultipliers.toMatrix();
+    }
+
+    public SparseMatrix getSparseConstraints() {
         return this.constraintsMultipliers;
     }
 
@@ -38,6 +60,82 @@ public class Problem {
         return this.bounds;
     }
 
+    public double[] getVariableLowerBounds() {
+        return this.variableLowerBounds;
+    }
+
+    public double[] getVariableUpperBounds() {
+        return this.variableUpperBounds;
+    }
+
+    // A copy with other variable bounds that shares the objective, the
+    // constraints and the right-hand sides with this problem
+    public Problem withVariableBounds(double[] lower, double[] upper) throws IllegalArgumentException {
+        if (lower.length != this.variableLowerBounds.length || upper.length != this.variableUpperBounds.length) {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "Expected bounds for {0} variables, got {1} lower and {2} upper bounds",
+                    this.variableLowerBounds.length, lower.length, upper.length));
+        }
+
+        Problem problem = new Problem(this.objectiveFunctionMultipliers, this.constraintsMultipliers, this.bounds);
+        problem.variableLowerBounds = lower;
+        problem.variableUpperBounds = upper;
+        return problem;
+    }
+
+    public boolean hasVariableBounds() {
+        for (int i = 0; i < this.variableLowerBounds.length; i++) {
+            if (this.variableLowerBounds[i] != 0.0 || this.variableUpperBounds[i] != Double.POSITIVE_INFINITY) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public Problem setVariableBounds(int variable, double lower, double upper) throws IllegalArgumentException {
+        if (variable < 0 || variable >= this.variableLowerBounds.length) {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "Index out of range: Variable {0} must be between 0 and {1}", variable,
+                    this.variableLowerBounds.length - 1));
+        }
+
+        if (lower < 0) {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "Variables are non-negative: lower bound {0} of variable {1} must be >= 0", lower, variable));
+        }
+
+        this.variableLowerBounds[variable] = lower;
+        this.variableUpperBounds[variable] = upper;
+        return this;
+    }
+
+    // Rewrites the variable bounds as explicit rows, for solvers that only
+    // understand the max c * x, A * x <= b, x >= 0 form
+    public Problem withVariableBoundsAsConstraints() throws Exception {
+        if (!this.hasVariableBounds()) {
+            return this;
+        }
+
+        Problem problem = new Problem(this.objectiveFunctionMultipliers, this.constraintsMultipliers, this.bounds);
+
+        for (int i = 0; i < this.variableLowerBounds.length; i++) {
+            if (this.variableUpperBounds[i] != Double.POSITIVE_INFINITY) {
+                double[] row = new double[this.variableLowerBounds.length];
+                row[i] = 1.0;
+                problem.addConstraint(row, this.variableUpperBounds[i]);
+            }
+
+            if (this.variableLowerBounds[i] != 0.0) {
+                double[] row = new double[this.variableLowerBounds.length];
+                row[i] = -1.0;
+                problem.addConstraint(row, -this.variableLowerBounds[i]);
+            }
+        }
+
+        return problem;
+    }
+
     public Problem addConstraint(double[] constraintMultipliers, double bound) throws Exception {
         int indexOfExistingConstraint = this.constraintsMultipliers.findIndexOfRow(constraintMultipliers);
 
@@ -93,6 +191,21 @@ public class Problem {
             builder.append("\t");
         }
 
+        for (int i = 0; i < this.variableLowerBounds.length; i++) {
+            if (this.variableLowerBounds[i] == 0.0 && this.variableUpperBounds[i] == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+
+            builder.append(this.variableLowerBounds[i]);
+            builder.append(" <= x");
+            builder.append(i + 1);
+            builder.append(" <= ");
+            builder.append(this.variableUpperBounds[i]);
+
+            builder.append("\n");
+            builder.append("\t");
+        }
+
         return builder.toString();
     }
 }
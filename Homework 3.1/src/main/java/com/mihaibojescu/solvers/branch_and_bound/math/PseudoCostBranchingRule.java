@@ -0,0 +1,49 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.BranchingRule;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+// Predicts each child's degradation from the history of earlier branchings
+// on the same variable; costs nothing beyond the bookkeeping
+public class PseudoCostBranchingRule implements BranchingRule {
+    private volatile PseudoCosts pseudoCosts;
+
+    @Override
+    public int selectVariable(Problem problem, Result result, double tolerance) {
+        PseudoCosts pseudoCosts = this.getPseudoCosts(problem.getNumberOfVariables());
+        double[] solution = result.getSolution();
+        int best = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+
+        for (int j : BranchingScores.getCandidates(solution, tolerance)) {
+            double fraction = solution[j] - Math.floor(solution[j]);
+            double score = BranchingScores.score(fraction * pseudoCosts.get(j, false),
+                    (1 - fraction) * pseudoCosts.get(j, true));
+
+            if (score > bestScore) {
+                bestScore = score;
+                best = j;
+            }
+        }
+
+        return best;
+    }
+
+    @Override
+    public void update(int variable, boolean up, double distance, double degradation) {
+        PseudoCosts pseudoCosts = this.pseudoCosts;
+
+        if (pseudoCosts != null) {
+            pseudoCosts.record(variable, up, distance, degradation);
+        }
+    }
+
+    // Sized on first use, since the rule is created before it sees the problem
+    private synchronized PseudoCosts getPseudoCosts(int numVariables) {
+        if (this.pseudoCosts == null) {
+            this.pseudoCosts = new PseudoCosts(numVariables);
+        }
+
+        return this.pseudoCosts;
+    }
+}
@@ -0,0 +1,60 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+// Average objective degradation per unit change of each variable, kept
+// separately for branching up and down
+public class PseudoCosts {
+    private final double[] upSums;
+    private final double[] downSums;
+    private final int[] upCounts;
+    private final int[] downCounts;
+
+    public PseudoCosts(int numVariables) {
+        this.upSums = new double[numVariables];
+        this.downSums = new double[numVariables];
+        this.upCounts = new int[numVariables];
+        this.downCounts = new int[numVariables];
+    }
+
+    public synchronized void record(int variable, boolean up, double distance, double degradation) {
+        if (distance <= 0 || Double.isNaN(degradation) || Double.isInfinite(degradation)) {
+            return;
+        }
+
+        double perUnit = Math.max(degradation, 0) / distance;
+
+        if (up) {
+            this.upSums[variable] += perUnit;
+            this.upCounts[variable]++;
+        } else {
+            this.downSums[variable] += perUnit;
+            this.downCounts[variable]++;
+        }
+    }
+
+    // Variables without history get the average over the variables that have one
+    public synchronized double get(int variable, boolean up) {
+        double[] sums = up ? this.upSums : this.downSums;
+        int[] counts = up ? this.upCounts : this.downCounts;
+
+        if (counts[variable] > 0) {
+            return sums[variable] / counts[variable];
+        }
+
+        double total = 0;
+        int known = 0;
+
+        for (int j = 0; j < counts.length; j++) {
+            if (counts[j] > 0) {
+                total += sums[j] / counts[j];
+                known++;
+            }
+        }
+
+        return known > 0 ? total / known : 1.0;
+    }
+
+    // Number of observations in the direction with fewer of them
+    public synchronized int getReliability(int variable) {
+        return Math.min(this.upCounts[variable], this.downCounts[variable]);
+    }
+}
@@ -0,0 +1,153 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.LinearProgramResult;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+// Reduced cost fixing. If an optimal LP solution has value z and a nonbasic
+// variable has reduced cost d_j, moving it k units off its bound costs at
+// least |d_j| * k, so with an incumbent z* it can move at most
+// floor((z - z*) / |d_j|) units in any solution worth keeping.
+//
+// Applied with the root LP this tightens the bounds of the whole search, and
+// is repeated whenever the incumbent improves; applied with a node's LP it
+// tightens the bounds of that node's subtree. One instance serves a whole
+// search and is shared by its workers.
+public class ReducedCostFixing {
+    private final double tolerance;
+
+    // Root LP, set once it is solved
+    private Problem rootProblem;
+    private LinearProgramResult rootResult;
+
+    // Global bounds, replaced as a whole so readers never see a half update
+    private volatile double[][] globalBounds;
+
+    public ReducedCostFixing(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    public synchronized void setRoot(Problem rootProblem, Result rootResult) {
+        if (getReducedCosts(rootResult) != null) {
+            this.rootProblem = rootProblem;
+            this.rootResult = (LinearProgramResult) rootResult;
+        }
+    }
+
+    // Re-fixes the global bounds from the root LP against a new incumbent
+    public synchronized void incumbentFound(double incumbent) {
+        if (this.rootResult == null) {
+            return;
+        }
+
+        double[] rootLower = this.rootProblem.getVariableLowerBounds();
+        double[] rootUpper = this.rootProblem.getVariableUpperBounds();
+        double[][] current = this.globalBounds;
+        double[] lower = (current == null ? rootLower : current[0]).clone();
+        double[] upper = (current == null ? rootUpper : current[1]).clone();
+
+        if (this.fix(lower, upper, rootLower, rootUpper, this.rootResult, incumbent) > 0) {
+            this.globalBounds = new double[][] { lower, upper };
+        }
+    }
+
+    // `problem` with its bounds intersected with the global ones
+    public Problem tighten(Problem problem) {
+        double[][] globalBounds = this.globalBounds;
+
+        if (globalBounds == null) {
+            return problem;
+        }
+
+        double[] lower = problem.getVariableLowerBounds().clone();
+        double[] upper = problem.getVariableUpperBounds().clone();
+
+        for (int j = 0; j < lower.length; j++) {
+            lower[j] = Math.max(lower[j], globalBounds[0][j]);
+            upper[j] = Math.min(upper[j], globalBounds[1][j]);
+        }
+
+        return problem.withVariableBounds(lower, upper);
+    }
+
+    // `node` with the bounds its own LP allows added as bound changes, so
+    // that its children inherit them. `nodeProblem` is the node's LP as its
+    // bound changes define it, `problem` the one solved, with the global
+    // bounds applied, and `result` its solution
+    public BranchNode fixLocally(BranchNode node, Problem nodeProblem, Problem problem, Result result,
+            double incumbent) {
+        if (getReducedCosts(result) == null || incumbent == -Solver.INF) {
+            return node;
+        }
+
+        double[] solvedLower = problem.getVariableLowerBounds();
+        double[] solvedUpper = problem.getVariableUpperBounds();
+        double[] lower = solvedLower.clone();
+        double[] upper = solvedUpper.clone();
+
+        if (this.fix(lower, upper, solvedLower, solvedUpper, (LinearProgramResult) result, incumbent) == 0) {
+            return node;
+        }
+
+        // The node's own bounds are the ones its fingerprint is built from
+        double[] previousLower = nodeProblem.getVariableLowerBounds();
+        double[] previousUpper = nodeProblem.getVariableUpperBounds();
+
+        for (int j = 0; j < lower.length; j++) {
+            if (upper[j] < solvedUpper[j]) {
+                node = node.withBoundChange(j, true, upper[j], previousUpper[j]);
+            }
+
+            if (lower[j] > solvedLower[j]) {
+                node = node.withBoundChange(j, false, lower[j], previousLower[j]);
+            }
+        }
+
+        return node;
+    }
+
+    // Tightens `lower` and `upper` in place and returns how many bounds moved.
+    // `result` was solved with the bounds `solvedLower` and `solvedUpper`,
+    // which tell the nonbasic variables at a bound apart
+    private int fix(double[] lower, double[] upper, double[] solvedLower, double[] solvedUpper,
+            LinearProgramResult result, double incumbent) {
+        double gap = result.getObjectiveValue() - incumbent;
+        double[] solution = result.getSolution();
+        double[] reducedCosts = result.getReducedCosts();
+        int fixed = 0;
+
+        if (gap < 0) {
+            return 0;
+        }
+
+        for (int j = 0; j < solution.length; j++) {
+            double reducedCost = reducedCosts[j];
+
+            if (reducedCost < -this.tolerance && Math.abs(solution[j] - solvedLower[j]) <= this.tolerance) {
+                double bound = solvedLower[j] + Math.floor(gap / -reducedCost + this.tolerance);
+
+                if (bound < upper[j]) {
+                    upper[j] = bound;
+                    fixed++;
+                }
+            } else if (reducedCost > this.tolerance && Math.abs(solution[j] - solvedUpper[j]) <= this.tolerance) {
+                double bound = solvedUpper[j] - Math.floor(gap / reducedCost + this.tolerance);
+
+                if (bound > lower[j]) {
+                    lower[j] = bound;
+                    fixed++;
+                }
+            }
+        }
+
+        return fixed;
+    }
+
+    private static double[] getReducedCosts(Result result) {
+        if (result instanceof LinearProgramResult) {
+            return ((LinearProgramResult) result).getReducedCosts();
+        }
+
+        return null;
+    }
+}
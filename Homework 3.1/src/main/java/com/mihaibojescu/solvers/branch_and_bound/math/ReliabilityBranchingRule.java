@@ -0,0 +1,97 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.List;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.BranchingRule;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+// Pseudo-cost branching, except that candidates whose pseudo-costs rest on
+// fewer than `reliability` observations in either direction are strong
+// branched first, and the trial results go into the history. Early in the
+// search this behaves like strong branching, later like pseudo-costs.
+public class ReliabilityBranchingRule implements BranchingRule {
+    public static final int DEFAULT_RELIABILITY = 4;
+
+    private final Solver solver;
+    private final int candidates;
+    private final int reliability;
+    private volatile PseudoCosts pseudoCosts;
+
+    public ReliabilityBranchingRule(Solver solver) {
+        this(solver, StrongBranchingRule.DEFAULT_CANDIDATES, DEFAULT_RELIABILITY);
+    }
+
+    public ReliabilityBranchingRule(Solver solver, int candidates, int reliability)
+            throws IllegalArgumentException {
+        if (candidates < 1) {
+            throw new IllegalArgumentException(String.format("Candidates must be >= 1, but is %d", candidates));
+        }
+
+        if (reliability < 0) {
+            throw new IllegalArgumentException(String.format("Reliability must be >= 0, but is %d", reliability));
+        }
+
+        this.solver = solver;
+        this.candidates = candidates;
+        this.reliability = reliability;
+    }
+
+    @Override
+    public int selectVariable(Problem problem, Result result, double tolerance) throws Exception {
+        PseudoCosts pseudoCosts = this.getPseudoCosts(problem.getNumberOfVariables());
+        double[] solution = result.getSolution();
+        List<Integer> candidates = BranchingScores.getCandidates(solution, tolerance);
+        int trials = 0;
+
+        for (int j : candidates) {
+            if (trials == this.candidates) {
+                break;
+            }
+
+            if (pseudoCosts.getReliability(j) >= this.reliability) {
+                continue;
+            }
+
+            double fraction = solution[j] - Math.floor(solution[j]);
+            pseudoCosts.record(j, false, fraction,
+                    BranchingScores.trialDegradation(this.solver, problem, result, j, false));
+            pseudoCosts.record(j, true, 1 - fraction,
+                    BranchingScores.trialDegradation(this.solver, problem, result, j, true));
+            trials++;
+        }
+
+        int best = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+
+        for (int j : candidates) {
+            double fraction = solution[j] - Math.floor(solution[j]);
+            double score = BranchingScores.score(fraction * pseudoCosts.get(j, false),
+                    (1 - fraction) * pseudoCosts.get(j, true));
+
+            if (score > bestScore) {
+                bestScore = score;
+                best = j;
+            }
+        }
+
+        return best;
+    }
+
+    @Override
+    public void update(int variable, boolean up, double distance, double degradation) {
+        PseudoCosts pseudoCosts = this.pseudoCosts;
+
+        if (pseudoCosts != null) {
+            pseudoCosts.record(variable, up, distance, degradation);
+        }
+    }
+
+    private synchronized PseudoCosts getPseudoCosts(int numVariables) {
+        if (this.pseudoCosts == null) {
+            this.pseudoCosts = new PseudoCosts(numVariables);
+        }
+
+        return this.pseudoCosts;
+    }
+}
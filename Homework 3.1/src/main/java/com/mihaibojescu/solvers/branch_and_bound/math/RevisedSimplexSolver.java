@@ -0,0 +1,685 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.mihaibojescu.solvers.branch_and_bound.util.SimplexBasis;
+
+public class RevisedSimplexSolver {
+    private static final double TOLERANCE = 1.0E-8;
+    private static final double FEASIBILITY_TOLERANCE = 1.0E-7;
+    private static final double PIVOT_TOLERANCE = 1.0E-9;
+    private static final int REFACTORIZATION_FREQUENCY = 64;
+    private static final int DEGENERATE_PIVOTS_BEFORE_BLAND = 50;
+    private static final int DUAL_ITERATIONS_PER_COLUMN = 10;
+
+    private final int numConstraints;
+    private final int numVariables;
+    private final int numArtificials;
+    private final int numColumns;
+
+    // Structural columns, shared with the problem's compressed column view
+    private final int[] columnStarts;
+    private final int[] rowIndices;
+    private final double[] values;
+
+    private final double[] rhs;
+    private final double[] objective;
+    private final int[] artificialRows;
+
+    private final double[] lower;
+    private final double[] upper;
+    private final double[] x;
+    private final int[] basis;
+    private final int[] positionOf;
+
+    private final BasisFactorization factorization;
+
+    private boolean isFeasible;
+    private boolean isUnbounded;
+    private int pivots;
+
+    public RevisedSimplexSolver(double[][] coefficients, double[] rhs, double[] objective) {
+        this(new SparseMatrix(new Matrix(coefficients)), rhs, objective);
+    }
+
+    public RevisedSimplexSolver(SparseMatrix coefficients, double[] rhs, double[] objective) {
+        this(coefficients, rhs, objective, new double[objective.length], null);
+    }
+
+    public RevisedSimplexSolver(SparseMatrix coefficients, double[] rhs, double[] objective,
+            double[] variableLowerBounds, double[] variableUpperBounds) {
+        this.numConstraints = rhs.length;
+        this.numVariables = objective.length;
+        this.rhs = rhs.clone();
+        this.objective = objective.clone();
+        this.columnStarts = coefficients.getColumnStarts();
+        this.rowIndices = coefficients.getColumnRowIndices();
+        this.values = coefficients.getColumnValues();
+
+        // Structural variables start at their lower bounds; only rows whose
+        // slack would then be negative get an artificial column
+        double[] residual = this.rhs.clone();
+        for (int j = 0; j < this.numVariables; j++) {
+            for (int k = this.columnStarts[j]; k < this.columnStarts[j + 1]; k++) {
+                residual[this.rowIndices[k]] -= this.values[k] * variableLowerBounds[j];
+            }
+        }
+
+        int artificials = 0;
+        for (int i = 0; i < this.numConstraints; i++) {
+            if (residual[i] < 0) {
+                artificials++;
+            }
+        }
+
+        this.numArtificials = artificials;
+        this.numColumns = this.numVariables + this.numConstraints + this.numArtificials;
+        this.artificialRows = new int[this.numArtificials];
+
+        this.lower = new double[this.numColumns];
+        this.upper = new double[this.numColumns];
+        this.x = new double[this.numColumns];
+        this.basis = new int[this.numConstraints];
+        this.positionOf = new int[this.numColumns];
+        Arrays.fill(this.upper, Double.POSITIVE_INFINITY);
+        Arrays.fill(this.positionOf, -1);
+
+        this.isFeasible = true;
+
+        for (int j = 0; j < this.numVariables; j++) {
+            this.lower[j] = variableLowerBounds[j];
+            this.x[j] = variableLowerBounds[j];
+
+            if (variableUpperBounds != null) {
+                this.upper[j] = variableUpperBounds[j];
+            }
+
+            if (this.upper[j] < this.lower[j]) {
+                this.isFeasible = false;
+            }
+        }
+
+        artificials = 0;
+        for (int i = 0; i < this.numConstraints; i++) {
+            if (residual[i] < 0) {
+                int column = this.numVariables + this.numConstraints + artificials;
+                this.artificialRows[artificials++] = i;
+                this.setBasic(i, column);
+                this.x[column] = -residual[i];
+            } else {
+                this.setBasic(i, this.numVariables + i);
+                this.x[this.numVariables + i] = residual[i];
+            }
+        }
+
+        this.factorization = new BasisFactorization(this.numConstraints);
+        this.isUnbounded = false;
+        this.pivots = 0;
+    }
+
+    public double[] solve() {
+        if (!this.isFeasible) {
+            return this.primalSolution();
+        }
+
+        try {
+            this.refactorize();
+
+            if (this.numArtificials > 0) {
+                this.phase1();
+            }
+
+            if (this.isFeasible) {
+                this.optimize(this.objective());
+            }
+        } catch (ArithmeticException e) {
+            this.isUnbounded = true;
+        }
+
+        return this.primalSolution();
+    }
+
+    // Re-optimizes starting from a basis of a closely related problem, usually
+    // the optimal basis of the parent node before a bound change. Returns false
+    // when the basis cannot be used, in which case this solver must be discarded
+    // and the problem solved from scratch.
+    public boolean solve(SimplexBasis warmStart) {
+        int[] columns = warmStart.getBasicColumns();
+        boolean[] atUpper = warmStart.getNonbasicAtUpper();
+
+        if (!this.isFeasible) {
+            return true;
+        }
+
+        if (columns.length != this.numConstraints || atUpper.length != this.numVariables + this.numConstraints) {
+            return false;
+        }
+
+        Arrays.fill(this.positionOf, -1);
+
+        for (int p = 0; p < this.numConstraints; p++) {
+            if (columns[p] >= this.numVariables + this.numConstraints || this.positionOf[columns[p]] != -1) {
+                return false;
+            }
+
+            this.setBasic(p, columns[p]);
+        }
+
+        // No artificial columns are needed when starting from a known basis
+        for (int j = this.numVariables + this.numConstraints; j < this.numColumns; j++) {
+            this.upper[j] = 0.0;
+            this.x[j] = 0.0;
+        }
+
+        for (int j = 0; j < this.numVariables + this.numConstraints; j++) {
+            if (this.positionOf[j] == -1) {
+                this.x[j] = atUpper[j] && this.upper[j] != Double.POSITIVE_INFINITY ? this.upper[j] : this.lower[j];
+            }
+        }
+
+        try {
+            this.refactorize();
+
+            double[] cost = this.objective();
+
+            if (!this.isDualFeasible(cost)) {
+                if (!this.isPrimalFeasible()) {
+                    return false;
+                }
+
+                this.optimize(cost);
+                return true;
+            }
+
+            if (!this.dualSimplex(cost)) {
+                return false;
+            }
+
+            if (this.isFeasible) {
+                this.optimize(cost);
+            }
+        } catch (ArithmeticException e) {
+            this.isUnbounded = true;
+        }
+
+        return true;
+    }
+
+    // Returns null while an artificial column is still basic, since such a
+    // basis cannot be reproduced without the artificial columns
+    public SimplexBasis getBasis() {
+        int[] columns = this.basis.clone();
+        boolean[] atUpper = new boolean[this.numVariables + this.numConstraints];
+
+        for (int column : columns) {
+            if (column >= this.numVariables + this.numConstraints) {
+                return null;
+            }
+        }
+
+        for (int j = 0; j < atUpper.length; j++) {
+            atUpper[j] = this.positionOf[j] == -1 && this.upper[j] != Double.POSITIVE_INFINITY
+                    && this.upper[j] > this.lower[j] && this.x[j] >= this.upper[j];
+        }
+
+        return new SimplexBasis(columns, atUpper);
+    }
+
+    public double getObjectiveValue() {
+        return this.optimalValue();
+    }
+
+    public boolean isFeasible() {
+        return this.isFeasible;
+    }
+
+    public boolean isUnbounded() {
+        return this.isUnbounded;
+    }
+
+    public int getNumberOfPivots() {
+        return this.pivots;
+    }
+
+    public double optimalValue() {
+        double value = 0;
+
+        for (int j = 0; j < this.numVariables; j++) {
+            value += this.objective[j] * this.x[j];
+        }
+
+        return value;
+    }
+
+    public double[] primalSolution() {
+        return Arrays.copyOf(this.x, this.numVariables);
+    }
+
+    public double[] dualSolution() {
+        double[] dual = this.computeDuals(this.objective());
+
+        for (int i = 0; i < this.numConstraints; i++) {
+            if (dual[i] == -0.0) {
+                dual[i] = 0.0;
+            }
+        }
+
+        return dual;
+    }
+
+    // c_j - a_j * y for the structural columns; exactly 0 for basic ones
+    public double[] reducedCosts() {
+        double[] cost = this.objective();
+        double[] dual = this.computeDuals(cost);
+        double[] reducedCosts = new double[this.numVariables];
+
+        for (int j = 0; j < this.numVariables; j++) {
+            if (this.positionOf[j] == -1) {
+                reducedCosts[j] = cost[j] - this.dotColumn(j, dual);
+            }
+        }
+
+        return reducedCosts;
+    }
+
+    private void phase1() {
+        double[] cost = new double[this.numColumns];
+
+        for (int k = 0; k < this.numArtificials; k++) {
+            cost[this.numVariables + this.numConstraints + k] = -1.0;
+        }
+
+        this.optimize(cost);
+
+        double infeasibility = 0;
+        for (int k = 0; k < this.numArtificials; k++) {
+            infeasibility += this.x[this.numVariables + this.numConstraints + k];
+        }
+
+        if (infeasibility > FEASIBILITY_TOLERANCE) {
+            this.isFeasible = false;
+            return;
+        }
+
+        // Artificials are fixed at zero from now on: the ones still basic are
+        // moved out by degenerate pivots and the nonbasic ones never re-enter
+        for (int k = 0; k < this.numArtificials; k++) {
+            this.upper[this.numVariables + this.numConstraints + k] = 0.0;
+        }
+    }
+
+    private double[] objective() {
+        double[] cost = new double[this.numColumns];
+        System.arraycopy(this.objective, 0, cost, 0, this.numVariables);
+        return cost;
+    }
+
+    private void optimize(double[] cost) {
+        double[] alpha = new double[this.numConstraints];
+        int degeneratePivots = 0;
+
+        while (true) {
+            double[] dual = this.computeDuals(cost);
+            boolean bland = degeneratePivots > DEGENERATE_PIVOTS_BEFORE_BLAND;
+            int enteringColumn = this.findEnteringColumn(cost, dual, bland);
+
+            if (enteringColumn == -1) {
+                return;
+            }
+
+            // Nonbasic variables sit at one of their bounds, so the entering
+            // one either increases from its lower bound or decreases from its upper
+            double direction = cost[enteringColumn] - this.dotColumn(enteringColumn, dual) > 0 ? 1.0 : -1.0;
+
+            Arrays.fill(alpha, 0.0);
+            this.scatterColumn(enteringColumn, alpha);
+            this.factorization.ftran(alpha);
+
+            int leavingPosition = this.findLeavingPosition(alpha, direction, bland);
+            double range = this.upper[enteringColumn] - this.lower[enteringColumn];
+            double step = leavingPosition == -1
+                    ? Double.POSITIVE_INFINITY
+                    : this.ratio(leavingPosition, direction * alpha[leavingPosition]);
+
+            if (range != Double.POSITIVE_INFINITY && range <= step) {
+                this.flip(enteringColumn, alpha, direction, range);
+                degeneratePivots = 0;
+                continue;
+            }
+
+            if (leavingPosition == -1) {
+                throw new ArithmeticException("Linear program is unbounded");
+            }
+
+            degeneratePivots = step <= TOLERANCE ? degeneratePivots + 1 : 0;
+
+            int leavingColumn = this.basis[leavingPosition];
+            double leavingValue = direction * alpha[leavingPosition] > 0
+                    ? this.lower[leavingColumn]
+                    : this.upper[leavingColumn];
+
+            this.pivot(leavingPosition, enteringColumn, alpha, direction * step, leavingValue);
+        }
+    }
+
+    // Bounded dual simplex: keeps the reduced costs dual feasible and repairs
+    // primal bound violations one leaving row at a time. Returns false if it
+    // gives up because of the iteration limit.
+    private boolean dualSimplex(double[] cost) {
+        double[] rho = new double[this.numConstraints];
+        double[] alpha = new double[this.numConstraints];
+        int maximumIterations = DUAL_ITERATIONS_PER_COLUMN * this.numColumns;
+
+        for (int iteration = 0; iteration < maximumIterations; iteration++) {
+            int leavingPosition = this.findDualLeavingPosition();
+
+            if (leavingPosition == -1) {
+                return true;
+            }
+
+            int leavingColumn = this.basis[leavingPosition];
+            boolean belowLower = this.x[leavingColumn] < this.lower[leavingColumn];
+            double target = belowLower ? this.lower[leavingColumn] : this.upper[leavingColumn];
+            double sign = belowLower ? 1.0 : -1.0;
+
+            Arrays.fill(rho, 0.0);
+            rho[leavingPosition] = 1.0;
+            this.factorization.btran(rho);
+
+            double[] dual = this.computeDuals(cost);
+            int enteringColumn = -1;
+            double minimumRatio = Double.POSITIVE_INFINITY;
+            double enteringAlpha = 0;
+
+            for (int j = 0; j < this.numColumns; j++) {
+                if (this.positionOf[j] != -1 || this.upper[j] <= this.lower[j]) {
+                    continue;
+                }
+
+                double rowAlpha = this.dotColumn(j, rho);
+                double direction = this.x[j] >= this.upper[j] ? -1.0 : 1.0;
+
+                // The entering variable must move the leaving one towards its violated bound
+                if (sign * rowAlpha * direction >= -PIVOT_TOLERANCE) {
+                    continue;
+                }
+
+                double ratio = Math.abs(cost[j] - this.dotColumn(j, dual)) / Math.abs(rowAlpha);
+
+                if (ratio < minimumRatio - TOLERANCE
+                        || (ratio <= minimumRatio + TOLERANCE && Math.abs(rowAlpha) > Math.abs(enteringAlpha))) {
+                    enteringColumn = j;
+                    minimumRatio = Math.min(minimumRatio, ratio);
+                    enteringAlpha = rowAlpha;
+                }
+            }
+
+            if (enteringColumn == -1) {
+                this.isFeasible = false;
+                return true;
+            }
+
+            Arrays.fill(alpha, 0.0);
+            this.scatterColumn(enteringColumn, alpha);
+            this.factorization.ftran(alpha);
+
+            double delta = (this.x[leavingColumn] - target) / alpha[leavingPosition];
+            this.pivot(leavingPosition, enteringColumn, alpha, delta, target);
+        }
+
+        return false;
+    }
+
+    private int findDualLeavingPosition() {
+        int leavingPosition = -1;
+        double maximumInfeasibility = FEASIBILITY_TOLERANCE;
+
+        for (int p = 0; p < this.numConstraints; p++) {
+            int column = this.basis[p];
+            double infeasibility = Math.max(this.lower[column] - this.x[column], this.x[column] - this.upper[column]);
+
+            if (infeasibility > maximumInfeasibility) {
+                leavingPosition = p;
+                maximumInfeasibility = infeasibility;
+            }
+        }
+
+        return leavingPosition;
+    }
+
+    private boolean isPrimalFeasible() {
+        return this.findDualLeavingPosition() == -1;
+    }
+
+    private boolean isDualFeasible(double[] cost) {
+        double[] dual = this.computeDuals(cost);
+
+        for (int j = 0; j < this.numColumns; j++) {
+            if (this.positionOf[j] != -1 || this.upper[j] <= this.lower[j]) {
+                continue;
+            }
+
+            double reducedCost = cost[j] - this.dotColumn(j, dual);
+
+            if ((this.x[j] >= this.upper[j] && reducedCost < -TOLERANCE)
+                    || (this.x[j] < this.upper[j] && reducedCost > TOLERANCE)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private double[] computeDuals(double[] cost) {
+        double[] dual = new double[this.numConstraints];
+
+        for (int p = 0; p < this.numConstraints; p++) {
+            dual[p] = cost[this.basis[p]];
+        }
+
+        this.factorization.btran(dual);
+        return dual;
+    }
+
+    private int findEnteringColumn(double[] cost, double[] dual, boolean bland) {
+        int enteringColumn = -1;
+        double best = TOLERANCE;
+
+        for (int j = 0; j < this.numColumns; j++) {
+            if (this.positionOf[j] != -1 || this.upper[j] <= this.lower[j]) {
+                continue;
+            }
+
+            double reducedCost = cost[j] - this.dotColumn(j, dual);
+            boolean atUpper = this.x[j] >= this.upper[j];
+            double improvement = atUpper ? -reducedCost : reducedCost;
+
+            if (improvement > best) {
+                enteringColumn = j;
+                best = improvement;
+
+                if (bland) {
+                    break;
+                }
+            }
+        }
+
+        return enteringColumn;
+    }
+
+    private int findLeavingPosition(double[] alpha, double direction, boolean bland) {
+        int leavingPosition = -1;
+        double minimumRatio = Double.POSITIVE_INFINITY;
+
+        for (int p = 0; p < this.numConstraints; p++) {
+            if (Math.abs(alpha[p]) <= PIVOT_TOLERANCE) {
+                continue;
+            }
+
+            double ratio = this.ratio(p, direction * alpha[p]);
+
+            if (ratio == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+
+            if (leavingPosition == -1 || ratio < minimumRatio - TOLERANCE) {
+                leavingPosition = p;
+                minimumRatio = ratio;
+            } else if (ratio <= minimumRatio + TOLERANCE) {
+                // Among ties prefer the larger pivot element, or the lowest
+                // variable index while anti-cycling is active
+                boolean replace = bland
+                        ? this.basis[p] < this.basis[leavingPosition]
+                        : Math.abs(alpha[p]) > Math.abs(alpha[leavingPosition]);
+
+                if (replace) {
+                    leavingPosition = p;
+                    minimumRatio = Math.min(minimumRatio, ratio);
+                }
+            }
+        }
+
+        return leavingPosition;
+    }
+
+    // Step the entering variable can take before the basic variable at
+    // `position` hits a bound, given its rate of decrease `alpha`
+    private double ratio(int position, double alpha) {
+        int column = this.basis[position];
+
+        if (alpha > 0) {
+            return Math.max(0.0, this.x[column] - this.lower[column]) / alpha;
+        }
+
+        if (this.upper[column] == Double.POSITIVE_INFINITY) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        return Math.max(0.0, this.upper[column] - this.x[column]) / -alpha;
+    }
+
+    // Moves the entering variable to its opposite bound without changing the basis
+    private void flip(int enteringColumn, double[] alpha, double direction, double range) {
+        for (int p = 0; p < this.numConstraints; p++) {
+            if (alpha[p] != 0.0) {
+                this.x[this.basis[p]] -= direction * range * alpha[p];
+            }
+        }
+
+        this.x[enteringColumn] = direction > 0 ? this.upper[enteringColumn] : this.lower[enteringColumn];
+    }
+
+    // Moves the entering variable by `delta`, updates the basic variables
+    // along `alpha` and replaces the basic variable at `leavingPosition`,
+    // which becomes nonbasic at `leavingValue`
+    private void pivot(int leavingPosition, int enteringColumn, double[] alpha, double delta, double leavingValue) {
+        int leavingColumn = this.basis[leavingPosition];
+
+        for (int p = 0; p < this.numConstraints; p++) {
+            if (alpha[p] != 0.0) {
+                this.x[this.basis[p]] -= delta * alpha[p];
+            }
+        }
+
+        this.x[enteringColumn] += delta;
+        this.x[leavingColumn] = leavingValue;
+
+        this.positionOf[leavingColumn] = -1;
+        this.setBasic(leavingPosition, enteringColumn);
+        this.pivots++;
+
+        if (this.factorization.getNumberOfUpdates() >= REFACTORIZATION_FREQUENCY) {
+            this.refactorize();
+        } else {
+            this.factorization.update(leavingPosition, alpha);
+        }
+    }
+
+    private void refactorize() {
+        BasisFactorization.ColumnSource columns = new BasisFactorization.ColumnSource() {
+            @Override
+            public void scatter(int position, double[] target) {
+                scatterColumn(basis[position], target);
+            }
+
+            @Override
+            public int nonZeros(int position) {
+                int column = basis[position];
+                return column < numVariables ? columnStarts[column + 1] - columnStarts[column] : 1;
+            }
+        };
+
+        List<int[]> replacements = this.factorization.factorize(columns);
+
+        while (!replacements.isEmpty()) {
+            // Dependent columns are swapped for the slacks of the rows that
+            // ended up without a pivot; they leave the basis at their bound
+            for (int[] replacement : replacements) {
+                int column = this.basis[replacement[0]];
+                this.positionOf[column] = -1;
+                this.x[column] = this.lower[column];
+                this.setBasic(replacement[0], this.numVariables + replacement[1]);
+            }
+
+            replacements = this.factorization.factorize(columns);
+        }
+
+        this.computeBasicValues();
+    }
+
+    private void computeBasicValues() {
+        double[] values = this.rhs.clone();
+
+        for (int j = 0; j < this.numColumns; j++) {
+            if (this.positionOf[j] != -1 || this.x[j] == 0.0) {
+                continue;
+            }
+
+            this.axpyColumn(j, -this.x[j], values);
+        }
+
+        this.factorization.ftran(values);
+
+        for (int p = 0; p < this.numConstraints; p++) {
+            this.x[this.basis[p]] = values[p];
+        }
+    }
+
+    private void setBasic(int position, int column) {
+        this.basis[position] = column;
+        this.positionOf[column] = position;
+    }
+
+    private void scatterColumn(int column, double[] target) {
+        this.axpyColumn(column, 1.0, target);
+    }
+
+    private void axpyColumn(int column, double multiplier, double[] target) {
+        if (column < this.numVariables) {
+            for (int k = this.columnStarts[column]; k < this.columnStarts[column + 1]; k++) {
+                target[this.rowIndices[k]] += multiplier * this.values[k];
+            }
+        } else if (column < this.numVariables + this.numConstraints) {
+            target[column - this.numVariables] += multiplier;
+        } else {
+            target[this.artificialRows[column - this.numVariables - this.numConstraints]] -= multiplier;
+        }
+    }
+
+    private double dotColumn(int column, double[] vector) {
+        if (column < this.numVariables) {
+            double value = 0;
+
+            for (int k = this.columnStarts[column]; k < this.columnStarts[column + 1]; k++) {
+                value += this.values[k] * vector[this.rowIndices[k]];
+            }
+
+            return value;
+        } else if (column < this.numVariables + this.numConstraints) {
+            return vector[column - this.numVariables];
+        }
+
+        return -vector[this.artificialRows[column - this.numVariables - this.numConstraints]];
+    }
+}
@@ -0,0 +1,57 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.WarmStartSolver;
+import com.mihaibojescu.solvers.branch_and_bound.util.LinearProgramResult;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+import com.mihaibojescu.solvers.branch_and_bound.util.SimplexBasis;
+
+public class RevisedSimplexSolverAdapter implements WarmStartSolver {
+    @Override
+    public Result run(Problem problem) {
+        RevisedSimplexSolver solver = this.createSolver(problem);
+        solver.solve();
+        return this.createResult(solver);
+    }
+
+    @Override
+    public Result run(Problem problem, SimplexBasis basis) {
+        if (basis == null) {
+            return this.run(problem);
+        }
+
+        RevisedSimplexSolver solver = this.createSolver(problem);
+
+        if (!solver.solve(basis)) {
+            return this.run(problem);
+        }
+
+        return this.createResult(solver);
+    }
+
+    private RevisedSimplexSolver createSolver(Problem problem) {
+        return new RevisedSimplexSolver(problem.getSparseConstraints(),
+                problem.getBounds().toRawVector(), problem.getObjectiveFunctionMultipliers().toRawVector(),
+                problem.getVariableLowerBounds(), problem.getVariableUpperBounds());
+    }
+
+    private Result createResult(RevisedSimplexSolver solver) {
+        double[] solution = solver.primalSolution();
+
+        if (!solver.isFeasible()) {
+            return new Result(solution, -Solver.INF);
+        }
+
+        if (solver.isUnbounded()) {
+            return new Result(solution, Solver.INF);
+        }
+
+        return new LinearProgramResult(
+                solution,
+                solver.optimalValue(),
+                solver.getBasis(),
+                solver.getNumberOfPivots(),
+                solver.dualSolution(),
+                solver.reducedCosts());
+    }
+}
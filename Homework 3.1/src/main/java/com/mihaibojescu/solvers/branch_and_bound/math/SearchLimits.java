@@ -0,0 +1,77 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.time.Duration;
+
+// When branch and bound may stop before the tree is exhausted. Immutable;
+// the with* methods return a copy with one limit changed.
+public class SearchLimits {
+    public static final SearchLimits NONE = new SearchLimits(Long.MAX_VALUE, Long.MAX_VALUE, 0, 0);
+
+    private final long timeLimitNanos;
+    private final long nodeLimit;
+    private final double relativeGap;
+    private final double absoluteGap;
+
+    private SearchLimits(long timeLimitNanos, long nodeLimit, double relativeGap, double absoluteGap) {
+        this.timeLimitNanos = timeLimitNanos;
+        this.nodeLimit = nodeLimit;
+        this.relativeGap = relativeGap;
+        this.absoluteGap = absoluteGap;
+    }
+
+    public SearchLimits withTimeLimit(Duration timeLimit) throws IllegalArgumentException {
+        if (timeLimit.isNegative()) {
+            throw new IllegalArgumentException(String.format("Time limit must be >= 0, but is %s", timeLimit));
+        }
+
+        long nanos = timeLimit.compareTo(Duration.ofNanos(Long.MAX_VALUE)) >= 0 ? Long.MAX_VALUE : timeLimit.toNanos();
+        return new SearchLimits(nanos, this.nodeLimit, this.relativeGap, this.absoluteGap);
+    }
+
+    // Counts the nodes whose LP is solved
+    public SearchLimits withNodeLimit(long nodeLimit) throws IllegalArgumentException {
+        if (nodeLimit < 1) {
+            throw new IllegalArgumentException(String.format("Node limit must be >= 1, but is %d", nodeLimit));
+        }
+
+        return new SearchLimits(this.timeLimitNanos, nodeLimit, this.relativeGap, this.absoluteGap);
+    }
+
+    // Stops once (dual bound - incumbent) / |incumbent| <= relativeGap
+    public SearchLimits withRelativeGap(double relativeGap) throws IllegalArgumentException {
+        if (relativeGap < 0) {
+            throw new IllegalArgumentException(String.format("Relative gap must be >= 0, but is %f", relativeGap));
+        }
+
+        return new SearchLimits(this.timeLimitNanos, this.nodeLimit, relativeGap, this.absoluteGap);
+    }
+
+    // Stops once dual bound - incumbent <= absoluteGap
+    public SearchLimits withAbsoluteGap(double absoluteGap) throws IllegalArgumentException {
+        if (absoluteGap < 0) {
+            throw new IllegalArgumentException(String.format("Absolute gap must be >= 0, but is %f", absoluteGap));
+        }
+
+        return new SearchLimits(this.timeLimitNanos, this.nodeLimit, this.relativeGap, absoluteGap);
+    }
+
+    public long getTimeLimitNanos() {
+        return this.timeLimitNanos;
+    }
+
+    public long getNodeLimit() {
+        return this.nodeLimit;
+    }
+
+    public double getRelativeGap() {
+        return this.relativeGap;
+    }
+
+    public double getAbsoluteGap() {
+        return this.absoluteGap;
+    }
+
+    public boolean hasGapLimit() {
+        return this.relativeGap > 0 || this.absoluteGap > 0;
+    }
+}
@@ -0,0 +1,295 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.SearchListener;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.IncumbentEvent;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+import com.mihaibojescu.solvers.branch_and_bound.util.SearchResult;
+import com.mihaibojescu.solvers.branch_and_bound.util.SearchStatus;
+
+// Bookkeeping of one branch and bound search, shared by its workers: counts
+// the solved nodes, tracks the global dual bound, checks the limits and
+// reports improved incumbents to the listener.
+//
+// The dual bound is the highest parent bound over the queued nodes and the
+// nodes the workers are processing. Workers take nodes through take(), which
+// moves a node from a queue to the worker's active bound under the same lock
+// the dual bound is computed under, so no node is ever missed. A worker's
+// children are queued before release() clears its active bound.
+//
+// The same lock lets a checkpoint copy the open nodes: the queued ones plus
+// the active ones, which may already have queued some of their children.
+// Those are then solved twice after a resume, which is harmless. A resumed
+// search carries on the node count, so the node limit is over all runs,
+// while the time limit applies to each run.
+public class SearchMonitor {
+    // How often, in solved nodes, the gap is checked when the incumbent has not
+    // changed, and a portfolio member shares its dual bound
+    private static final int GAP_CHECK_INTERVAL = 32;
+
+    private final SearchLimits limits;
+    private final SearchListener listener;
+    private final NodeQueue[] queues;
+    private final double[] activeBounds;
+    private final BranchNode[] activeNodes;
+    private final Object boundLock;
+    private final CheckpointWriter checkpoints;
+    private final long start;
+    private final long previousElapsedNanos;
+    private final AtomicLong nodes;
+    private final AtomicReference<SearchStatus> limitStatus;
+    private final AtomicBoolean incumbentChanged;
+    private final AtomicLong nextGapCheck;
+    private final SharedSearch shared;
+    private final int member;
+    private final AtomicLong nextBoundShare;
+    private double lastReported;
+
+    public SearchMonitor(SearchLimits limits, SearchListener listener, NodeQueue[] queues) {
+        this(limits, listener, queues, null, 0, 0);
+    }
+
+    // `checkpoints` may be null; the counts continue those of a resumed search
+    public SearchMonitor(SearchLimits limits, SearchListener listener, NodeQueue[] queues,
+            CheckpointWriter checkpoints, long solvedNodes, long elapsedNanos) {
+        this(limits, listener, queues, checkpoints, solvedNodes, elapsedNanos, null, 0);
+    }
+
+    // A search that is `member` of a portfolio, when `shared` is not null
+    SearchMonitor(SearchLimits limits, SearchListener listener, NodeQueue[] queues, CheckpointWriter checkpoints,
+            long solvedNodes, long elapsedNanos, SharedSearch shared, int member) {
+        this(limits, listener, queues, checkpoints, solvedNodes, elapsedNanos, shared, member, queues.length);
+    }
+
+    // With `activeSlots` nodes in process at once, rather than one per queue
+    SearchMonitor(SearchLimits limits, SearchListener listener, NodeQueue[] queues, CheckpointWriter checkpoints,
+            long solvedNodes, long elapsedNanos, SharedSearch shared, int member, int activeSlots) {
+        this.limits = limits;
+        this.listener = listener;
+        this.queues = queues;
+        this.activeBounds = new double[activeSlots];
+        this.activeNodes = new BranchNode[activeSlots];
+        this.boundLock = new Object();
+        this.checkpoints = checkpoints;
+        this.start = System.nanoTime();
+        this.previousElapsedNanos = elapsedNanos;
+        this.nodes = new AtomicLong(solvedNodes);
+        this.limitStatus = new AtomicReference<>();
+        this.incumbentChanged = new AtomicBoolean();
+        this.nextGapCheck = new AtomicLong();
+        this.shared = shared;
+        this.member = member;
+        this.nextBoundShare = new AtomicLong();
+        this.lastReported = -Solver.INF;
+
+        Arrays.fill(this.activeBounds, -Solver.INF);
+    }
+
+    // Polls `queue` on behalf of `worker` and makes the node its active one,
+    // replacing the one it had
+    public BranchNode take(NodeQueue queue, int worker) {
+        synchronized (this.boundLock) {
+            BranchNode node = queue.poll();
+
+            this.activeNodes[worker] = node;
+            this.activeBounds[worker] = node == null ? -Solver.INF : node.getParentBound();
+
+            return node;
+        }
+    }
+
+    // Called once `worker` has queued the children of its active node
+    public void release(int worker) {
+        synchronized (this.boundLock) {
+            this.activeNodes[worker] = null;
+            this.activeBounds[worker] = -Solver.INF;
+        }
+    }
+
+    // Called once the LP of `worker`'s active node is solved, whose value
+    // `bound` is tighter than the parent's. Returns the number of nodes
+    // solved before this one
+    public long nodeSolved(int worker, double bound) {
+        synchronized (this.boundLock) {
+            this.activeBounds[worker] = Math.min(this.activeBounds[worker], bound);
+        }
+
+        return this.nodes.getAndIncrement();
+    }
+
+    public long getNodes() {
+        return this.nodes.get();
+    }
+
+    public double getDualBound(double incumbent) {
+        double bound = incumbent;
+
+        synchronized (this.boundLock) {
+            for (NodeQueue queue : this.queues) {
+                bound = Math.max(bound, queue.getBestBound());
+            }
+
+            for (double activeBound : this.activeBounds) {
+                bound = Math.max(bound, activeBound);
+            }
+        }
+
+        return bound;
+    }
+
+    // Elapsed time over all runs of the search
+    public long getElapsedNanos() {
+        return this.previousElapsedNanos + System.nanoTime() - this.start;
+    }
+
+    // An interrupted worker, or the serial solver's interrupted thread,
+    // cancels the whole search, and so does the end of its portfolio
+    public boolean isStopped() {
+        if (Thread.currentThread().isInterrupted() || this.shared != null && this.shared.isFinished()) {
+            this.cancel();
+        }
+
+        return this.limitStatus.get() != null;
+    }
+
+    public void cancel() {
+        this.limitStatus.compareAndSet(null, SearchStatus.CANCELLED);
+    }
+
+    // Checks the limits against the current incumbent value; once one is
+    // hit the search stays stopped
+    public boolean shouldStop(double incumbent) {
+        if (this.isStopped()) {
+            return true;
+        }
+
+        SearchStatus status = null;
+        long nodes = this.nodes.get();
+
+        if (this.shared != null && this.isDue(this.nextBoundShare, nodes)) {
+            this.shared.dualBoundFound(this.member, this.getDualBound(incumbent));
+        }
+
+        if (System.nanoTime() - this.start >= this.limits.getTimeLimitNanos()) {
+            status = SearchStatus.TIME_LIMIT;
+        } else if (nodes >= this.limits.getNodeLimit()) {
+            status = SearchStatus.NODE_LIMIT;
+        } else if (this.limits.hasGapLimit() && incumbent != -Solver.INF
+                && (this.incumbentChanged.getAndSet(false) || this.isDue(this.nextGapCheck, nodes))) {
+            double dualBound = this.getDualBound(incumbent);
+
+            if (dualBound - incumbent <= this.limits.getAbsoluteGap()
+                    || SearchResult.relativeGap(incumbent, dualBound) <= this.limits.getRelativeGap()) {
+                status = SearchStatus.GAP_LIMIT;
+            }
+        }
+
+        if (status == null) {
+            return false;
+        }
+
+        this.limitStatus.compareAndSet(null, status);
+        return true;
+    }
+
+    private boolean isDue(AtomicLong nextCheck, long nodes) {
+        long next = nextCheck.get();
+        return nodes >= next && nextCheck.compareAndSet(next, nodes + GAP_CHECK_INTERVAL);
+    }
+
+    // The portfolio's incumbent when it beats `incumbent`, which the caller
+    // should then adopt; null otherwise or outside a portfolio
+    public Result getSharedIncumbent(double incumbent) {
+        if (this.shared == null) {
+            return null;
+        }
+
+        Result result = this.shared.getIncumbent();
+        return result.getObjectiveValue() > incumbent ? result : null;
+    }
+
+    // Reports `incumbent` unless a better one was reported already, which
+    // happens when workers improve the incumbent at the same time
+    public synchronized void incumbentFound(Result incumbent) {
+        if (incumbent.getObjectiveValue() <= this.lastReported) {
+            return;
+        }
+
+        if (this.shared != null) {
+            this.shared.incumbentFound(incumbent);
+        }
+
+        this.lastReported = incumbent.getObjectiveValue();
+        this.incumbentChanged.set(true);
+
+        if (this.listener != null) {
+            this.listener.incumbentFound(new IncumbentEvent(incumbent,
+                    this.getDualBound(incumbent.getObjectiveValue()),
+                    this.nodes.get(),
+                    this.getElapsedNanos()));
+        }
+    }
+
+    public SearchResult createResult(Result incumbent) {
+        double value = incumbent.getObjectiveValue();
+        SearchStatus status = this.limitStatus.get();
+        double dualBound = value;
+
+        if (status == null) {
+            status = value == Solver.INF
+                    ? SearchStatus.UNBOUNDED
+                    : value == -Solver.INF ? SearchStatus.INFEASIBLE : SearchStatus.OPTIMAL;
+        } else {
+            dualBound = this.getDualBound(value);
+
+            // A gap limit that closed the gap completely has proven optimality
+            if (status == SearchStatus.GAP_LIMIT && dualBound <= value) {
+                status = SearchStatus.OPTIMAL;
+            }
+        }
+
+        return new SearchResult(incumbent.getSolution(), value, status, dualBound, this.nodes.get(),
+                this.getElapsedNanos());
+    }
+
+    // Writes a checkpoint when one is due; only one of the workers calling this does
+    public void checkpointIfDue(Result incumbent) throws IOException {
+        if (this.checkpoints != null && this.checkpoints.claim()) {
+            this.writeCheckpoint(incumbent, false);
+        }
+    }
+
+    // The last checkpoint of a run, synced to disk
+    public void checkpoint(Result incumbent) throws IOException {
+        if (this.checkpoints != null) {
+            this.writeCheckpoint(incumbent, true);
+        }
+    }
+
+    private void writeCheckpoint(Result incumbent, boolean sync) throws IOException {
+        List<BranchNode> openNodes = new ArrayList<>();
+
+        synchronized (this.boundLock) {
+            for (NodeQueue queue : this.queues) {
+                openNodes.addAll(queue.snapshot());
+            }
+
+            for (BranchNode node : this.activeNodes) {
+                if (node != null) {
+                    openNodes.add(node);
+                }
+            }
+        }
+
+        this.checkpoints.write(new Checkpoint(openNodes, incumbent, this.getDualBound(incumbent.getObjectiveValue()),
+                this.nodes.get(), this.getElapsedNanos()), sync);
+    }
+}
@@ -0,0 +1,110 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.SearchListener;
+
+// How branch and bound searches, past the LP solver and tolerance. Immutable;
+// the with* methods return a copy with one option changed. The execution
+// mode only applies to the parallel solver.
+public class SearchOptions {
+    public static final SearchOptions DEFAULT = new SearchOptions(NodeSelectionStrategy.DEPTH_FIRST,
+            BranchingStrategy.MOST_FRACTIONAL, PrimalHeuristics.NONE, SearchLimits.NONE, null, null,
+            NodeStorage.IN_MEMORY, ExecutionMode.PLATFORM_THREADS);
+
+    private final NodeSelectionStrategy nodeSelectionStrategy;
+    private final BranchingStrategy branchingStrategy;
+    private final PrimalHeuristics primalHeuristics;
+    private final SearchLimits searchLimits;
+    private final SearchListener listener;
+    private final Checkpointing checkpointing;
+    private final NodeStorage nodeStorage;
+    private final ExecutionMode executionMode;
+
+    private SearchOptions(NodeSelectionStrategy nodeSelectionStrategy, BranchingStrategy branchingStrategy,
+            PrimalHeuristics primalHeuristics, SearchLimits searchLimits, SearchListener listener,
+            Checkpointing checkpointing, NodeStorage nodeStorage, ExecutionMode executionMode) {
+        this.nodeSelectionStrategy = nodeSelectionStrategy;
+        this.branchingStrategy = branchingStrategy;
+        this.primalHeuristics = primalHeuristics;
+        this.searchLimits = searchLimits;
+        this.listener = listener;
+        this.checkpointing = checkpointing;
+        this.nodeStorage = nodeStorage;
+        this.executionMode = executionMode;
+    }
+
+    public SearchOptions withNodeSelectionStrategy(NodeSelectionStrategy nodeSelectionStrategy) {
+        return new SearchOptions(nodeSelectionStrategy, this.branchingStrategy, this.primalHeuristics,
+                this.searchLimits, this.listener, this.checkpointing, this.nodeStorage, this.executionMode);
+    }
+
+    public SearchOptions withBranchingStrategy(BranchingStrategy branchingStrategy) {
+        return new SearchOptions(this.nodeSelectionStrategy, branchingStrategy, this.primalHeuristics,
+                this.searchLimits, this.listener, this.checkpointing, this.nodeStorage, this.executionMode);
+    }
+
+    public SearchOptions withPrimalHeuristics(PrimalHeuristics primalHeuristics) {
+        return new SearchOptions(this.nodeSelectionStrategy, this.branchingStrategy, primalHeuristics,
+                this.searchLimits, this.listener, this.checkpointing, this.nodeStorage, this.executionMode);
+    }
+
+    public SearchOptions withSearchLimits(SearchLimits searchLimits) {
+        return new SearchOptions(this.nodeSelectionStrategy, this.branchingStrategy, this.primalHeuristics,
+                searchLimits, this.listener, this.checkpointing, this.nodeStorage, this.executionMode);
+    }
+
+    // `listener` may be null
+    public SearchOptions withListener(SearchListener listener) {
+        return new SearchOptions(this.nodeSelectionStrategy, this.branchingStrategy, this.primalHeuristics,
+                this.searchLimits, listener, this.checkpointing, this.nodeStorage, this.executionMode);
+    }
+
+    // `checkpointing` may be null
+    public SearchOptions withCheckpointing(Checkpointing checkpointing) {
+        return new SearchOptions(this.nodeSelectionStrategy, this.branchingStrategy, this.primalHeuristics,
+                this.searchLimits, this.listener, checkpointing, this.nodeStorage, this.executionMode);
+    }
+
+    // The parallel solver gives every worker's queue its own in memory nodes
+    // and spill files
+    public SearchOptions withNodeStorage(NodeStorage nodeStorage) {
+        return new SearchOptions(this.nodeSelectionStrategy, this.branchingStrategy, this.primalHeuristics,
+                this.searchLimits, this.listener, this.checkpointing, nodeStorage, this.executionMode);
+    }
+
+    public SearchOptions withExecutionMode(ExecutionMode executionMode) {
+        return new SearchOptions(this.nodeSelectionStrategy, this.branchingStrategy, this.primalHeuristics,
+                this.searchLimits, this.listener, this.checkpointing, this.nodeStorage, executionMode);
+    }
+
+    public NodeSelectionStrategy getNodeSelectionStrategy() {
+        return this.nodeSelectionStrategy;
+    }
+
+    public BranchingStrategy getBranchingStrategy() {
+        return this.branchingStrategy;
+    }
+
+    public PrimalHeuristics getPrimalHeuristics() {
+        return this.primalHeuristics;
+    }
+
+    public SearchLimits getSearchLimits() {
+        return this.searchLimits;
+    }
+
+    public SearchListener getListener() {
+        return this.listener;
+    }
+
+    public Checkpointing getCheckpointing() {
+        return this.checkpointing;
+    }
+
+    public NodeStorage getNodeStorage() {
+        return this.nodeStorage;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return this.executionMode;
+    }
+}
@@ -0,0 +1,86 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.Incumbent;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+// What the members of a portfolio share: the best incumbent any of them
+// found and the dual bound each of them last proved. Every member's bound
+// holds for the whole problem, so the lowest one does too, and once the
+// incumbent reaches it the portfolio has proven optimality even if no
+// single member has.
+class SharedSearch {
+    private final Incumbent incumbent;
+    private final AtomicLongArray dualBounds;
+    private final AtomicBoolean finished;
+    private final AtomicBoolean proven;
+
+    SharedSearch(int members) {
+        this.incumbent = new Incumbent(new Result(null, -Solver.INF));
+        this.dualBounds = new AtomicLongArray(members);
+        this.finished = new AtomicBoolean();
+        this.proven = new AtomicBoolean();
+
+        for (int i = 0; i < members; i++) {
+            this.dualBounds.set(i, Double.doubleToLongBits(Solver.INF));
+        }
+    }
+
+    Result getIncumbent() {
+        return this.incumbent.getValue();
+    }
+
+    void incumbentFound(Result result) {
+        if (this.incumbent.offer(result)) {
+            this.checkGap();
+        }
+    }
+
+    // A member's bound only tightens, so a stale, looser one is ignored
+    void dualBoundFound(int member, double bound) {
+        this.dualBounds.accumulateAndGet(member, Double.doubleToLongBits(bound),
+                (previous, next) -> Double.longBitsToDouble(previous) <= Double.longBitsToDouble(next) ? previous
+                        : next);
+        this.checkGap();
+    }
+
+    double getDualBound() {
+        double bound = Solver.INF;
+
+        for (int i = 0; i < this.dualBounds.length(); i++) {
+            bound = Math.min(bound, Double.longBitsToDouble(this.dualBounds.get(i)));
+        }
+
+        return bound;
+    }
+
+    // Called when a member proves the answer on its own
+    void proven() {
+        this.proven.set(true);
+        this.finished.set(true);
+    }
+
+    // Stops the members without a proof, on cancellation
+    void finish() {
+        this.finished.set(true);
+    }
+
+    boolean isFinished() {
+        return this.finished.get();
+    }
+
+    boolean isProven() {
+        return this.proven.get();
+    }
+
+    private void checkGap() {
+        double value = this.incumbent.getObjectiveValue();
+
+        if (value != -Solver.INF && value >= this.getDualBound()) {
+            this.proven();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.PrimalHeuristic;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+// Rounds every fractional variable in a direction no row blocks, which keeps
+// the LP solution feasible; costs no LP solves, but fails as soon as one
+// variable is locked both ways
+public class SimpleRoundingHeuristic implements PrimalHeuristic {
+    @Override
+    public Result run(Problem problem, Result relaxation, double incumbent, double tolerance) {
+        double[] solution = relaxation.getSolution().clone();
+        double[] objective = problem.getObjectiveFunctionMultipliers().toRawVector();
+        int[][] locks = PrimalSolutions.getLocks(problem);
+
+        for (int j = 0; j < solution.length; j++) {
+            if (Math.abs(solution[j] - Math.rint(solution[j])) <= tolerance) {
+                continue;
+            }
+
+            boolean canRoundDown = locks[0][j] == 0;
+            boolean canRoundUp = locks[1][j] == 0;
+
+            if (!canRoundDown && !canRoundUp) {
+                return null;
+            }
+
+            // When both directions are safe the objective decides
+            solution[j] = canRoundUp && (!canRoundDown || objective[j] > 0)
+                    ? Math.ceil(solution[j])
+                    : Math.floor(solution[j]);
+        }
+
+        return PrimalSolutions.toResult(problem, solution, tolerance);
+    }
+}
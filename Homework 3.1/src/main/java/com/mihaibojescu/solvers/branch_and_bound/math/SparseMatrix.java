@@ -0,0 +1,276 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+
+public class SparseMatrix {
+    private final int rows;
+    private final int cols;
+
+    // Compressed row storage, the canonical representation
+    private final int[] rowStarts;
+    private final int[] columnIndices;
+    private final double[] rowValues;
+
+    // Compressed column storage, built on first use
+    private volatile int[] columnStarts;
+    private int[] rowIndices;
+    private double[] columnValues;
+
+    public SparseMatrix(int rows, int cols, int[] rowStarts, int[] columnIndices, double[] values)
+            throws IllegalArgumentException {
+        if (rowStarts.length != rows + 1 || columnIndices.length != values.length
+                || rowStarts[rows] != values.length) {
+            throw new IllegalArgumentException(
+                    MessageFormat.format("Invalid compressed row storage for a ({0}, {1}) matrix", rows, cols));
+        }
+
+        this.rows = rows;
+        this.cols = cols;
+        this.rowStarts = rowStarts;
+        this.columnIndices = columnIndices;
+        this.rowValues = values;
+    }
+
+    public SparseMatrix(Matrix matrix) {
+        double[][] data = matrix.toRawMatrix();
+        int nonZeros = 0;
+
+        this.rows = matrix.getNumberOfRows();
+        this.cols = matrix.getNumberOfColumns();
+
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.cols; j++) {
+                if (data[i][j] != 0.0) {
+                    nonZeros++;
+                }
+            }
+        }
+
+        this.rowStarts = new int[this.rows + 1];
+        this.columnIndices = new int[nonZeros];
+        this.rowValues = new double[nonZeros];
+
+        int position = 0;
+
+        for (int i = 0; i < this.rows; i++) {
+            this.rowStarts[i] = position;
+
+            for (int j = 0; j < this.cols; j++) {
+                if (data[i][j] != 0.0) {
+                    this.columnIndices[position] = j;
+                    this.rowValues[position++] = data[i][j];
+                }
+            }
+        }
+
+        this.rowStarts[this.rows] = position;
+    }
+
+    public int getNumberOfRows() {
+        return this.rows;
+    }
+
+    public int getNumberOfColumns() {
+        return this.cols;
+    }
+
+    public int getNumberOfNonZeros() {
+        return this.rowValues.length;
+    }
+
+    public int[] getRowStarts() {
+        return this.rowStarts;
+    }
+
+    public int[] getRowColumnIndices() {
+        return this.columnIndices;
+    }
+
+    public double[] getRowValues() {
+        return this.rowValues;
+    }
+
+    public int[] getColumnStarts() {
+        this.buildColumnStorage();
+        return this.columnStarts;
+    }
+
+    public int[] getColumnRowIndices() {
+        this.buildColumnStorage();
+        return this.rowIndices;
+    }
+
+    public double[] getColumnValues() {
+        this.buildColumnStorage();
+        return this.columnValues;
+    }
+
+    public double get(int row, int col) throws IllegalArgumentException {
+        if (row < 0 || row >= this.rows || col < 0 || col >= this.cols) {
+            throw new IllegalArgumentException(
+                    MessageFormat.format("Index out of range: ({0}, {1}) must be between (0, 0) and ({2}, {3})", row,
+                            col, this.rows - 1, this.cols - 1));
+        }
+
+        int index = Arrays.binarySearch(this.columnIndices, this.rowStarts[row], this.rowStarts[row + 1], col);
+        return index >= 0 ? this.rowValues[index] : 0.0;
+    }
+
+    public double[] getRow(int row) throws IllegalArgumentException {
+        if (row < 0 || row >= this.rows) {
+            throw new IllegalArgumentException(
+                    MessageFormat.format("Index out of range: Row {0} must be between 0 and {1}", row, this.rows - 1));
+        }
+
+        double[] result = new double[this.cols];
+
+        for (int k = this.rowStarts[row]; k < this.rowStarts[row + 1]; k++) {
+            result[this.columnIndices[k]] = this.rowValues[k];
+        }
+
+        return result;
+    }
+
+    public double[] getColumn(int col) throws IllegalArgumentException {
+        if (col < 0 || col >= this.cols) {
+            throw new IllegalArgumentException(
+                    MessageFormat.format("Index out of range: Column {0} must be between 0 and {1}", col,
+                            this.cols - 1));
+        }
+
+        this.buildColumnStorage();
+
+        double[] result = new double[this.rows];
+
+        for (int k = this.columnStarts[col]; k < this.columnStarts[col + 1]; k++) {
+            result[this.rowIndices[k]] = this.columnValues[k];
+        }
+
+        return result;
+    }
+
+    public SparseMatrix addRow(double[] data) throws IllegalArgumentException {
+        if (data.length != this.cols) {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "The number of elements of the new row must match the number of columns: {0} is different than {1}",
+                    data.length, this.cols - 1));
+        }
+
+        int nonZeros = 0;
+
+        for (double value : data) {
+            if (value != 0.0) {
+                nonZeros++;
+            }
+        }
+
+        int[] newRowStarts = Arrays.copyOf(this.rowStarts, this.rows + 2);
+        int[] newColumnIndices = Arrays.copyOf(this.columnIndices, this.columnIndices.length + nonZeros);
+        double[] newValues = Arrays.copyOf(this.rowValues, this.rowValues.length + nonZeros);
+        int position = this.rowValues.length;
+
+        for (int j = 0; j < this.cols; j++) {
+            if (data[j] != 0.0) {
+                newColumnIndices[position] = j;
+                newValues[position++] = data[j];
+            }
+        }
+
+        newRowStarts[this.rows + 1] = position;
+
+        return new SparseMatrix(this.rows + 1, this.cols, newRowStarts, newColumnIndices, newValues);
+    }
+
+    public int findIndexOfRow(double[] data) throws IllegalArgumentException {
+        if (data.length != this.cols) {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "The number of elements of the row must match the number of columns: {0} is different than {1}",
+                    data.length, this.cols - 1));
+        }
+
+        int nonZeros = 0;
+
+        for (double value : data) {
+            if (value != 0.0) {
+                nonZeros++;
+            }
+        }
+
+        for (int i = 0; i < this.rows; i++) {
+            if (this.rowStarts[i + 1] - this.rowStarts[i] != nonZeros) {
+                continue;
+            }
+
+            boolean exists = true;
+
+            for (int k = this.rowStarts[i]; k < this.rowStarts[i + 1]; k++) {
+                if (data[this.columnIndices[k]] != this.rowValues[k]) {
+                    exists = false;
+                    break;
+                }
+            }
+
+            if (exists) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    public boolean doesRowExist(double[] data) {
+        return this.findIndexOfRow(data) != -1;
+    }
+
+    public Matrix toMatrix() {
+        Matrix matrix = new Matrix(this.rows, this.cols);
+        double[][] data = matrix.toRawMatrix();
+
+        for (int i = 0; i < this.rows; i++) {
+            for (int k = this.rowStarts[i]; k < this.rowStarts[i + 1]; k++) {
+                data[i][this.columnIndices[k]] = this.rowValues[k];
+            }
+        }
+
+        return matrix;
+    }
+
+    private void buildColumnStorage() {
+        if (this.columnStarts != null) {
+            return;
+        }
+
+        synchronized (this) {
+            if (this.columnStarts != null) {
+                return;
+            }
+
+            int[] starts = new int[this.cols + 1];
+            int[] indices = new int[this.rowValues.length];
+            double[] values = new double[this.rowValues.length];
+
+            for (int k = 0; k < this.columnIndices.length; k++) {
+                starts[this.columnIndices[k] + 1]++;
+            }
+
+            for (int j = 0; j < this.cols; j++) {
+                starts[j + 1] += starts[j];
+            }
+
+            int[] next = Arrays.copyOf(starts, this.cols);
+
+            for (int i = 0; i < this.rows; i++) {
+                for (int k = this.rowStarts[i]; k < this.rowStarts[i + 1]; k++) {
+                    int position = next[this.columnIndices[k]]++;
+                    indices[position] = i;
+                    values[position] = this.rowValues[k];
+                }
+            }
+
+            this.rowIndices = indices;
+            this.columnValues = values;
+            this.columnStarts = starts;
+        }
+    }
+}
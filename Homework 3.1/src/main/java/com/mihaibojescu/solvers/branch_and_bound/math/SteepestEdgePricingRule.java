@@ -0,0 +1,41 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.PricingRule;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.SimplexTableau;
+
+public class SteepestEdgePricingRule implements PricingRule {
+    private static final double TOLERANCE = 1.0E-8;
+    private static final int WORK_PER_TASK = 1 << 15;
+
+    @Override
+    public void initialize(SimplexTableau tableau) {
+    }
+
+    // The tableau column of j is the edge direction of the basic variables, so
+    // its exact norm is available without any recurrence
+    @Override
+    public int findEnteringColumn(SimplexTableau tableau, int objectiveRow) {
+        int grain = Math.max(1, WORK_PER_TASK / (tableau.getNumberOfConstraints() + 1));
+
+        return ParallelReductions.argmax(tableau.getForkJoinPool(), tableau.getNumberOfCandidateColumns(), grain, j -> {
+            double reducedCost = tableau.getValue(objectiveRow, j);
+
+            if (reducedCost <= TOLERANCE) {
+                return Double.NEGATIVE_INFINITY;
+            }
+
+            double norm = 1.0;
+
+            for (int i = 0; i < tableau.getNumberOfConstraints(); i++) {
+                double value = tableau.getValue(i, j);
+                norm += value * value;
+            }
+
+            return reducedCost * reducedCost / norm;
+        });
+    }
+
+    @Override
+    public void update(SimplexTableau tableau, int leavingRow, int enteringColumn) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.util.List;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.BranchingRule;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+// Solves both children of the most fractional candidates and branches on
+// the one that degrades the objective most; the best decisions, at the
+// price of two extra LPs per candidate
+public class StrongBranchingRule implements BranchingRule {
+    public static final int DEFAULT_CANDIDATES = 8;
+
+    private final Solver solver;
+    private final int candidates;
+
+    public StrongBranchingRule(Solver solver) {
+        this(solver, DEFAULT_CANDIDATES);
+    }
+
+    public StrongBranchingRule(Solver solver, int candidates) throws IllegalArgumentException {
+        if (candidates < 1) {
+            throw new IllegalArgumentException(String.format("Candidates must be >= 1, but is %d", candidates));
+        }
+
+        this.solver = solver;
+        this.candidates = candidates;
+    }
+
+    @Override
+    public int selectVariable(Problem problem, Result result, double tolerance) throws Exception {
+        List<Integer> candidates = BranchingScores.getCandidates(result.getSolution(), tolerance);
+        int best = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+
+        for (int j : candidates.subList(0, Math.min(this.candidates, candidates.size()))) {
+            double score = BranchingScores.score(
+                    BranchingScores.trialDegradation(this.solver, problem, result, j, false),
+                    BranchingScores.trialDegradation(this.solver, problem, result, j, true));
+
+            if (score > bestScore) {
+                bestScore = score;
+                best = j;
+            }
+        }
+
+        return best;
+    }
+
+    @Override
+    public void update(int variable, boolean up, double distance, double degradation) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.TableauStorage;
+
+public enum TableauStorageType {
+    HEAP,
+    // Needs --add-modules jdk.incubator.foreign at run time
+    OFF_HEAP;
+
+    public TableauStorage create(long size) {
+        switch (this) {
+            case OFF_HEAP:
+                return new OffHeapTableauStorage(size);
+            default:
+                return new HeapTableauStorage(size);
+        }
+    }
+}
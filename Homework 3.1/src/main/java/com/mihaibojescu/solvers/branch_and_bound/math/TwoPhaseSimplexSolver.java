@@ -1,87 +1,196 @@
 package com.mihaibojescu.solvers.branch_and_bound.math;
 
-public class TwoPhaseSimplexSolver {
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.PricingRule;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.SimplexTableau;
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.TableauStorage;
+
+public class TwoPhaseSimplexSolver implements SimplexTableau, AutoCloseable {
     private static final double TOLERANCE = 1.0E-8;
 
-    private final double[][] tableau;
+    // Below this many updated entries a pivot is cheaper than forking tasks
+    private static final int PARALLEL_WORK_THRESHOLD = 1 << 16;
+    private static final int RATIO_TEST_GRAIN = 8192;
+
+    // Row-major (numConstraints + 2) x width tableau; the last column holds the right-hand sides
+    private final TableauStorage tableau;
+    private final int width;
+    private final int rhsColumn;
+
+    // Scratch list of the nonzero columns of the current pivot row
+    private final int[] pivotColumns;
 
     private final int numConstraints;
     private final int numVariables;
 
+    // Only rows with a negative right-hand side get an artificial variable
+    private final int numArtificials;
+
     private final int[] basis;
+    private final PricingRule pricingRule;
+    private final ForkJoinPool pool;
 
     private boolean isFeasible;
     private boolean isUnbounded;
+    private int numberOfPivots;
 
     public TwoPhaseSimplexSolver(double[][] coefficients, double[] rhs, double[] objective) {
+        this(new SparseMatrix(new Matrix(coefficients)), rhs, objective);
+    }
+
+    public TwoPhaseSimplexSolver(SparseMatrix coefficients, double[] rhs, double[] objective) {
+        this(coefficients, rhs, objective, new FirstImprovingPricingRule());
+    }
+
+    public TwoPhaseSimplexSolver(SparseMatrix coefficients, double[] rhs, double[] objective,
+            PricingRule pricingRule) {
+        this(coefficients, rhs, objective, pricingRule, null);
+    }
+
+    // With a pool, large pivots split the row elimination across it, and the
+    // ratio test and pricing run as parallel reductions
+    public TwoPhaseSimplexSolver(SparseMatrix coefficients, double[] rhs, double[] objective,
+            PricingRule pricingRule, ForkJoinPool pool) {
+        this(coefficients, rhs, objective, pricingRule, pool, TableauStorageType.HEAP);
+    }
+
+    // Off-heap storage must be released with close() once the solution has been read
+    public TwoPhaseSimplexSolver(SparseMatrix coefficients, double[] rhs, double[] objective,
+            PricingRule pricingRule, ForkJoinPool pool, TableauStorageType storageType) {
         numConstraints = rhs.length;
         numVariables = objective.length;
-        tableau = new double[numConstraints + 2][numVariables + numConstraints + numConstraints + 1];
+        numArtificials = countNegative(rhs);
+        width = numVariables + numConstraints + numArtificials + 1;
+        rhsColumn = width - 1;
+        tableau = storageType.create((long) (numConstraints + 2) * width);
+        pivotColumns = new int[width];
+        basis = new int[numConstraints];
+        this.pricingRule = pricingRule;
+        this.pool = pool;
         isFeasible = true;
         isUnbounded = false;
+        numberOfPivots = 0;
 
         // Initialize tableau and basis
         initializeTableau(coefficients, rhs, objective);
-        basis = new int[numConstraints];
-        for (int i = 0; i < numConstraints; i++) {
-            basis[i] = numVariables + numConstraints + i;
-        }
+    }
+
+    private long offset(int row) {
+        return (long) row * width;
+    }
+
+    private static int countNegative(double[] values) {
+        int count = 0;
+        for (double value : values)
+            if (value < 0) count++;
+        return count;
     }
 
     public double getTableauValue(int row, int col) {
-        return tableau[row][col];
+        return tableau.get((long) row * width + col);
     }
 
     public int getNumColumns() {
-        return tableau[0].length;
+        return width;
+    }
+
+    @Override
+    public double getValue(int row, int col) {
+        return tableau.get((long) row * width + col);
+    }
+
+    @Override
+    public int getNumberOfConstraints() {
+        return numConstraints;
     }
 
-    private void initializeTableau(double[][] coefficients, double[] rhs, double[] objective) {
+    @Override
+    public int getNumberOfCandidateColumns() {
+        return numVariables + numConstraints;
+    }
+
+    @Override
+    public int getBasicColumn(int row) {
+        return basis[row];
+    }
+
+    @Override
+    public ForkJoinPool getForkJoinPool() {
+        return pool;
+    }
+
+    public int getNumberOfPivots() {
+        return numberOfPivots;
+    }
+
+    @Override
+    public void close() {
+        tableau.close();
+    }
+
+    private void initializeTableau(SparseMatrix coefficients, double[] rhs, double[] objective) {
         // Fill coefficients
+        int[] rowStarts = coefficients.getRowStarts();
+        int[] columnIndices = coefficients.getRowColumnIndices();
+        double[] values = coefficients.getRowValues();
+
         for (int i = 0; i < numConstraints; i++) {
-            for (int j = 0; j < numVariables; j++) {
-                tableau[i][j] = coefficients[i][j];
+            for (int k = rowStarts[i]; k < rowStarts[i + 1]; k++) {
+                tableau.set(offset(i) + columnIndices[k], values[k]);
             }
         }
 
         // Slack variables
         for (int i = 0; i < numConstraints; i++) {
-            tableau[i][numVariables + i] = 1.0;
+            tableau.set(offset(i) + numVariables + i, 1.0);
         }
 
         // Right-hand sides
         for (int i = 0; i < numConstraints; i++) {
-            tableau[i][numVariables + numConstraints + numConstraints] = rhs[i];
+            tableau.set(offset(i) + rhsColumn, rhs[i]);
         }
 
         // Objective function
         for (int j = 0; j < numVariables; j++) {
-            tableau[numConstraints][j] = objective[j];
+            tableau.set(offset(numConstraints) + j, objective[j]);
         }
 
-        // Handle artificial variables and Phase 1 objective
+        // The slack basis is feasible for rows with b >= 0. The others are
+        // negated and start with an artificial basic variable, and the Phase 1
+        // objective (maximize minus the sum of the artificials) is expressed in
+        // terms of the nonbasic variables by adding those rows up.
+        int artificial = numVariables + numConstraints;
+        long phase1Offset = offset(numConstraints + 1);
+
         for (int i = 0; i < numConstraints; i++) {
-            if (rhs[i] < 0) {
-                tableau[i][numVariables + numConstraints + numConstraints] = -rhs[i];
-                for (int j = 0; j <= numVariables; j++) {
-                    tableau[i][j] = -tableau[i][j];
-                }
-                tableau[i][numVariables + i] = -1.0;
+            if (rhs[i] >= 0) {
+                basis[i] = numVariables + i;
+                continue;
             }
-        }
 
-        for (int i = 0; i < numConstraints; i++) {
-            tableau[i][numVariables + numConstraints + i] = 1.0;
-        }
+            long rowOffset = offset(i);
+            for (int j = 0; j < numVariables + numConstraints; j++) {
+                tableau.set(rowOffset + j, -tableau.get(rowOffset + j));
+            }
+            tableau.set(rowOffset + rhsColumn, -rhs[i]);
+            tableau.set(rowOffset + artificial, 1.0);
+            basis[i] = artificial++;
 
-        for (int i = 0; i < numConstraints; i++) {
-            tableau[numConstraints + 1][numVariables + numConstraints + i] = -1.0;
+            for (int j = 0; j < numVariables + numConstraints; j++) {
+                tableau.set(phase1Offset + j, tableau.get(phase1Offset + j) + tableau.get(rowOffset + j));
+            }
+            tableau.set(phase1Offset + rhsColumn, tableau.get(phase1Offset + rhsColumn) + tableau.get(rowOffset + rhsColumn));
         }
     }
 
     public double[] solve() {
         try {
-            phase1();
+            if (numArtificials > 0) {
+                crash();
+                phase1();
+            }
             if (isFeasible) {
                 phase2();
             }
@@ -104,7 +213,45 @@ public class TwoPhaseSimplexSolver {
         return isUnbounded;
     }
 
+    // Replaces artificial basic variables with structural ones where that
+    // keeps the basis primal feasible, i.e. where the artificial's row wins
+    // the ratio test for the structural column; the largest such pivot
+    // element is preferred for stability
+    private void crash() {
+        for (int row = 0; row < numConstraints; row++) {
+            if (!isArtificial(basis[row])) continue;
+
+            int enteringColumn = -1;
+            double best = TOLERANCE;
+
+            for (int j = 0; j < numVariables; j++) {
+                double value = tableau.get(offset(row) + j);
+                if (value > best && isRatioTestWinner(row, j)) {
+                    best = value;
+                    enteringColumn = j;
+                }
+            }
+
+            if (enteringColumn == -1) continue;
+
+            pivot(row, enteringColumn);
+            numberOfPivots++;
+            basis[row] = enteringColumn;
+        }
+    }
+
+    private boolean isRatioTestWinner(int row, int column) {
+        double ratio = tableau.get(offset(row) + rhsColumn) / tableau.get(offset(row) + column);
+        for (int i = 0; i < numConstraints; i++) {
+            double value = tableau.get(offset(i) + column);
+            if (i != row && value > TOLERANCE && tableau.get(offset(i) + rhsColumn) / value < ratio) return false;
+        }
+        return true;
+    }
+
     private void phase1() {
+        pricingRule.initialize(this);
+
         while (true) {
             int enteringColumn = findEnteringColumnPhase1();
             if (enteringColumn == -1) break;
@@ -114,11 +261,13 @@ public class TwoPhaseSimplexSolver {
                 throw new ArithmeticException("Linear program is infeasible");
             }
 
+            pricingRule.update(this, leavingRow, enteringColumn);
             pivot(leavingRow, enteringColumn);
+            numberOfPivots++;
             basis[leavingRow] = enteringColumn;
         }
 
-        if (tableau[numConstraints + 1][numVariables + numConstraints + numConstraints] > TOLERANCE) {
+        if (tableau.get(offset(numConstraints + 1) + rhsColumn) > TOLERANCE) {
             isFeasible = false;
         }
 
@@ -126,6 +275,8 @@ public class TwoPhaseSimplexSolver {
     }
 
     private void phase2() {
+        pricingRule.initialize(this);
+
         while (true) {
             int enteringColumn = findEnteringColumnPhase2();
             if (enteringColumn == -1) break;
@@ -135,7 +286,9 @@ public class TwoPhaseSimplexSolver {
                 throw new ArithmeticException("Linear program is unbounded");
             }
 
+            pricingRule.update(this, leavingRow, enteringColumn);
             pivot(leavingRow, enteringColumn);
+            numberOfPivots++;
             basis[leavingRow] = enteringColumn;
         }
     }
@@ -147,7 +300,7 @@ public class TwoPhaseSimplexSolver {
                 boolean pivoted = false;
 
                 for (int j = 0; j < numVariables + numConstraints; j++) {
-                    if (!isArtificial(j) && tableau[i][j] != 0) {
+                    if (!isArtificial(j) && tableau.get(offset(i) + j) != 0) {
                         pivot(i, j);
                         basis[i] = j;
                         pivoted = true;
@@ -163,72 +316,124 @@ public class TwoPhaseSimplexSolver {
     }
 
     private boolean isArtificial(int variableIndex) {
-        return variableIndex >= numVariables + numConstraints;
+        return variableIndex >= numVariables + numConstraints && variableIndex < rhsColumn;
     }
 
     private void removeRowAndColumn(int rowIndex, int colIndex) {
         for (int i = 0; i <= numConstraints + 1; i++) {
-            tableau[i][colIndex] = 0;
+            tableau.set(offset(i) + colIndex, 0);
         }
 
-        for (int j = 0; j <= numVariables + numConstraints + numConstraints; j++) {
-            tableau[rowIndex][j] = 0;
+        for (int j = 0; j <= rhsColumn; j++) {
+            tableau.set(offset(rowIndex) + j, 0);
         }
     }
 
     private int findEnteringColumnPhase1() {
-        for (int j = 0; j < numVariables+numConstraints; j++)
-            if (tableau[numConstraints+1][j] > TOLERANCE) return j;
-        return -1;  // Optimal solution for Phase 1
+        return pricingRule.findEnteringColumn(this, numConstraints+1);  // -1: optimal solution for Phase 1
     }
 
     private int findEnteringColumnPhase2() {
-        for (int j = 0; j < numVariables+numConstraints; j++)
-            if (tableau[numConstraints][j] > TOLERANCE) return j;
-        return -1;  // Optimal solution for Phase 2
+        return pricingRule.findEnteringColumn(this, numConstraints);  // -1: optimal solution for Phase 2
     }
 
     private int findLeavingRow(int enteringColumn) {
-        int leavingRow = -1;
-        for (int i = 0; i < numConstraints; i++) {
-            if (tableau[i][enteringColumn] <= TOLERANCE) continue;
-            else if (leavingRow == -1) leavingRow = i;
-            else if ((tableau[i][numVariables+numConstraints+numConstraints] / tableau[i][enteringColumn])
-                    < (tableau[leavingRow][numVariables+numConstraints+numConstraints] / tableau[leavingRow][enteringColumn]))
-                leavingRow = i;
-        }
-        return leavingRow;
+        // Smallest ratio wins, ties go to the first row
+        return ParallelReductions.argmax(pool, numConstraints, RATIO_TEST_GRAIN, i -> {
+            double value = tableau.get(offset(i) + enteringColumn);
+            return value > TOLERANCE ? -(tableau.get(offset(i) + rhsColumn) / value) : Double.NEGATIVE_INFINITY;
+        });
     }
 
     private void pivot(int leavingRow, int enteringColumn) {
-        for (int i = 0; i <= numConstraints+1; i++)
-            for (int j = 0; j <= numVariables+numConstraints+numConstraints; j++)
-                if (i != leavingRow && j != enteringColumn)
-                    tableau[i][j] -= tableau[leavingRow][j] * (tableau[i][enteringColumn] / tableau[leavingRow][enteringColumn]);
+        long pivotOffset = offset(leavingRow);
+        double pivotValue = tableau.get(pivotOffset + enteringColumn);
+
+        // Only the nonzero columns of the pivot row can change in the other rows
+        int count = 0;
+        for (int j = 0; j < width; j++)
+            if (j != enteringColumn && tableau.get(pivotOffset + j) != 0.0) pivotColumns[count++] = j;
+
+        int rows = numConstraints + 2;
+        if (pool != null && (long) rows * count >= PARALLEL_WORK_THRESHOLD) {
+            int rowsPerTask = Math.max(1, PARALLEL_WORK_THRESHOLD / Math.max(count, 1));
+            pool.invoke(new EliminationTask(0, rows, rowsPerTask, leavingRow, enteringColumn, count));
+        } else {
+            eliminateRows(0, rows, leavingRow, enteringColumn, count);
+        }
+
+        for (int k = 0; k < count; k++) {
+            long index = pivotOffset + pivotColumns[k];
+            tableau.set(index, tableau.get(index) / pivotValue);
+        }
+        tableau.set(pivotOffset + enteringColumn, 1.0);
+    }
+
+    private void eliminateRows(int from, int to, int leavingRow, int enteringColumn, int count) {
+        long pivotOffset = offset(leavingRow);
+        double pivotValue = tableau.get(pivotOffset + enteringColumn);
 
-        for (int i = 0; i <= numConstraints+1; i++)
-            if (i != leavingRow) tableau[i][enteringColumn] = 0.0;
+        for (int i = from; i < to; i++) {
+            long offset = offset(i);
+            double entering = tableau.get(offset + enteringColumn);
+            if (i == leavingRow || entering == 0.0) continue;
 
-        for (int j = 0; j <= numVariables+numConstraints+numConstraints; j++)
-            if (j != enteringColumn) tableau[leavingRow][j] /= tableau[leavingRow][enteringColumn];
-        tableau[leavingRow][enteringColumn] = 1.0;
+            double ratio = entering / pivotValue;
+            for (int k = 0; k < count; k++) {
+                int j = pivotColumns[k];
+                tableau.set(offset + j, tableau.get(offset + j) - tableau.get(pivotOffset + j) * ratio);
+            }
+            tableau.set(offset + enteringColumn, 0.0);
+        }
+    }
+
+    private class EliminationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int rowsPerTask;
+        private final int leavingRow;
+        private final int enteringColumn;
+        private final int count;
+
+        private EliminationTask(int from, int to, int rowsPerTask, int leavingRow, int enteringColumn, int count) {
+            this.from = from;
+            this.to = to;
+            this.rowsPerTask = rowsPerTask;
+            this.leavingRow = leavingRow;
+            this.enteringColumn = enteringColumn;
+            this.count = count;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= rowsPerTask) {
+                eliminateRows(from, to, leavingRow, enteringColumn, count);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new EliminationTask(from, middle, rowsPerTask, leavingRow, enteringColumn, count),
+                    new EliminationTask(middle, to, rowsPerTask, leavingRow, enteringColumn, count));
+        }
     }
 
     public double optimalValue() {
-        return -tableau[numConstraints][numVariables+numConstraints+numConstraints];
+        return -tableau.get(offset(numConstraints) + rhsColumn);
     }
 
     public double[] primalSolution() {
         double[] solution = new double[numVariables];
         for (int i = 0; i < numConstraints; i++)
-            if (basis[i] < numVariables) solution[basis[i]] = tableau[i][numVariables+numConstraints+numConstraints];
+            if (basis[i] < numVariables) solution[basis[i]] = tableau.get(offset(i) + rhsColumn);
         return solution;
     }
 
     public double[] dualSolution() {
         double[] dual = new double[numConstraints];
         for (int i = 0; i < numConstraints; i++) {
-            dual[i] = -tableau[numConstraints][numVariables+i];
+            dual[i] = -tableau.get(offset(numConstraints) + numVariables + i);
             if (dual[i] == -0.0) dual[i] = 0.0;
         }
         return dual;
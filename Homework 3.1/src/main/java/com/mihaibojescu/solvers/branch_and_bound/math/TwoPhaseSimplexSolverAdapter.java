@@ -1,16 +1,81 @@
 package com.mihaibojescu.solvers.branch_and_bound.math;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
 import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.LinearProgramResult;
 import com.mihaibojescu.solvers.branch_and_bound.util.Result;
 
 public class TwoPhaseSimplexSolverAdapter implements Solver {
+    private final PricingStrategy pricingStrategy;
+    private final ForkJoinPool pool;
+    private final TableauStorageType storageType;
+
+    public TwoPhaseSimplexSolverAdapter() {
+        this(PricingStrategy.FIRST_IMPROVING);
+    }
+
+    public TwoPhaseSimplexSolverAdapter(PricingStrategy pricingStrategy) {
+        this(pricingStrategy, null);
+    }
+
+    public TwoPhaseSimplexSolverAdapter(PricingStrategy pricingStrategy, ForkJoinPool pool) {
+        this(pricingStrategy, pool, TableauStorageType.HEAP);
+    }
+
+    public TwoPhaseSimplexSolverAdapter(PricingStrategy pricingStrategy, ForkJoinPool pool,
+            TableauStorageType storageType) {
+        this.pricingStrategy = pricingStrategy;
+        this.pool = pool;
+        this.storageType = storageType;
+    }
+
     @Override
-    public Result run(Problem problem) {
-        TwoPhaseSimplexSolver solver = new TwoPhaseSimplexSolver(problem.getConstraints().toRawMatrix(),
-                problem.getBounds().toRawVector(), problem.getObjectiveFunctionMultipliers().toRawVector());
-        solver.solve();
-        return new Result(
-                solver.primalSolution(),
-                solver.optimalValue());
+    public Result run(Problem problem) throws Exception {
+        Problem boundedProblem = problem.withVariableBoundsAsConstraints();
+
+        try (TwoPhaseSimplexSolver solver = new TwoPhaseSimplexSolver(boundedProblem.getSparseConstraints(),
+                boundedProblem.getBounds().toRawVector(),
+                boundedProblem.getObjectiveFunctionMultipliers().toRawVector(),
+                this.pricingStrategy.create(), this.pool, this.storageType)) {
+            double[] solution = solver.solve();
+
+            if (solver.isUnbounded()) {
+                return new Result(solution, Solver.INF);
+            }
+
+            if (!solver.isFeasible()) {
+                return new Result(solution, -Solver.INF);
+            }
+
+            // The bound rows come after the problem's own rows; their duals
+            // are folded into the reduced costs, as if the bounds were a box
+            double[] duals = Arrays.copyOf(solver.dualSolution(), problem.getNumberOfConstraints());
+
+            return new LinearProgramResult(
+                    solution,
+                    solver.optimalValue(),
+                    null,
+                    solver.getNumberOfPivots(),
+                    duals,
+                    this.reducedCosts(problem, duals));
+        }
+    }
+
+    private double[] reducedCosts(Problem problem, double[] duals) {
+        SparseMatrix constraints = problem.getSparseConstraints();
+        double[] reducedCosts = problem.getObjectiveFunctionMultipliers().toRawVector().clone();
+        int[] rowStarts = constraints.getRowStarts();
+        int[] columnIndices = constraints.getRowColumnIndices();
+        double[] values = constraints.getRowValues();
+
+        for (int i = 0; i < duals.length; i++) {
+            for (int k = rowStarts[i]; k < rowStarts[i + 1]; k++) {
+                reducedCosts[columnIndices[k]] -= values[k] * duals[i];
+            }
+        }
+
+        return reducedCosts;
     }
 }
@@ -0,0 +1,142 @@
+package com.mihaibojescu.solvers.branch_and_bound.util;
+
+// Set of 128-bit fingerprints. The set is split into independently locked
+// stripes, picked by the top bits of the fingerprint, so threads adding
+// different fingerprints rarely wait for each other. Each stripe stores
+// two parallel long arrays with linear probing, so an entry costs 16 bytes
+// instead of a boxed key; (0, 0) marks an empty slot and is tracked
+// separately.
+public class FingerprintSet {
+    private static final int INITIAL_STRIPE_CAPACITY = 64;
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+
+    public FingerprintSet() {
+        this(1);
+    }
+
+    // The number of stripes is rounded up to a power of two
+    public FingerprintSet(int stripes) throws IllegalArgumentException {
+        if (stripes < 1) {
+            throw new IllegalArgumentException(String.format("Stripes must be >= 1, but is %d", stripes));
+        }
+
+        int bits = 32 - Integer.numberOfLeadingZeros(stripes - 1);
+        this.stripes = new Stripe[1 << bits];
+        this.stripeShift = 64 - bits;
+
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    // Returns false if the fingerprint was already in the set
+    public boolean add(long high, long low) {
+        return this.getStripe(high).add(high, low);
+    }
+
+    public boolean contains(long high, long low) {
+        return this.getStripe(high).contains(high, low);
+    }
+
+    public int size() {
+        int size = 0;
+
+        for (Stripe stripe : this.stripes) {
+            size += stripe.size();
+        }
+
+        return size;
+    }
+
+    private Stripe getStripe(long high) {
+        // A shift by 64 is a shift by 0 in Java, hence the special case
+        return this.stripes.length == 1 ? this.stripes[0] : this.stripes[(int) (high >>> this.stripeShift)];
+    }
+
+    private static class Stripe {
+        private long[] high;
+        private long[] low;
+        private int size;
+        private boolean containsZero;
+
+        private Stripe() {
+            this.high = new long[INITIAL_STRIPE_CAPACITY];
+            this.low = new long[INITIAL_STRIPE_CAPACITY];
+            this.size = 0;
+            this.containsZero = false;
+        }
+
+        private synchronized boolean add(long high, long low) {
+            if (high == 0 && low == 0) {
+                boolean added = !this.containsZero;
+                this.containsZero = true;
+                return added;
+            }
+
+            // Keep the load factor at most 1/2
+            if (2 * (this.size + 1) > this.high.length) {
+                this.resize();
+            }
+
+            if (!insert(this.high, this.low, high, low)) {
+                return false;
+            }
+
+            this.size++;
+            return true;
+        }
+
+        private synchronized boolean contains(long high, long low) {
+            if (high == 0 && low == 0) {
+                return this.containsZero;
+            }
+
+            int mask = this.high.length - 1;
+
+            for (int slot = (int) low & mask; this.high[slot] != 0 || this.low[slot] != 0; slot = (slot + 1) & mask) {
+                if (this.high[slot] == high && this.low[slot] == low) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private synchronized int size() {
+            return this.size + (this.containsZero ? 1 : 0);
+        }
+
+        private void resize() {
+            long[] highs = new long[this.high.length * 2];
+            long[] lows = new long[this.low.length * 2];
+
+            for (int slot = 0; slot < this.high.length; slot++) {
+                if (this.high[slot] != 0 || this.low[slot] != 0) {
+                    insert(highs, lows, this.high[slot], this.low[slot]);
+                }
+            }
+
+            this.high = highs;
+            this.low = lows;
+        }
+
+        private static boolean insert(long[] highs, long[] lows, long high, long low) {
+            int mask = highs.length - 1;
+            int slot = (int) low & mask;
+
+            while (highs[slot] != 0 || lows[slot] != 0) {
+                if (highs[slot] == high && lows[slot] == low) {
+                    return false;
+                }
+
+                slot = (slot + 1) & mask;
+            }
+
+            highs[slot] = high;
+            lows[slot] = low;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.mihaibojescu.solvers.branch_and_bound.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Best solution found so far, shared by all workers without locks. The
+// objective value is kept separately so the hot pruning check is a single
+// atomic read; it only ever increases, so a reader that races with an
+// update sees an older, smaller value and merely prunes a little less.
+public class Incumbent {
+    private final AtomicReference<Result> result;
+    private final AtomicLong objectiveValueBits;
+
+    public Incumbent(Result result) {
+        this.result = new AtomicReference<>(result);
+        this.objectiveValueBits = new AtomicLong(Double.doubleToLongBits(result.getObjectiveValue()));
+    }
+
+    public Result getValue() {
+        return this.result.get();
+    }
+
+    public double getObjectiveValue() {
+        return Double.longBitsToDouble(this.objectiveValueBits.get());
+    }
+
+    // Replaces the incumbent if the candidate is strictly better; returns whether it did
+    public boolean offer(Result candidate) {
+        double value = candidate.getObjectiveValue();
+        Result current;
+
+        do {
+            current = this.result.get();
+
+            if (value <= current.getObjectiveValue()) {
+                return false;
+            }
+        } while (!this.result.compareAndSet(current, candidate));
+
+        this.objectiveValueBits.accumulateAndGet(Double.doubleToLongBits(value),
+                (previous, next) -> Double.longBitsToDouble(previous) >= Double.longBitsToDouble(next) ? previous
+                        : next);
+        return true;
+    }
+}
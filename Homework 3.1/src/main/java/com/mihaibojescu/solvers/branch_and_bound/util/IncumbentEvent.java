@@ -0,0 +1,47 @@
+package com.mihaibojescu.solvers.branch_and_bound.util;
+
+// Emitted whenever a search improves its incumbent
+public class IncumbentEvent {
+    private final Result incumbent;
+    private final double dualBound;
+    private final long nodes;
+    private final long elapsedNanos;
+
+    public IncumbentEvent(Result incumbent, double dualBound, long nodes, long elapsedNanos) {
+        this.incumbent = incumbent;
+        this.dualBound = dualBound;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Result getIncumbent() {
+        return this.incumbent;
+    }
+
+    public double getObjectiveValue() {
+        return this.incumbent.getObjectiveValue();
+    }
+
+    public double getDualBound() {
+        return this.dualBound;
+    }
+
+    public double getGap() {
+        return SearchResult.relativeGap(this.incumbent.getObjectiveValue(), this.dualBound);
+    }
+
+    // Number of nodes solved when the incumbent was found
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("incumbent %f, dual bound %f, gap %.4f%%, %d nodes, %.1f ms",
+                this.getObjectiveValue(), this.dualBound, 100 * this.getGap(), this.nodes, this.elapsedNanos / 1.0E6);
+    }
+}
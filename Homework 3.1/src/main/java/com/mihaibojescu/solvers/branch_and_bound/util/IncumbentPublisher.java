@@ -0,0 +1,16 @@
+package com.mihaibojescu.solvers.branch_and_bound.util;
+
+import java.util.concurrent.SubmissionPublisher;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.SearchListener;
+
+// Bridges a search to java.util.concurrent.Flow: pass it to a solver as its
+// listener and subscribe to it. Subscribers are called on the publisher's
+// executor, never on a search thread; a subscriber that falls a whole
+// buffer behind does slow the search down. Close it once the search is over.
+public class IncumbentPublisher extends SubmissionPublisher<IncumbentEvent> implements SearchListener {
+    @Override
+    public void incumbentFound(IncumbentEvent event) {
+        this.submit(event);
+    }
+}
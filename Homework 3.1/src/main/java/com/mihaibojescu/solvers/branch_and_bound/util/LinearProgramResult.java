@@ -0,0 +1,41 @@
+package com.mihaibojescu.solvers.branch_and_bound.util;
+
+public class LinearProgramResult extends Result {
+    private SimplexBasis basis;
+    private int numberOfPivots;
+    private double[] duals;
+    private double[] reducedCosts;
+
+    public LinearProgramResult(double[] solution, double objectiveValue, SimplexBasis basis, int numberOfPivots) {
+        this(solution, objectiveValue, basis, numberOfPivots, null, null);
+    }
+
+    public LinearProgramResult(double[] solution, double objectiveValue, SimplexBasis basis, int numberOfPivots,
+            double[] duals, double[] reducedCosts) {
+        super(solution, objectiveValue);
+        this.basis = basis;
+        this.numberOfPivots = numberOfPivots;
+        this.duals = duals;
+        this.reducedCosts = reducedCosts;
+    }
+
+    public SimplexBasis getBasis() {
+        return this.basis;
+    }
+
+    public int getNumberOfPivots() {
+        return this.numberOfPivots;
+    }
+
+    // One dual value per row of the problem, or null if the solver has none
+    public double[] getDuals() {
+        return this.duals;
+    }
+
+    // c_j - a_j * y for every variable, 0 for basic ones, or null if the
+    // solver has no duals. A variable at its lower bound has a reduced cost
+    // <= 0 and one at its upper bound a reduced cost >= 0
+    public double[] getReducedCosts() {
+        return this.reducedCosts;
+    }
+}
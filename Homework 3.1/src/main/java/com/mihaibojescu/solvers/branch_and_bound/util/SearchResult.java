@@ -0,0 +1,55 @@
+package com.mihaibojescu.solvers.branch_and_bound.util;
+
+// Result of a branch and bound search: the incumbent, why the search
+// stopped and how far from optimal the incumbent can still be
+public class SearchResult extends Result {
+    private final SearchStatus status;
+    private final double dualBound;
+    private final long nodes;
+    private final long elapsedNanos;
+
+    public SearchResult(double[] solution, double objectiveValue, SearchStatus status, double dualBound, long nodes,
+            long elapsedNanos) {
+        super(solution, objectiveValue);
+        this.status = status;
+        this.dualBound = dualBound;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public SearchStatus getStatus() {
+        return this.status;
+    }
+
+    public boolean isProvenOptimal() {
+        return this.status == SearchStatus.OPTIMAL;
+    }
+
+    // No solution can beat this value; equal to the objective value once the
+    // search is proven optimal
+    public double getDualBound() {
+        return this.dualBound;
+    }
+
+    public double getGap() {
+        return relativeGap(this.getObjectiveValue(), this.dualBound);
+    }
+
+    // Number of nodes whose LP was solved
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    // (dual bound - incumbent) / |incumbent|; infinite without an incumbent
+    public static double relativeGap(double incumbent, double dualBound) {
+        if (Double.isInfinite(incumbent) || Double.isInfinite(dualBound)) {
+            return incumbent == dualBound ? 0.0 : Double.POSITIVE_INFINITY;
+        }
+
+        return Math.max(dualBound - incumbent, 0.0) / Math.max(Math.abs(incumbent), 1.0E-10);
+    }
+}
@@ -0,0 +1,21 @@
+package com.mihaibojescu.solvers.branch_and_bound.util;
+
+public enum SearchStatus {
+    // The tree was exhausted: the answer is proven
+    OPTIMAL,
+    INFEASIBLE,
+    UNBOUNDED,
+
+    // A limit stopped the search first: the answer is the best found so far
+    TIME_LIMIT,
+    NODE_LIMIT,
+    GAP_LIMIT,
+
+    // The solving thread was interrupted or a worker failed: the answer is
+    // the best found so far
+    CANCELLED;
+
+    public boolean isLimit() {
+        return this == TIME_LIMIT || this == NODE_LIMIT || this == GAP_LIMIT;
+    }
+}
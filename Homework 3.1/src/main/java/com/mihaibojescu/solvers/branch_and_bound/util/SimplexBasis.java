@@ -0,0 +1,20 @@
+package com.mihaibojescu.solvers.branch_and_bound.util;
+
+public class SimplexBasis {
+    private int[] basicColumns;
+    private boolean[] nonbasicAtUpper;
+
+    public SimplexBasis(int[] basicColumns, boolean[] nonbasicAtUpper) {
+        this.basicColumns = basicColumns;
+        this.nonbasicAtUpper = nonbasicAtUpper;
+    }
+
+    // Column indices follow the solver layout: structural variables first, then one slack per row
+    public int[] getBasicColumns() {
+        return this.basicColumns;
+    }
+
+    public boolean[] getNonbasicAtUpper() {
+        return this.nonbasicAtUpper;
+    }
+}
@@ -2,20 +2,38 @@ package com.mihaibojescu.solvers.branch_and_bound.math;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.SearchListener;
 import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.IncumbentEvent;
+import com.mihaibojescu.solvers.branch_and_bound.util.IncumbentPublisher;
 import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+import com.mihaibojescu.solvers.branch_and_bound.util.SearchResult;
+import com.mihaibojescu.solvers.branch_and_bound.util.SearchStatus;
+import com.mihaibojescu.solvers.branch_and_bound.util.SimplexBasis;
 import com.mihaibojescu.solvers.branch_and_bound.util.Graph;
 
 public class BranchAndBoundSolverTest {
@@ -42,8 +60,594 @@ public class BranchAndBoundSolverTest {
         Solver branchAndBound = new ParallelBranchAndBoundSolver(twoPhaseSolver, 0.0001, 8);
         Result result = branchAndBound.run(problem);
 
-        assertArrayEquals(result.getSolution(), new double[] { 3.0, 1.0000000000000004 });
-        assertEquals(result.getObjectiveValue(), 19.0);
+        assertArrayEquals(result.getSolution(), new double[] { 4.0, 0.0 });
+        assertEquals(result.getObjectiveValue(), 20.0);
+    }
+
+    @Test
+    public void nodeSelectionExample() throws Exception {
+        Problem problem = new Problem(
+                new Matrix(new double[] { 5, 4 }),
+                new Matrix(new double[][] { { 6, 4 }, { 1, 2 }, { -1, 1 }, { 0, 1 } }),
+                new Matrix(new double[] { 24, 6, 1, 2 }));
+        Solver twoPhaseSolver = new TwoPhaseSimplexSolverAdapter();
+
+        for (NodeSelectionStrategy strategy : NodeSelectionStrategy.values()) {
+            for (Solver branchAndBound : new Solver[] {
+                    new BranchAndBoundSolver(twoPhaseSolver, 0.0001, false,
+                            SearchOptions.DEFAULT.withNodeSelectionStrategy(strategy)),
+                    new ParallelBranchAndBoundSolver(twoPhaseSolver, 0.0001, 4, false,
+                            SearchOptions.DEFAULT.withNodeSelectionStrategy(strategy)) }) {
+                Result result = branchAndBound.run(problem);
+
+                assertArrayEquals(result.getSolution(), new double[] { 4.0, 0.0 });
+                assertEquals(result.getObjectiveValue(), 20.0);
+            }
+        }
+    }
+
+    @Test
+    public void workStealingExample() throws Exception {
+        // A tree big enough for the workers to steal from each other
+        Problem problem = this.buildRandomKnapsack(new Random(7), 3, 12);
+        Solver lpSolver = new RevisedSimplexSolverAdapter();
+        Result expected = new BranchAndBoundSolver(lpSolver, 0.0001).run(problem);
+
+        for (NodeSelectionStrategy strategy : NodeSelectionStrategy.values()) {
+            Result result = new ParallelBranchAndBoundSolver(lpSolver, 0.0001, 4, false,
+                    SearchOptions.DEFAULT.withNodeSelectionStrategy(strategy)).run(problem);
+
+            assertEquals(result.getObjectiveValue(), expected.getObjectiveValue(), 1.0E-9);
+        }
+    }
+
+    @Test
+    public void branchingRuleExample() throws Exception {
+        Problem problem = this.buildRandomKnapsack(new Random(11), 3, 10, 60);
+        Solver lpSolver = new RevisedSimplexSolverAdapter();
+        Result expected = new BranchAndBoundSolver(lpSolver, 0.0001).run(problem);
+
+        for (BranchingStrategy strategy : BranchingStrategy.values()) {
+            SearchOptions options = SearchOptions.DEFAULT
+                    .withNodeSelectionStrategy(NodeSelectionStrategy.BEST_BOUND)
+                    .withBranchingStrategy(strategy);
+            Result serial = new BranchAndBoundSolver(lpSolver, 0.0001, false, options).run(problem);
+            Result parallel = new ParallelBranchAndBoundSolver(lpSolver, 0.0001, 4, false, options).run(problem);
+
+            assertEquals(serial.getObjectiveValue(), expected.getObjectiveValue(), 1.0E-9);
+            assertEquals(parallel.getObjectiveValue(), expected.getObjectiveValue(), 1.0E-9);
+        }
+    }
+
+    @Test
+    public void primalHeuristicExample() throws Exception {
+        Problem problem = this.buildRandomKnapsack(new Random(13), 3, 10, 60);
+        Solver lpSolver = new RevisedSimplexSolverAdapter();
+        Result expected = new BranchAndBoundSolver(lpSolver, 0.0001).run(problem);
+        List<PrimalHeuristics> configurations = new ArrayList<>();
+
+        for (PrimalHeuristicType type : PrimalHeuristicType.values()) {
+            configurations.add(new PrimalHeuristics(1, type));
+        }
+
+        configurations.add(PrimalHeuristics.all());
+
+        for (PrimalHeuristics primalHeuristics : configurations) {
+            SearchOptions options = SearchOptions.DEFAULT.withPrimalHeuristics(primalHeuristics);
+            Result serial = new BranchAndBoundSolver(lpSolver, 0.0001, false, options).run(problem);
+            Result parallel = new ParallelBranchAndBoundSolver(lpSolver, 0.0001, 4, false, options).run(problem);
+
+            assertEquals(serial.getObjectiveValue(), expected.getObjectiveValue(), 1.0E-9);
+            assertEquals(parallel.getObjectiveValue(), expected.getObjectiveValue(), 1.0E-9);
+        }
+    }
+
+    @Test
+    public void reducedCostFixingExample() throws Exception {
+        // Mixed signs and bounded variables, checked against enumerating every point of the box
+        Random random = new Random(17);
+        PrimalHeuristics primalHeuristics = new PrimalHeuristics(1, PrimalHeuristicType.SIMPLE_ROUNDING,
+                PrimalHeuristicType.FRACTIONAL_DIVING);
+
+        for (int instance = 0; instance < 30; instance++) {
+            int numVariables = 2 + random.nextInt(3);
+            int numConstraints = 1 + random.nextInt(3);
+            double[][] constraints = new double[numConstraints][numVariables];
+            double[] bounds = new double[numConstraints];
+            double[] objective = new double[numVariables];
+
+            for (int i = 0; i < numConstraints; i++) {
+                for (int j = 0; j < numVariables; j++) {
+                    constraints[i][j] = random.nextInt(13) - 4;
+                }
+
+                bounds[i] = 1 + random.nextInt(15);
+            }
+
+            for (int j = 0; j < numVariables; j++) {
+                objective[j] = random.nextInt(15) - 4;
+            }
+
+            Problem problem = new Problem(new Matrix(objective), new Matrix(constraints), new Matrix(bounds));
+
+            for (int j = 0; j < numVariables; j++) {
+                problem.setVariableBounds(j, 0, 4);
+            }
+
+            double expected = -Solver.INF;
+            int[] point = new int[numVariables];
+
+            do {
+                boolean feasible = true;
+
+                for (int i = 0; i < numConstraints; i++) {
+                    double activity = 0;
+
+                    for (int j = 0; j < numVariables; j++) {
+                        activity += constraints[i][j] * point[j];
+                    }
+
+                    feasible &= activity <= bounds[i];
+                }
+
+                if (feasible) {
+                    double value = 0;
+
+                    for (int j = 0; j < numVariables; j++) {
+                        value += objective[j] * point[j];
+                    }
+
+                    expected = Math.max(expected, value);
+                }
+            } while (nextPoint(point, 4));
+
+            for (Solver lpSolver : new Solver[] { new RevisedSimplexSolverAdapter(),
+                    new TwoPhaseSimplexSolverAdapter() }) {
+                SearchOptions options = SearchOptions.DEFAULT.withPrimalHeuristics(primalHeuristics);
+                Result serial = new BranchAndBoundSolver(lpSolver, 0.0001, false, options).run(problem);
+                Result parallel = new ParallelBranchAndBoundSolver(lpSolver, 0.0001, 3, false,
+                        options.withNodeSelectionStrategy(NodeSelectionStrategy.BEST_BOUND)).run(problem);
+
+                assertEquals(serial.getObjectiveValue(), expected, 1.0E-9);
+                assertEquals(parallel.getObjectiveValue(), expected, 1.0E-9);
+            }
+        }
+    }
+
+    @Test
+    public void searchLimitsExample() throws Exception {
+        Problem problem = this.buildRandomKnapsack(new Random(7), 3, 12);
+        Solver lpSolver = new RevisedSimplexSolverAdapter();
+        SearchResult expected = new BranchAndBoundSolver(lpSolver, 0.0001).run(problem);
+
+        assertEquals(expected.getStatus(), SearchStatus.OPTIMAL);
+        assertEquals(expected.getDualBound(), expected.getObjectiveValue(), 1.0E-9);
+
+        SearchLimits nodeLimit = SearchLimits.NONE.withNodeLimit(5);
+        SearchLimits gapLimit = SearchLimits.NONE.withRelativeGap(0.05);
+        SearchLimits timeLimit = SearchLimits.NONE.withTimeLimit(Duration.ZERO);
+
+        for (boolean parallel : new boolean[] { false, true }) {
+            SearchResult byNodes = this.search(lpSolver, problem, parallel, nodeLimit, null);
+            SearchResult byGap = this.search(lpSolver, problem, parallel, gapLimit, null);
+            SearchResult byTime = this.search(lpSolver, problem, parallel, timeLimit, null);
+
+            assertEquals(byNodes.getStatus(), SearchStatus.NODE_LIMIT);
+            assertTrue(byNodes.getNodes() >= 5 && byNodes.getNodes() < 5 + 4);
+            assertTrue(byNodes.getDualBound() >= expected.getObjectiveValue() - 1.0E-9);
+
+            assertTrue(byGap.getStatus() == SearchStatus.GAP_LIMIT || byGap.isProvenOptimal());
+            assertTrue(byGap.getGap() <= 0.05);
+            assertTrue(byGap.getDualBound() >= expected.getObjectiveValue() - 1.0E-9);
+
+            assertEquals(byTime.getStatus(), SearchStatus.TIME_LIMIT);
+            assertEquals(byTime.getObjectiveValue(), -Solver.INF);
+        }
+
+        Problem infeasible = new Problem(
+                new Matrix(new double[] { 1, 1 }),
+                new Matrix(new double[][] { { 1, 1 }, { -1, -1 } }),
+                new Matrix(new double[] { 2, -3 }));
+
+        assertEquals(new BranchAndBoundSolver(lpSolver, 0.0001).run(infeasible).getStatus(), SearchStatus.INFEASIBLE);
+    }
+
+    @Test
+    public void incumbentStreamExample() throws Exception {
+        Problem problem = this.buildRandomKnapsack(new Random(7), 3, 12);
+        Solver lpSolver = new RevisedSimplexSolverAdapter();
+        double expected = new BranchAndBoundSolver(lpSolver, 0.0001).run(problem).getObjectiveValue();
+
+        for (boolean parallel : new boolean[] { false, true }) {
+            List<IncumbentEvent> events = new ArrayList<>();
+
+            try (IncumbentPublisher publisher = new IncumbentPublisher()) {
+                CompletableFuture<Void> consumer = publisher.consume(events::add);
+
+                this.search(lpSolver, problem, parallel, SearchLimits.NONE, publisher);
+                publisher.close();
+                consumer.get();
+            }
+
+            assertFalse(events.isEmpty());
+            assertEquals(events.get(events.size() - 1).getObjectiveValue(), expected, 1.0E-9);
+
+            for (int i = 0; i < events.size(); i++) {
+                assertTrue(events.get(i).getDualBound() >= expected - 1.0E-9);
+
+                if (i > 0) {
+                    assertTrue(events.get(i).getObjectiveValue() > events.get(i - 1).getObjectiveValue());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void checkpointResumeExample() throws Exception {
+        Problem problem = this.buildRandomKnapsack(new Random(7), 3, 12);
+        Solver lpSolver = new RevisedSimplexSolverAdapter();
+        double expected = new BranchAndBoundSolver(lpSolver, 0.0001).run(problem).getObjectiveValue();
+        Path file = Files.createTempFile("branch_and_bound", ".checkpoint");
+
+        try {
+            // A zero interval checkpoints at every node, which also makes the file compact itself
+            Checkpointing checkpointing = new Checkpointing(file, Duration.ZERO, Duration.ZERO);
+            SearchLimits nodeLimit = SearchLimits.NONE.withNodeLimit(10);
+
+            for (boolean parallel : new boolean[] { false, true }) {
+                SearchResult stopped;
+                SearchResult resumed;
+
+                if (parallel) {
+                    SearchOptions options = SearchOptions.DEFAULT
+                            .withNodeSelectionStrategy(NodeSelectionStrategy.BEST_BOUND);
+
+                    stopped = new ParallelBranchAndBoundSolver(lpSolver, 0.0001, 4, false,
+                            options.withSearchLimits(nodeLimit).withCheckpointing(checkpointing)).run(problem);
+                    resumed = new ParallelBranchAndBoundSolver(lpSolver, 0.0001, 4, false, options)
+                            .resume(problem, file);
+                } else {
+                    stopped = new BranchAndBoundSolver(lpSolver, 0.0001, false,
+                            SearchOptions.DEFAULT.withSearchLimits(nodeLimit).withCheckpointing(checkpointing))
+                            .run(problem);
+
+                    // A record torn by a crash is skipped in favour of the last complete one
+                    Files.write(file, new byte[] { 0x52, 0x45, 0x43 }, StandardOpenOption.APPEND);
+
+                    Checkpoint checkpoint = Checkpoint.read(file, problem);
+                    assertEquals(checkpoint.getSolvedNodes(), stopped.getNodes());
+                    assertEquals(checkpoint.getIncumbent().getObjectiveValue(), stopped.getObjectiveValue());
+                    assertFalse(checkpoint.getNodes().isEmpty());
+
+                    resumed = new BranchAndBoundSolver(lpSolver, 0.0001).resume(problem, file);
+                }
+
+                assertEquals(stopped.getStatus(), SearchStatus.NODE_LIMIT);
+                assertEquals(resumed.getStatus(), SearchStatus.OPTIMAL);
+                assertEquals(resumed.getObjectiveValue(), expected, 1.0E-9);
+                assertTrue(resumed.getNodes() > stopped.getNodes());
+            }
+
+            // Resuming while checkpointing to the same file keeps the resumed
+            // state in it until the next checkpoint, so a crash before then loses nothing
+            SearchResult stopped = new BranchAndBoundSolver(lpSolver, 0.0001, false,
+                    SearchOptions.DEFAULT.withSearchLimits(nodeLimit).withCheckpointing(checkpointing))
+                    .run(problem);
+            Checkpointing resumedCheckpointing = new Checkpointing(file);
+
+            assertThrows(IOException.class,
+                    () -> new BranchAndBoundSolver(this.failOnSecondCall(lpSolver), 0.0001, false,
+                            SearchOptions.DEFAULT.withCheckpointing(resumedCheckpointing)).resume(problem, file));
+            assertEquals(Checkpoint.read(file, problem).getSolvedNodes(), stopped.getNodes());
+
+            SearchResult resumed = new BranchAndBoundSolver(lpSolver, 0.0001, false,
+                    SearchOptions.DEFAULT.withCheckpointing(resumedCheckpointing)).resume(problem, file);
+            assertEquals(resumed.getStatus(), SearchStatus.OPTIMAL);
+            assertEquals(resumed.getObjectiveValue(), expected, 1.0E-9);
+
+            Problem other = this.buildRandomKnapsack(new Random(8), 3, 12);
+            assertThrows(IllegalArgumentException.class,
+                    () -> new BranchAndBoundSolver(lpSolver, 0.0001).resume(other, file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void nodeStorageExample() throws Exception {
+        Problem problem = this.buildRandomKnapsack(new Random(7), 3, 12);
+        Solver lpSolver = new RevisedSimplexSolverAdapter();
+        Path directory = Files.createTempDirectory("branch_and_bound");
+
+        try {
+            // Small segments, so nodes also spread over several files
+            NodeStorage spilling = new NodeStorage(directory, 3, 512, 1);
+            SearchOptions options = SearchOptions.DEFAULT.withNodeSelectionStrategy(NodeSelectionStrategy.BEST_BOUND);
+            SearchResult expected = new BranchAndBoundSolver(lpSolver, 0.0001, false, options).run(problem);
+            SearchResult serial = new BranchAndBoundSolver(lpSolver, 0.0001, false,
+                    options.withNodeStorage(spilling)).run(problem);
+            SearchResult parallel = new ParallelBranchAndBoundSolver(lpSolver, 0.0001, 4, false,
+                    options.withNodeStorage(spilling)).run(problem);
+
+            // Spilled nodes keep their sort keys, so the serial search takes the same path
+            assertEquals(serial.getObjectiveValue(), expected.getObjectiveValue(), 1.0E-9);
+            assertEquals(serial.getNodes(), expected.getNodes());
+            assertEquals(parallel.getObjectiveValue(), expected.getObjectiveValue(), 1.0E-9);
+
+            // Paged in nodes come back whole, in the in-memory queue's order
+            BranchNode root = new BranchNode(problem, null);
+            SimplexBasis basis = new SimplexBasis(new int[] { 2, 5, 7 }, new boolean[15]);
+            basis.getNonbasicAtUpper()[9] = true;
+            Random random = new Random(3);
+
+            try (NodeQueue inMemory = new NodeQueue(NodeSelectionStrategy.BEST_BOUND);
+                    NodeQueue spilled = new NodeQueue(NodeSelectionStrategy.BEST_BOUND, spilling)) {
+                for (int k = 0; k < 50; k++) {
+                    BranchNode node = root.createChild(random.nextInt(12), random.nextBoolean(),
+                            random.nextDouble() * 3, 0, k % 2 == 0 ? basis : null, random.nextInt(10), 0)
+                            .createChild(random.nextInt(12), true, 1.5, 3, basis, random.nextInt(10), 0);
+                    inMemory.add(node);
+                    spilled.add(node);
+                }
+
+                assertEquals(spilled.getSpilledNodes(), 47);
+                assertTrue(Files.list(directory).count() > 1);
+
+                for (BranchNode node = inMemory.poll(); node != null; node = inMemory.poll()) {
+                    BranchNode pagedIn = spilled.poll();
+
+                    assertEquals(pagedIn.getFingerprintHigh(), node.getFingerprintHigh());
+                    assertEquals(pagedIn.getFingerprintLow(), node.getFingerprintLow());
+                    assertEquals(pagedIn.getParentBound(), node.getParentBound());
+                    assertEquals(pagedIn.getDepth(), node.getDepth());
+                    assertArrayEquals(pagedIn.getProblem().getVariableLowerBounds(),
+                            node.getProblem().getVariableLowerBounds());
+                    assertArrayEquals(pagedIn.getProblem().getVariableUpperBounds(),
+                            node.getProblem().getVariableUpperBounds());
+                    assertArrayEquals(pagedIn.getParentBasis().getBasicColumns(), basis.getBasicColumns());
+                    assertArrayEquals(pagedIn.getParentBasis().getNonbasicAtUpper(), basis.getNonbasicAtUpper());
+                }
+
+                assertTrue(spilled.isEmpty());
+            }
+
+            assertEquals(Files.list(directory).count(), 0L);
+
+            // Past the heap threshold a best bound queue dives instead
+            try (NodeQueue pressured = new NodeQueue(NodeSelectionStrategy.BEST_BOUND,
+                    new NodeStorage(null, 1, 0, 1.0E-9))) {
+                for (int k = 0; k < 1024; k++) {
+                    pressured.add(new BranchNode(problem, null, k % 7, 0, 0));
+                }
+
+                assertTrue(pressured.isUnderHeapPressure());
+                assertEquals(pressured.poll().getParentBound(), 1023 % 7);
+            }
+        } finally {
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    public void executionModeExample() throws Exception {
+        Problem problem = this.buildRandomKnapsack(new Random(7), 3, 12);
+        Solver lpSolver = new RevisedSimplexSolverAdapter();
+        double expected = new BranchAndBoundSolver(lpSolver, 0.0001).run(problem).getObjectiveValue();
+
+        for (ExecutionMode executionMode : ExecutionMode.values()) {
+            SearchResult result = this.search(lpSolver, problem, executionMode, null);
+
+            assertEquals(result.getStatus(), SearchStatus.OPTIMAL);
+            assertEquals(result.getObjectiveValue(), expected, 1.0E-9);
+        }
+
+        // Interrupting the solving thread cancels the search and shuts its workers down
+        Problem hard = this.buildProblemFromGraph(this.parseGraph("/dsjc125.1.col"));
+        Set<Thread> threadsBefore = Thread.getAllStackTraces().keySet();
+
+        for (ExecutionMode executionMode : ExecutionMode.values()) {
+            CompletableFuture<SearchResult> cancelled = new CompletableFuture<>();
+            CountDownLatch started = new CountDownLatch(1);
+            Solver signalling = candidate -> {
+                started.countDown();
+                return lpSolver.run(candidate);
+            };
+            Thread solving = new Thread(() -> {
+                try {
+                    cancelled.complete(this.search(signalling, hard, executionMode, null));
+                } catch (Exception e) {
+                    cancelled.completeExceptionally(e);
+                }
+            });
+
+            // The first LP means the workers are running; the tree is far too big to finish first
+            solving.start();
+            assertTrue(started.await(30, TimeUnit.SECONDS));
+            solving.interrupt();
+
+            assertEquals(cancelled.get(30, TimeUnit.SECONDS).getStatus(), SearchStatus.CANCELLED);
+            solving.join();
+        }
+
+        // Threads still winding down get a moment; an idle pool thread would never exit
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (!threadsBefore.contains(thread)) {
+                thread.join(1000);
+                assertFalse(thread.isAlive());
+            }
+        }
+    }
+
+    @Test
+    public void failingSolverExample() throws Exception {
+        Problem problem = this.buildRandomKnapsack(new Random(3), 3, 25);
+        Solver lpSolver = new RevisedSimplexSolverAdapter();
+
+        // A failed node loses its subtree, so no result may be reported without it
+        assertThrows(IOException.class,
+                () -> new BranchAndBoundSolver(this.failOnSecondCall(lpSolver), 0.0001).run(problem));
+
+        for (int nprocs = 1; nprocs <= 4; nprocs++) {
+            Solver failing = this.failOnSecondCall(lpSolver);
+            int workers = nprocs;
+
+            assertThrows(IOException.class,
+                    () -> new ParallelBranchAndBoundSolver(failing, 0.0001, workers).run(problem));
+        }
+    }
+
+    @Test
+    public void portfolioExample() throws Exception {
+        Solver lpSolver = new RevisedSimplexSolverAdapter();
+        Set<Thread> threadsBefore = Thread.getAllStackTraces().keySet();
+
+        for (int seed = 0; seed < 5; seed++) {
+            Problem problem = this.buildRandomKnapsack(new Random(seed), 3, 12);
+            double expected = new BranchAndBoundSolver(lpSolver, 0.0001).run(problem).getObjectiveValue();
+            SearchResult result = new PortfolioSolver(lpSolver, 0.0001, 6).run(problem);
+
+            assertEquals(result.getStatus(), SearchStatus.OPTIMAL);
+            assertEquals(result.getObjectiveValue(), expected, 1.0E-9);
+            assertEquals(result.getDualBound(), expected, 1.0E-9);
+
+            // Root cuts keep every integral point, so the tightened search proves the same optimum
+            SearchResult cutAndBranch = new PortfolioSolver(lpSolver, 0.0001, 1,
+                    List.of(PortfolioMember.cutAndBranch(NodeSelectionStrategy.BEST_BOUND,
+                            BranchingStrategy.MOST_FRACTIONAL, PrimalHeuristics.NONE)),
+                    SearchLimits.NONE).run(problem);
+
+            assertEquals(cutAndBranch.getStatus(), SearchStatus.OPTIMAL);
+            assertEquals(cutAndBranch.getObjectiveValue(), expected, 1.0E-9);
+        }
+
+        // Cutting planes only contribute an incumbent, which is no proof on its own
+        Problem toy = new Problem(
+                new Matrix(new double[] { 5, 4 }), new Matrix(new double[][] { { 1, 1 }, { 2, 1 }, }),
+                new Matrix(new double[] { 5, 8 }));
+        SearchResult cuts = new PortfolioSolver(lpSolver, 0.0001, 1, List.of(PortfolioMember.cuttingPlanes()),
+                SearchLimits.NONE).run(toy);
+
+        assertEquals(cuts.getStatus(), SearchStatus.CANCELLED);
+        assertEquals(cuts.getObjectiveValue(), 23.0, 1.0E-9);
+
+        // Without a proof the best incumbent of all members comes back with the pooled bound
+        SearchResult limited = new PortfolioSolver(lpSolver, 0.0001, 2,
+                List.of(PortfolioMember.branchAndBound(NodeSelectionStrategy.DEPTH_FIRST,
+                        BranchingStrategy.MOST_FRACTIONAL, PrimalHeuristics.all()),
+                        PortfolioMember.branchAndBound(NodeSelectionStrategy.BEST_BOUND,
+                                BranchingStrategy.MOST_FRACTIONAL, PrimalHeuristics.NONE)),
+                SearchLimits.NONE.withNodeLimit(3)).run(this.buildRandomKnapsack(new Random(7), 3, 12));
+
+        assertEquals(limited.getStatus(), SearchStatus.NODE_LIMIT);
+        assertTrue(limited.getDualBound() >= limited.getObjectiveValue());
+
+        assertThrows(IllegalArgumentException.class, () -> new PortfolioSolver(lpSolver, 0.0001, 2,
+                List.of(PortfolioMember.branchAndBound(2, NodeSelectionStrategy.BEST_BOUND,
+                        BranchingStrategy.MOST_FRACTIONAL, PrimalHeuristics.NONE), PortfolioMember.cuttingPlanes()),
+                SearchLimits.NONE));
+
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (!threadsBefore.contains(thread)) {
+                thread.join(1000);
+                assertFalse(thread.isAlive());
+            }
+        }
+    }
+
+    @Test
+    public void deterministicExample() throws Exception {
+        Solver lpSolver = new RevisedSimplexSolverAdapter();
+
+        for (int seed = 0; seed < 5; seed++) {
+            Problem problem = this.buildRandomKnapsack(new Random(seed), 3, 15);
+            double expected = new BranchAndBoundSolver(lpSolver, 0.0001).run(problem).getObjectiveValue();
+
+            // Runs differ only in thread timing, which must not show in the tree
+            for (SearchLimits searchLimits : List.of(SearchLimits.NONE, SearchLimits.NONE.withNodeLimit(20))) {
+                SearchResult first = this.searchDeterministically(lpSolver, problem, searchLimits,
+                        NodeStorage.IN_MEMORY);
+
+                for (int run = 0; run < 3; run++) {
+                    SearchResult again = this.searchDeterministically(lpSolver, problem, searchLimits,
+                            NodeStorage.IN_MEMORY);
+
+                    assertEquals(again.getStatus(), first.getStatus());
+                    assertEquals(again.getNodes(), first.getNodes());
+                    assertEquals(again.getObjectiveValue(), first.getObjectiveValue());
+                    assertEquals(again.getDualBound(), first.getDualBound());
+                    assertArrayEquals(again.getSolution(), first.getSolution());
+                }
+
+                if (searchLimits == SearchLimits.NONE) {
+                    assertEquals(first.getStatus(), SearchStatus.OPTIMAL);
+                    assertEquals(first.getObjectiveValue(), expected, 1.0E-9);
+                }
+            }
+        }
+
+        // The tree is big enough for the queue to look at the heap, which is
+        // always past this threshold; the search must not dive because of it
+        Problem large = this.buildRandomKnapsack(new Random(1), 10, 50, 500);
+        Path directory = Files.createTempDirectory("branch_and_bound");
+
+        try {
+            SearchResult inMemory = this.searchDeterministically(lpSolver, large, SearchLimits.NONE,
+                    NodeStorage.IN_MEMORY);
+            SearchResult spilled = this.searchDeterministically(lpSolver, large, SearchLimits.NONE,
+                    new NodeStorage(directory, 3, 512, 1.0E-9));
+
+            assertEquals(spilled.getStatus(), SearchStatus.OPTIMAL);
+            assertEquals(spilled.getNodes(), inMemory.getNodes());
+            assertEquals(spilled.getObjectiveValue(), inMemory.getObjectiveValue());
+            assertArrayEquals(spilled.getSolution(), inMemory.getSolution());
+        } finally {
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private SearchResult searchDeterministically(Solver lpSolver, Problem problem, SearchLimits searchLimits,
+            NodeStorage nodeStorage) throws Exception {
+        return new ParallelBranchAndBoundSolver(lpSolver, 0.0001, 4, false, SearchOptions.DEFAULT
+                .withNodeSelectionStrategy(NodeSelectionStrategy.BEST_BOUND)
+                .withBranchingStrategy(BranchingStrategy.RELIABILITY)
+                .withPrimalHeuristics(PrimalHeuristics.all())
+                .withSearchLimits(searchLimits)
+                .withNodeStorage(nodeStorage)
+                .withExecutionMode(ExecutionMode.DETERMINISTIC)).run(problem);
+    }
+
+    private SearchResult search(Solver lpSolver, Problem problem, ExecutionMode executionMode,
+            SearchListener listener) throws Exception {
+        return new ParallelBranchAndBoundSolver(lpSolver, 0.0001, 4, false, SearchOptions.DEFAULT
+                .withNodeSelectionStrategy(NodeSelectionStrategy.BEST_BOUND)
+                .withListener(listener)
+                .withExecutionMode(executionMode)).run(problem);
+    }
+
+    private SearchResult search(Solver lpSolver, Problem problem, boolean parallel, SearchLimits searchLimits,
+            SearchListener listener) throws Exception {
+        SearchOptions options = SearchOptions.DEFAULT.withSearchLimits(searchLimits).withListener(listener);
+
+        if (parallel) {
+            return new ParallelBranchAndBoundSolver(lpSolver, 0.0001, 4, false,
+                    options.withNodeSelectionStrategy(NodeSelectionStrategy.BEST_BOUND)).run(problem);
+        }
+
+        return new BranchAndBoundSolver(lpSolver, 0.0001, false, options).run(problem);
+    }
+
+    // Odometer over {0..max}^n; false once it wraps around
+    private static boolean nextPoint(int[] point, int max) {
+        for (int j = 0; j < point.length; j++) {
+            if (point[j] < max) {
+                point[j]++;
+                return true;
+            }
+
+            point[j] = 0;
+        }
+
+        return false;
     }
 
     @Test
@@ -123,4 +727,41 @@ public class BranchAndBoundSolverTest {
 
         return new Problem(objectiveFunctionMultipliers, constraintsMultipliers, bounds);
     }
+
+    private Solver failOnSecondCall(Solver lpSolver) {
+        AtomicInteger calls = new AtomicInteger();
+
+        return problem -> {
+            if (calls.incrementAndGet() == 2) {
+                throw new IOException("LP solver failed");
+            }
+
+            return lpSolver.run(problem);
+        };
+    }
+
+    private Problem buildRandomKnapsack(Random random, int numConstraints, int numVariables) {
+        return this.buildRandomKnapsack(random, numConstraints, numVariables, 80);
+    }
+
+    // Capacities are drawn from [minimumBound, minimumBound + 10)
+    private Problem buildRandomKnapsack(Random random, int numConstraints, int numVariables, int minimumBound) {
+        double[][] constraints = new double[numConstraints][numVariables];
+        double[] bounds = new double[numConstraints];
+        double[] objective = new double[numVariables];
+
+        for (int i = 0; i < numConstraints; i++) {
+            for (int j = 0; j < numVariables; j++) {
+                constraints[i][j] = 1 + random.nextInt(20);
+            }
+
+            bounds[i] = minimumBound + random.nextInt(10);
+        }
+
+        for (int j = 0; j < numVariables; j++) {
+            objective[j] = 1 + random.nextInt(30);
+        }
+
+        return new Problem(new Matrix(objective), new Matrix(constraints), new Matrix(bounds));
+    }
 }
@@ -39,8 +39,20 @@ public class CuttingPlaneSolverTest {
         Solver cuttingPlaneSolver = new CuttingPlaneSolverAdapter();
         Result result = cuttingPlaneSolver.run(problem);
 
-        assertArrayEquals(result.getSolution(), new double[] { 3.0, 1.0000000000000004 });
-        assertEquals(result.getObjectiveValue(), 19.0);
+        assertArrayEquals(result.getSolution(), new double[] { 4.0, 0.0 }, 1.0E-9);
+        assertEquals(result.getObjectiveValue(), 20.0, 1.0E-9);
+    }
+
+    @Test
+    public void infeasibleExample() throws Exception {
+        // x1 + x2 <= 1 and x1 + x2 >= 2 cannot both hold
+        Problem problem = new Problem(
+                new Matrix(new double[] { 1, 1 }),
+                new Matrix(new double[][] { { 1, 1 }, { -1, -1 } }),
+                new Matrix(new double[] { 1, -2 }));
+        Result result = new CuttingPlaneSolverAdapter().run(problem);
+
+        assertEquals(result.getObjectiveValue(), -Solver.INF);
     }
 
     @Test
@@ -0,0 +1,58 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import org.junit.jupiter.api.Test;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.LinearProgramResult;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+public class InteriorPointSolverTest {
+    @Test
+    public void reddyMikksExample() throws Exception {
+        Problem problem = new Problem(
+                new Matrix(new double[] { 5, 4 }),
+                new Matrix(new double[][] { { 6, 4 }, { 1, 2 }, { -1, 1 }, { 0, 1 } }),
+                new Matrix(new double[] { 24, 6, 1, 2 }));
+
+        for (boolean crossover : new boolean[] { false, true }) {
+            Solver solver = new InteriorPointSolverAdapter(crossover);
+            Result result = solver.run(problem);
+
+            assertArrayEquals(result.getSolution(), new double[] { 3.0, 1.5 }, 1.0E-6);
+            assertEquals(result.getObjectiveValue(), 21.0, 1.0E-6);
+        }
+    }
+
+    @Test
+    public void negativeRightHandSideExample() throws Exception {
+        Problem problem = new Problem(
+                new Matrix(new double[] { 2, 3 }),
+                new Matrix(new double[][] { { 3, 2 }, { 4, 5 }, { -1, 0 } }),
+                new Matrix(new double[] { 13, 11, -1 }));
+
+        for (boolean crossover : new boolean[] { false, true }) {
+            Solver solver = new InteriorPointSolverAdapter(crossover);
+            Result result = solver.run(problem);
+
+            assertArrayEquals(result.getSolution(), new double[] { 1.0, 1.4 }, 1.0E-6);
+            assertEquals(result.getObjectiveValue(), 6.2, 1.0E-6);
+        }
+    }
+
+    @Test
+    public void crossoverReturnsBasis() throws Exception {
+        Problem problem = new Problem(
+                new Matrix(new double[] { 5, 4 }),
+                new Matrix(new double[][] { { 6, 4 }, { 1, 2 }, { -1, 1 }, { 0, 1 } }),
+                new Matrix(new double[] { 24, 6, 1, 2 }));
+
+        Result result = new InteriorPointSolverAdapter(true).run(problem);
+
+        assertNotNull(((LinearProgramResult) result).getBasis());
+        assertArrayEquals(result.getSolution(), new double[] { 3.0, 1.5 }, 1.0E-9);
+    }
+}
@@ -0,0 +1,54 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+public class PresolveSolverTest {
+    @Test
+    public void reddyMikksExample() throws Exception {
+        // Reddy Mikks with a duplicated first row and an unconstrained third variable
+        Problem problem = new Problem(
+                new Matrix(new double[] { 5, 4, -1 }),
+                new Matrix(new double[][] { { 6, 4, 0 }, { 1, 2, 0 }, { -1, 1, 0 }, { 0, 1, 0 }, { 12, 8, 0 } }),
+                new Matrix(new double[] { 24, 6, 1, 2, 50 }));
+        Presolve presolve = new Presolve(problem, false);
+        Solver solver = new PresolveSolver(new RevisedSimplexSolverAdapter());
+        Result result = solver.run(problem);
+
+        assertEquals(presolve.getNumberOfRemovedRows(), 2);
+        assertEquals(presolve.getNumberOfRemovedColumns(), 1);
+        assertArrayEquals(result.getSolution(), new double[] { 3.0, 1.5, 0.0 }, 1.0E-9);
+        assertEquals(result.getObjectiveValue(), 21.0, 1.0E-9);
+    }
+
+    @Test
+    public void integerExample() throws Exception {
+        Problem problem = new Problem(
+                new Matrix(new double[] { 5, 4 }),
+                new Matrix(new double[][] { { 6, 4 }, { 1, 2 }, { -1, 1 }, { 0, 1 } }),
+                new Matrix(new double[] { 24, 6, 1, 2 }));
+        Solver branchAndBound = new BranchAndBoundSolver(new RevisedSimplexSolverAdapter(), 0.0001);
+        Solver solver = new PresolveSolver(branchAndBound, true);
+        Result result = solver.run(problem);
+
+        assertArrayEquals(result.getSolution(), new double[] { 4.0, 0.0 }, 1.0E-9);
+        assertEquals(result.getObjectiveValue(), 20.0, 1.0E-9);
+    }
+
+    @Test
+    public void infeasibleExample() throws Exception {
+        Problem problem = new Problem(
+                new Matrix(new double[] { 1, 1 }),
+                new Matrix(new double[][] { { 1, 0 }, { -1, 0 }, { 1, 1 } }),
+                new Matrix(new double[] { 1, -2, 4 }));
+        Solver solver = new PresolveSolver(new RevisedSimplexSolverAdapter());
+        Result result = solver.run(problem);
+
+        assertEquals(result.getObjectiveValue(), -Solver.INF);
+    }
+}
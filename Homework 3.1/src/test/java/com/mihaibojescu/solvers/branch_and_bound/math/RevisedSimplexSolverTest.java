@@ -0,0 +1,119 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.LinearProgramResult;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+public class RevisedSimplexSolverTest {
+    @Test
+    public void reddyMikksExample() throws Exception {
+        Problem problem = new Problem(
+                new Matrix(new double[] { 5, 4 }),
+                new Matrix(new double[][] { { 6, 4 }, { 1, 2 }, { -1, 1 }, { 0, 1 } }),
+                new Matrix(new double[] { 24, 6, 1, 2 }));
+        Solver solver = new RevisedSimplexSolverAdapter();
+        Result result = solver.run(problem);
+
+        assertArrayEquals(result.getSolution(), new double[] { 3.0, 1.5 }, 1.0E-9);
+        assertEquals(result.getObjectiveValue(), 21.0, 1.0E-9);
+    }
+
+    @Test
+    public void negativeRightHandSideExample() throws Exception {
+        Problem problem = new Problem(
+                new Matrix(new double[] { 2, 3 }),
+                new Matrix(new double[][] { { 3, 2 }, { 4, 5 }, { -1, 0 } }),
+                new Matrix(new double[] { 13, 11, -1 }));
+        Solver solver = new RevisedSimplexSolverAdapter();
+        Result result = solver.run(problem);
+
+        assertArrayEquals(result.getSolution(), new double[] { 1.0, 1.4 }, 1.0E-9);
+        assertEquals(result.getObjectiveValue(), 6.2, 1.0E-9);
+    }
+
+    @Test
+    public void variableBoundsExample() throws Exception {
+        Problem problem = new Problem(
+                new Matrix(new double[] { 5, 4 }),
+                new Matrix(new double[][] { { 6, 4 }, { 1, 2 }, { -1, 1 }, { 0, 1 } }),
+                new Matrix(new double[] { 24, 6, 1, 2 }));
+        problem.setVariableBounds(1, 0, 1);
+        problem.setVariableBounds(0, 2, 3);
+        Solver solver = new RevisedSimplexSolverAdapter();
+        Result result = solver.run(problem);
+
+        assertArrayEquals(result.getSolution(), new double[] { 3.0, 1.0 }, 1.0E-9);
+        assertEquals(result.getObjectiveValue(), 19.0, 1.0E-9);
+    }
+
+    @Test
+    public void warmStartExample() throws Exception {
+        Problem problem = new Problem(
+                new Matrix(new double[] { 5, 4 }),
+                new Matrix(new double[][] { { 6, 4 }, { 1, 2 }, { -1, 1 }, { 0, 1 } }),
+                new Matrix(new double[] { 24, 6, 1, 2 }));
+        RevisedSimplexSolverAdapter solver = new RevisedSimplexSolverAdapter();
+        LinearProgramResult parent = (LinearProgramResult) solver.run(problem);
+
+        Problem child = problem.clone().setVariableBounds(1, 0, 1);
+        Result result = solver.run(child, parent.getBasis());
+
+        assertArrayEquals(result.getSolution(), new double[] { 10.0 / 3.0, 1.0 }, 1.0E-9);
+        assertEquals(result.getObjectiveValue(), 62.0 / 3.0, 1.0E-9);
+
+        Problem infeasibleChild = child.clone().setVariableBounds(0, 5, Solver.INF);
+        Result infeasibleResult = solver.run(infeasibleChild, ((LinearProgramResult) result).getBasis());
+
+        assertEquals(infeasibleResult.getObjectiveValue(), -Solver.INF);
+    }
+
+    @Test
+    public void infeasibleExample() throws Exception {
+        Problem problem = new Problem(
+                new Matrix(new double[] { 1, 1 }),
+                new Matrix(new double[][] { { 1, 1 }, { -1, -1 } }),
+                new Matrix(new double[] { 2, -3 }));
+        Solver solver = new RevisedSimplexSolverAdapter();
+        Result result = solver.run(problem);
+
+        assertEquals(result.getObjectiveValue(), -Solver.INF);
+    }
+
+    @Test
+    public void unboundedExample() throws Exception {
+        Problem problem = new Problem(
+                new Matrix(new double[] { 1, 1 }),
+                new Matrix(new double[][] { { 1, -1 } }),
+                new Matrix(new double[] { 2 }));
+        Solver solver = new RevisedSimplexSolverAdapter();
+        Result result = solver.run(problem);
+
+        assertEquals(result.getObjectiveValue(), Solver.INF);
+    }
+
+    @Test
+    public void reducedCostsExample() throws Exception {
+        Problem problem = new Problem(
+                new Matrix(new double[] { 5, 4 }),
+                new Matrix(new double[][] { { 6, 4 }, { 1, 2 }, { -1, 1 }, { 0, 1 } }),
+                new Matrix(new double[] { 24, 6, 1, 2 }));
+        LinearProgramResult result = (LinearProgramResult) new RevisedSimplexSolverAdapter().run(problem);
+
+        assertArrayEquals(result.getDuals(), new double[] { 0.75, 0.5, 0.0, 0.0 }, 1.0E-9);
+        assertArrayEquals(result.getReducedCosts(), new double[] { 0.0, 0.0 }, 1.0E-9);
+
+        // Both variables end at their upper bound with every row slack, so
+        // the bounds take the whole objective
+        problem.setVariableBounds(1, 0, 1);
+        problem.setVariableBounds(0, 2, 3);
+        result = (LinearProgramResult) new RevisedSimplexSolverAdapter().run(problem);
+
+        assertArrayEquals(result.getDuals(), new double[] { 0.0, 0.0, 0.0, 0.0 }, 1.0E-9);
+        assertArrayEquals(result.getReducedCosts(), new double[] { 5.0, 4.0 }, 1.0E-9);
+    }
+}
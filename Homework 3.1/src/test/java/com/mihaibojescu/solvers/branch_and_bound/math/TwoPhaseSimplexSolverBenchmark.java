@@ -0,0 +1,98 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// Times full two-phase solves of the DIMACS graph colouring relaxations.
+// Not picked up by surefire; run it by hand after `mvn test-compile`:
+// java --add-modules jdk.incubator.foreign -cp target/classes:target/test-classes com.mihaibojescu.solvers.branch_and_bound.math.TwoPhaseSimplexSolverBenchmark
+public class TwoPhaseSimplexSolverBenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        String[] resources = args.length > 0 ? args : new String[] { "/queen5_5.col", "/dsjc125.1.col" };
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        for (String resource : resources) {
+            Problem problem = readProblem(resource);
+            SparseMatrix coefficients = problem.getSparseConstraints();
+            double[] rhs = problem.getBounds().toRawVector();
+            double[] objective = problem.getObjectiveFunctionMultipliers().toRawVector();
+
+            for (PricingStrategy pricingStrategy : new PricingStrategy[] { PricingStrategy.FIRST_IMPROVING,
+                    PricingStrategy.DANTZIG, PricingStrategy.STEEPEST_EDGE }) {
+                for (TableauStorageType storageType : TableauStorageType.values()) {
+                    for (boolean parallel : new boolean[] { false, true }) {
+                        int pivots = 0;
+                        double objectiveValue = 0;
+                        long elapsed = 0;
+
+                        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                            long start = System.nanoTime();
+                            try (TwoPhaseSimplexSolver solver = new TwoPhaseSimplexSolver(coefficients, rhs, objective,
+                                    pricingStrategy.create(), parallel ? pool : null, storageType)) {
+                                solver.solve();
+
+                                if (round >= WARMUP_ROUNDS) {
+                                    elapsed += System.nanoTime() - start;
+                                }
+
+                                pivots = solver.getNumberOfPivots();
+                                objectiveValue = solver.optimalValue();
+                            }
+                        }
+
+                        System.out.printf("%-16s %-16s %-8s %-8s pivots %6d  objective %10.4f  %10.2f ms/solve%n",
+                                resource, pricingStrategy, storageType, parallel ? "parallel" : "serial", pivots,
+                                objectiveValue, elapsed / 1.0E6 / MEASURED_ROUNDS);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Problem readProblem(String resource) throws IOException {
+        List<String> lines = new ArrayList<>();
+
+        try (InputStream stream = TwoPhaseSimplexSolverBenchmark.class.getResourceAsStream(resource)) {
+            for (String line : new String(stream.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                lines.add(line.trim());
+            }
+        }
+
+        int numberOfVertices = 0;
+        List<int[]> edges = new ArrayList<>();
+
+        for (String line : lines) {
+            if (line.startsWith("p")) {
+                numberOfVertices = Integer.valueOf(line.split(" ")[2]);
+            } else if (line.startsWith("e")) {
+                String[] parts = line.split(" ");
+                edges.add(new int[] { Integer.valueOf(parts[1]), Integer.valueOf(parts[2]) });
+            }
+        }
+
+        Matrix objectiveFunctionMultipliers = new Matrix(1, numberOfVertices);
+        Matrix constraintsMultipliers = new Matrix(edges.size(), numberOfVertices);
+        Matrix bounds = new Matrix(1, edges.size());
+
+        for (int i = 0; i < numberOfVertices; i++) {
+            objectiveFunctionMultipliers.set(0, i, 1);
+        }
+
+        for (int i = 0; i < edges.size(); i++) {
+            for (int vertex : edges.get(i)) {
+                constraintsMultipliers.set(i, vertex - 1, 1);
+            }
+
+            bounds.set(0, i, 1);
+        }
+
+        return new Problem(objectiveFunctionMultipliers, constraintsMultipliers, bounds);
+    }
+}
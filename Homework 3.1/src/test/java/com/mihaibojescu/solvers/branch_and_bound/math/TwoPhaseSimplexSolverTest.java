@@ -0,0 +1,122 @@
+package com.mihaibojescu.solvers.branch_and_bound.math;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.mihaibojescu.solvers.branch_and_bound.interfaces.Solver;
+import com.mihaibojescu.solvers.branch_and_bound.util.LinearProgramResult;
+import com.mihaibojescu.solvers.branch_and_bound.util.Result;
+
+public class TwoPhaseSimplexSolverTest {
+    @Test
+    public void reddyMikksExample() throws Exception {
+        Problem problem = new Problem(
+                new Matrix(new double[] { 5, 4 }),
+                new Matrix(new double[][] { { 6, 4 }, { 1, 2 }, { -1, 1 }, { 0, 1 } }),
+                new Matrix(new double[] { 24, 6, 1, 2 }));
+
+        for (PricingStrategy pricingStrategy : PricingStrategy.values()) {
+            Solver solver = new TwoPhaseSimplexSolverAdapter(pricingStrategy);
+            Result result = solver.run(problem);
+
+            assertArrayEquals(result.getSolution(), new double[] { 3.0, 1.5 }, 1.0E-9);
+            assertEquals(result.getObjectiveValue(), 21.0, 1.0E-9);
+        }
+    }
+
+    @Test
+    public void negativeRightHandSideExample() throws Exception {
+        Problem problem = new Problem(
+                new Matrix(new double[] { 2, 3 }),
+                new Matrix(new double[][] { { 3, 2 }, { 4, 5 }, { -1, 0 } }),
+                new Matrix(new double[] { 13, 11, -1 }));
+
+        for (PricingStrategy pricingStrategy : PricingStrategy.values()) {
+            Solver solver = new TwoPhaseSimplexSolverAdapter(pricingStrategy);
+            Result result = solver.run(problem);
+
+            assertArrayEquals(result.getSolution(), new double[] { 1.0, 1.4 }, 1.0E-9);
+            assertEquals(result.getObjectiveValue(), 6.2, 1.0E-9);
+        }
+    }
+
+    @Test
+    public void parallelPivotExample() throws Exception {
+        // Large enough for the pivots, ratio tests and pricing to be split across the pool
+        Random random = new Random(42);
+        double[][] coefficients = new double[200][200];
+        double[] rhs = new double[200];
+        double[] objective = new double[200];
+
+        for (int i = 0; i < 200; i++) {
+            for (int j = 0; j < 200; j++) {
+                coefficients[i][j] = random.nextInt(4) == 0 ? random.nextInt(10) : 0;
+            }
+
+            rhs[i] = 50 + random.nextInt(50);
+            objective[i] = 1 + random.nextInt(10);
+        }
+
+        SparseMatrix matrix = new SparseMatrix(new Matrix(coefficients));
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            for (PricingStrategy pricingStrategy : PricingStrategy.values()) {
+                TwoPhaseSimplexSolver serial = new TwoPhaseSimplexSolver(matrix, rhs, objective,
+                        pricingStrategy.create());
+                TwoPhaseSimplexSolver parallel = new TwoPhaseSimplexSolver(matrix, rhs, objective,
+                        pricingStrategy.create(), pool);
+
+                assertArrayEquals(parallel.solve(), serial.solve());
+                assertEquals(parallel.getNumberOfPivots(), serial.getNumberOfPivots());
+                assertEquals(parallel.optimalValue(), serial.optimalValue());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void offHeapExample() throws Exception {
+        Problem problem = new Problem(
+                new Matrix(new double[] { 2, 3 }),
+                new Matrix(new double[][] { { 3, 2 }, { 4, 5 }, { -1, 0 } }),
+                new Matrix(new double[] { 13, 11, -1 }));
+
+        for (PricingStrategy pricingStrategy : PricingStrategy.values()) {
+            Solver heap = new TwoPhaseSimplexSolverAdapter(pricingStrategy, null, TableauStorageType.HEAP);
+            Solver offHeap = new TwoPhaseSimplexSolverAdapter(pricingStrategy, null, TableauStorageType.OFF_HEAP);
+            Result expected = heap.run(problem);
+            Result result = offHeap.run(problem);
+
+            assertArrayEquals(result.getSolution(), expected.getSolution());
+            assertEquals(result.getObjectiveValue(), expected.getObjectiveValue());
+        }
+    }
+
+    @Test
+    public void reducedCostsExample() throws Exception {
+        Problem problem = new Problem(
+                new Matrix(new double[] { 5, 4 }),
+                new Matrix(new double[][] { { 6, 4 }, { 1, 2 }, { -1, 1 }, { 0, 1 } }),
+                new Matrix(new double[] { 24, 6, 1, 2 }));
+        LinearProgramResult result = (LinearProgramResult) new TwoPhaseSimplexSolverAdapter().run(problem);
+
+        assertArrayEquals(result.getDuals(), new double[] { 0.75, 0.5, 0.0, 0.0 }, 1.0E-9);
+        assertArrayEquals(result.getReducedCosts(), new double[] { 0.0, 0.0 }, 1.0E-9);
+
+        // Both variables end at their upper bound with every row slack, so
+        // the bounds take the whole objective
+        problem.setVariableBounds(1, 0, 1);
+        problem.setVariableBounds(0, 2, 3);
+        result = (LinearProgramResult) new TwoPhaseSimplexSolverAdapter().run(problem);
+
+        assertArrayEquals(result.getDuals(), new double[] { 0.0, 0.0, 0.0, 0.0 }, 1.0E-9);
+        assertArrayEquals(result.getReducedCosts(), new double[] { 5.0, 4.0 }, 1.0E-9);
+    }
+}